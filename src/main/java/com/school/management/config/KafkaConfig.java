@@ -4,16 +4,21 @@ package com.school.management.config;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.ExponentialBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -27,6 +32,12 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id:school-management-group}")
     private String groupId;
 
+    @Value("${app.attendance.ingest-retry.initial-interval-ms:1000}")
+    private long ingestRetryInitialIntervalMs;
+
+    @Value("${app.attendance.ingest-retry.max-interval-ms:60000}")
+    private long ingestRetryMaxIntervalMs;
+
     // Producer Configuration
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
@@ -60,6 +71,36 @@ public class KafkaConfig {
         return new NewTopic("notification-events", 1, (short) 1);
     }
 
+    @Bean
+    public NewTopic attendanceIngestTopic() {
+        return new NewTopic("attendance-ingest", 3, (short) 1);
+    }
+
+    @Bean
+    public NewTopic attendanceIngestDeadLetterTopic() {
+        return new NewTopic("attendance-ingest.DLT", 3, (short) 1);
+    }
+
+    @Bean
+    public NewTopic attendanceEventsTopic() {
+        return new NewTopic("attendance-events", 3, (short) 1);
+    }
+
+    @Bean
+    public NewTopic enrollmentEventsTopic() {
+        return new NewTopic("enrollment-events", 1, (short) 1);
+    }
+
+    @Bean
+    public NewTopic courseEventsTopic() {
+        return new NewTopic("course-events", 1, (short) 1);
+    }
+
+    @Bean
+    public NewTopic calendarEventsTopic() {
+        return new NewTopic("calendar-events", 1, (short) 1);
+    }
+
 
     // Consumer Configuration
     @Bean
@@ -82,4 +123,30 @@ public class KafkaConfig {
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
         return factory;
     }
+
+    // Batch consumer for queued attendance; the listener acknowledges each batch after it commits
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> attendanceBatchListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(3);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(attendanceBatchErrorHandler());
+        return factory;
+    }
+
+    // Failed batches are retried until the database is back; the marks were already accepted with 202.
+    // Only failures a retry cannot fix are parked on attendance-ingest.DLT, never dropped.
+    @Bean
+    public DefaultErrorHandler attendanceBatchErrorHandler() {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate(),
+                (record, exception) -> new TopicPartition(record.topic() + ".DLT", record.partition()));
+        ExponentialBackOff backOff = new ExponentialBackOff(ingestRetryInitialIntervalMs, 2.0);
+        backOff.setMaxInterval(ingestRetryMaxIntervalMs);
+        backOff.setMaxElapsedTime(Long.MAX_VALUE);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, backOff);
+        errorHandler.addNotRetryableExceptions(DataIntegrityViolationException.class);
+        return errorHandler;
+    }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.school.management.dto.AttendanceSegment;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -11,6 +12,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
@@ -27,6 +29,10 @@ import java.util.Map;
 @EnableCaching
 public class RedisConfig {
 
+    // ended weeks rarely change and are evicted on correction; the current week is still being marked
+    private static final RedisCacheWriter.TtlFunction ATTENDANCE_SEGMENT_TTL = (key, value) ->
+            value instanceof AttendanceSegment segment && segment.isClosed() ? Duration.ofHours(24) : Duration.ofMinutes(5);
+
     @Value("${spring.redis.host:localhost}")
     private String host;
 
@@ -75,6 +81,14 @@ public class RedisConfig {
         perCache.put("students", baseCfg.entryTtl(Duration.ofHours(2)));
         perCache.put("teachers", baseCfg.entryTtl(Duration.ofHours(2)));
         perCache.put("courses",  baseCfg.entryTtl(Duration.ofHours(4)));
+        perCache.put("teacher-dashboard", baseCfg.entryTtl(Duration.ofMinutes(15))); // next due assignment moves with time
+        // enrollment keys are versioned, superseded entries are never evicted and just expire
+        for (String name : new String[] {"enrollment", "enrollments-by-student", "enrollments-by-course",
+                "enrollments-by-semester-year", "enrollment-count-by-course", "enrollment-count-by-student"}) {
+            perCache.put(name, baseCfg.entryTtl(Duration.ofMinutes(30)));
+        }
+        perCache.put("attendance-student-weeks", baseCfg.entryTtl(ATTENDANCE_SEGMENT_TTL));
+        perCache.put("attendance-course-weeks", baseCfg.entryTtl(ATTENDANCE_SEGMENT_TTL));
 
         return RedisCacheManager.builder(cf)
                 .cacheDefaults(baseCfg)
@@ -1,13 +1,16 @@
 package com.school.management.controller;
 import com.school.management.dto.AssignmentDto;
+import com.school.management.dto.CursorPage;
 import com.school.management.entity.Assignment;
 import com.school.management.entity.Course;
 import com.school.management.repository.AssignmentRepository;
 import com.school.management.repository.CourseRepository;
+import com.school.management.service.TeacherDashboardService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -29,6 +32,9 @@ public class AssignmentController {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private TeacherDashboardService teacherDashboardService;
+
     @GetMapping
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
     public ResponseEntity<Page<Assignment>> getAllAssignments(Pageable pageable) {
@@ -36,6 +42,17 @@ public class AssignmentController {
         return ResponseEntity.ok(assignments);
     }
 
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<Assignment>> getAllAssignmentsByCursor(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        int pageSize = CursorPage.clampSize(size);
+        List<Assignment> assignments = assignmentRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.decodeCursor(after), Limit.of(pageSize + 1));
+        Long total = includeTotal ? assignmentRepository.count() : null;
+        return ResponseEntity.ok(CursorPage.of(assignments, pageSize, Assignment::getId, total));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Assignment> getAssignmentById(@PathVariable Long id) {
         Optional<Assignment> assignment = assignmentRepository.findById(id);
@@ -92,6 +109,7 @@ public class AssignmentController {
             assignment.setMaxPoints(assignmentDto.getMaxPoints());
             assignment.setType(assignmentDto.getType());
             Assignment savedAssignment = assignmentRepository.save(assignment);
+            teacherDashboardService.evictForCourse(course.getId());
             return ResponseEntity.ok(savedAssignment);
     }
 
@@ -110,6 +128,7 @@ public class AssignmentController {
             assignment.setIsActive(assignmentDetails.getIsActive());
 
             Assignment updatedAssignment = assignmentRepository.save(assignment);
+            teacherDashboardService.evictForCourse(assignment.getCourse().getId());
             return ResponseEntity.ok(updatedAssignment);
         }
         return ResponseEntity.notFound().build();
@@ -125,6 +144,7 @@ public class AssignmentController {
             Assignment a = assignment.get();
             a.setIsActive(false);
             assignmentRepository.save(a);
+            teacherDashboardService.evictForCourse(a.getCourse().getId());
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
@@ -1,30 +1,40 @@
 package com.school.management.controller;
 import com.school.management.constant.Constant;
+import com.school.management.constant.ResponseMessage;
+import com.school.management.dto.AttendanceRangeSummary;
+import com.school.management.dto.AttendanceSessionDto;
+import com.school.management.dto.AttendanceSessionResult;
+import com.school.management.dto.AttendanceView;
 import com.school.management.dto.AttendenceDto;
+import com.school.management.dto.CourseAttendanceSummary;
+import com.school.management.dto.CursorPage;
 import com.school.management.entity.Attendance;
-import com.school.management.entity.Course;
-import com.school.management.entity.Student;
 import com.school.management.repository.AttendanceRepository;
-import com.school.management.repository.CourseRepository;
-import com.school.management.repository.StudentRepository;
+import com.school.management.service.AcademicCalendar;
+import com.school.management.service.AttendanceBitmapIndex;
+import com.school.management.service.AttendanceCounterService;
+import com.school.management.service.AttendanceExportService;
+import com.school.management.service.AttendanceQueryService;
+import com.school.management.service.AttendanceService;
+import com.school.management.service.TodayAttendanceView;
 import exception.CustomException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -36,18 +46,44 @@ public class AttendanceController {
     private AttendanceRepository attendanceRepository;
 
     @Autowired
-    private StudentRepository studentRepository;
+    private AttendanceService attendanceService;
 
     @Autowired
-     private CourseRepository courseRepository;
+    private AttendanceCounterService attendanceCounterService;
+
+    @Autowired
+    private AttendanceBitmapIndex attendanceBitmapIndex;
+
+    @Autowired
+    private AttendanceExportService attendanceExportService;
+
+    @Autowired
+    private AttendanceQueryService attendanceQueryService;
+
+    @Autowired
+    private TodayAttendanceView todayAttendanceView;
+
+    @Autowired
+    private AcademicCalendar academicCalendar;
+
     @GetMapping
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "attendance", key = "#pageable.pageNumber + '-' + #pageable.pageSize")
-    public ResponseEntity<Page<Attendance>> getAllAttendance(Pageable pageable) {
-        Page<Attendance> attendance = attendanceRepository.findAll(pageable);
+    public ResponseEntity<Page<AttendanceView>> getAllAttendance(Pageable pageable) {
+        Page<AttendanceView> attendance = attendanceQueryService.getAllAttendance(pageable);
         return ResponseEntity.ok(attendance);
     }
 
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<AttendanceView>> getAllAttendanceByCursor(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        int pageSize = CursorPage.clampSize(size);
+        List<AttendanceView> attendance = attendanceQueryService.getAttendanceAfter(CursorPage.decodeCursor(after), pageSize + 1);
+        Long total = includeTotal ? attendanceRepository.count() : null;
+        return ResponseEntity.ok(CursorPage.of(attendance, pageSize, AttendanceView::getId, total));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN') or (hasRole('STUDENT') and @attendanceRepository.findById(#id).orElse(null)?.student?.id == authentication.principal.id)")
     public ResponseEntity<AttendenceDto> getAttendanceById(@PathVariable Long id) {
@@ -70,101 +106,102 @@ public class AttendanceController {
 
     @GetMapping("/student/{studentId}")
     @PreAuthorize("hasRole('STUDENT') and #studentId == authentication.principal.id or hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "attendance-by-student", key = "#studentId")
-    public ResponseEntity<List<Attendance>> getAttendanceByStudent(@PathVariable Long studentId) {
-        List<Attendance> attendance = attendanceRepository.findByStudentId(studentId);
+    public ResponseEntity<List<AttendanceView>> getAttendanceByStudent(@PathVariable Long studentId) {
+        List<AttendanceView> attendance = attendanceQueryService.getAttendanceByStudent(studentId);
         return ResponseEntity.ok(attendance);
     }
 
     @GetMapping("/course/{courseId}")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "attendance-by-course", key = "#courseId")
-    public ResponseEntity<List<Attendance>> getAttendanceByCourse(@PathVariable Long courseId) {
-        List<Attendance> attendance = attendanceRepository.findByCourseId(courseId);
+    public ResponseEntity<List<AttendanceView>> getAttendanceByCourse(@PathVariable Long courseId) {
+        List<AttendanceView> attendance = attendanceQueryService.getAttendanceByCourse(courseId);
         return ResponseEntity.ok(attendance);
     }
 
     @GetMapping("/date/{date}")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "attendance-by-date", key = "#date")
-    public ResponseEntity<List<Attendance>> getAttendanceByDate(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        List<Attendance> attendance = attendanceRepository.findByDate(date);
+    public ResponseEntity<List<AttendanceView>> getAttendanceByDate(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        // today is served from memory; other dates use the cached query
+        List<AttendanceView> attendance = todayAttendanceView.find(date)
+                .orElseGet(() -> attendanceQueryService.getAttendanceByDate(date));
         return ResponseEntity.ok(attendance);
     }
 
+    @GetMapping("/course/{courseId}/summary")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    public ResponseEntity<CourseAttendanceSummary> getCourseAttendanceSummary(@PathVariable Long courseId) {
+        return ResponseEntity.ok(attendanceQueryService.getCourseSummary(courseId));
+    }
+
     @GetMapping("/course/{courseId}/date-range")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "attendance-by-course-date-range", key = "#courseId + '-' + #startDate + '-' + #endDate")
-    public ResponseEntity<List<Attendance>> getAttendanceByCourseAndDateRange(
+    public ResponseEntity<List<AttendanceView>> getAttendanceByCourseAndDateRange(
             @PathVariable Long courseId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        List<Attendance> attendance = attendanceRepository.findAttendanceByCourseAndDateRange(courseId, startDate, endDate);
+        List<AttendanceView> attendance = attendanceQueryService.getAttendanceByCourseAndDateRange(courseId, startDate, endDate);
         return ResponseEntity.ok(attendance);
     }
 
+    @GetMapping("/course/{courseId}/export")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAttendanceByCourse(
+            @PathVariable Long courseId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "CSV") AttendanceExportService.Format format) {
+        boolean csv = format == AttendanceExportService.Format.CSV;
+        String fileName = "attendance-" + courseId + "-" + startDate + "-" + endDate + (csv ? ".csv" : ".ndjson");
+        StreamingResponseBody body = out -> attendanceExportService.export(courseId, startDate, endDate, format, out);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
     @GetMapping("/student/{studentId}/date-range")
     @PreAuthorize("hasRole('STUDENT') and #studentId == authentication.principal.id or hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "attendance-by-student-date-range", key = "#studentId + '-' + #startDate + '-' + #endDate")
-    public ResponseEntity<List<Attendance>> getAttendanceByStudentAndDateRange(
+    public ResponseEntity<List<AttendanceView>> getAttendanceByStudentAndDateRange(
             @PathVariable Long studentId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        List<Attendance> attendance = attendanceRepository.findAttendanceByStudentAndDateRange(studentId, startDate, endDate);
+        List<AttendanceView> attendance = attendanceQueryService.getAttendanceByStudentAndDateRange(studentId, startDate, endDate);
         return ResponseEntity.ok(attendance);
     }
 
     @PostMapping
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<?> markAttendance(@RequestBody AttendenceDto attendenceDto,Authentication authentication) {
-        // Check if attendance record already exists for this student, course, and date
-          Student student = studentRepository.findByStudentId(attendenceDto.getStudentId());
-          Course course = courseRepository.findByCourseId(attendenceDto.getCourseId());
-        Attendance attendee  = attendanceRepository.findByMarkedAtAndMarkedBy(attendenceDto.getMarkedAt(),authentication.getName());
-
-
-    if(Objects.isNull(attendee)){
-        Attendance attendance = new Attendance();
-        attendance.setMarkedBy(authentication.getName());
-        attendance.setCourse(course);
-        attendance.setStatus(Constant.AttendanceStatus.PRESENT);
-        attendance.setStudent(student);
-        attendance.setMarkedAt(LocalDateTime.now());
-        attendance.setRemarks(attendenceDto.getRemarks());
-
-        Attendance savedAttendance = attendanceRepository.save(attendance);
+        if (attendanceService.isAsyncIngest()) {
+            attendanceService.enqueueAttendance(attendenceDto, authentication.getName());
+            return new ResponseEntity<>("attendance accepted for processing", HttpStatus.ACCEPTED);
+        }
+        attendanceService.markAttendance(attendenceDto, authentication.getName());
         return  new ResponseEntity<>("attendance marked successfully", HttpStatus.OK);
     }
 
-    throw new CustomException("attendance already marked");
-
+    @PostMapping("/course/{courseId}/session")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<AttendanceSessionResult> markAttendanceSession(@PathVariable Long courseId,
+                                                                        @Valid @RequestBody AttendanceSessionDto sessionDto,
+                                                                        Authentication authentication) {
+        AttendanceSessionResult result = attendanceService.markSession(courseId, sessionDto, authentication.getName());
+        return ResponseEntity.ok(result);
     }
 
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('TEACHER')")
-    @CacheEvict(value = {"attendance", "attendance-record", "attendance-by-student", "attendance-by-course", "attendance-by-date", "attendance-by-course-date-range", "attendance-by-student-date-range"}, allEntries = true)
     public ResponseEntity<Attendance> updateAttendance(@PathVariable Long id, @Valid @RequestBody Attendance attendanceDetails, Authentication authentication) {
-        Optional<Attendance> optionalAttendance = attendanceRepository.findById(id);
-        if (optionalAttendance.isPresent()) {
-            Attendance attendance = optionalAttendance.get();
-            attendance.setStatus(attendanceDetails.getStatus());
-            attendance.setRemarks(attendanceDetails.getRemarks());
-            attendance.setMarkedBy(authentication.getName());
-            attendance.setMarkedAt(LocalDateTime.now());
-
-            Attendance updatedAttendance = attendanceRepository.save(attendance);
-            return ResponseEntity.ok(updatedAttendance);
-        }
-        return ResponseEntity.notFound().build();
+        return attendanceService.updateAttendance(id, attendanceDetails, authentication.getName())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
-    @CacheEvict(value = {"attendance", "attendance-record", "attendance-by-student", "attendance-by-course", "attendance-by-date", "attendance-by-course-date-range", "attendance-by-student-date-range"}, allEntries = true)
     public ResponseEntity<?> deleteAttendance(@PathVariable Long id) {
-        if (attendanceRepository.existsById(id)) {
-            attendanceRepository.deleteById(id);
+        if (attendanceService.deleteAttendance(id)) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
@@ -172,25 +209,82 @@ public class AttendanceController {
 
     @GetMapping("/student/{studentId}/course/{courseId}/present-days")
     @PreAuthorize("hasRole('STUDENT') and #studentId == authentication.principal.id or hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "present-days-count", key = "#studentId + '-' + #courseId")
     public ResponseEntity<Long> getPresentDaysCount(@PathVariable Long studentId, @PathVariable Long courseId) {
-        Long presentDays = attendanceRepository.countPresentDays(studentId, courseId);
+        Long presentDays = attendanceCounterService.getPresentDays(studentId, courseId);
         return ResponseEntity.ok(presentDays);
     }
 
     @GetMapping("/student/{studentId}/course/{courseId}/total-days")
     @PreAuthorize("hasRole('STUDENT') and #studentId == authentication.principal.id or hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "total-days-count", key = "#studentId + '-' + #courseId")
     public ResponseEntity<Long> getTotalDaysCount(@PathVariable Long studentId, @PathVariable Long courseId) {
-        Long totalDays = attendanceRepository.countTotalDays(studentId, courseId);
+        Long totalDays = attendanceCounterService.getTotalDays(studentId, courseId);
         return ResponseEntity.ok(totalDays);
     }
 
     @GetMapping("/student/{studentId}/course/{courseId}/percentage")
     @PreAuthorize("hasRole('STUDENT') and #studentId == authentication.principal.id or hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "attendance-percentage", key = "#studentId + '-' + #courseId")
     public ResponseEntity<Double> getAttendancePercentage(@PathVariable Long studentId, @PathVariable Long courseId) {
-        Double percentage = attendanceRepository.getAttendancePercentage(studentId, courseId);
-        return ResponseEntity.ok(percentage != null ? percentage : 0.0);
+        Double percentage = attendanceCounterService.getAttendancePercentage(studentId, courseId);
+        return ResponseEntity.ok(percentage);
+    }
+
+    @GetMapping("/student/{studentId}/course/{courseId}/days")
+    @PreAuthorize("hasRole('STUDENT') and #studentId == authentication.principal.id or hasRole('TEACHER') or hasRole('ADMIN')")
+    public ResponseEntity<List<LocalDate>> getAttendanceDays(
+            @PathVariable Long studentId,
+            @PathVariable Long courseId,
+            @RequestParam(defaultValue = "PRESENT") Constant.AttendanceStatus status,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (!attendanceBitmapIndex.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        List<LocalDate> days = attendanceBitmapIndex.findDays(studentId, courseId, status, startDate, endDate);
+        return ResponseEntity.ok(days);
+    }
+
+    @GetMapping("/student/{studentId}/course/{courseId}/range-summary")
+    @PreAuthorize("hasRole('STUDENT') and #studentId == authentication.principal.id or hasRole('TEACHER') or hasRole('ADMIN')")
+    public ResponseEntity<AttendanceRangeSummary> getAttendanceRangeSummary(
+            @PathVariable Long studentId,
+            @PathVariable Long courseId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (!attendanceBitmapIndex.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        Map<Constant.AttendanceStatus, Long> counts = attendanceBitmapIndex.countByStatus(studentId, courseId, startDate, endDate);
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+
+        AttendanceRangeSummary summary = new AttendanceRangeSummary();
+        summary.setStudentId(studentId);
+        summary.setCourseId(courseId);
+        summary.setStartDate(startDate);
+        summary.setEndDate(endDate);
+        summary.setCounts(counts);
+        summary.setSchoolDays(academicCalendar.schoolDaysBetween(startDate, endDate));
+        summary.setPercentage(total == 0 ? 0.0 : counts.get(Constant.AttendanceStatus.PRESENT) * 100.0 / total);
+        return ResponseEntity.ok(summary);
+    }
+
+    @GetMapping("/student/{studentId}/course/{courseId}/streak")
+    @PreAuthorize("hasRole('STUDENT') and #studentId == authentication.principal.id or hasRole('TEACHER') or hasRole('ADMIN')")
+    public ResponseEntity<Integer> getAttendanceStreak(
+            @PathVariable Long studentId,
+            @PathVariable Long courseId,
+            @RequestParam(defaultValue = "PRESENT") Constant.AttendanceStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        if (!attendanceBitmapIndex.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        int streak = attendanceBitmapIndex.streak(studentId, courseId, status, asOf != null ? asOf : LocalDate.now());
+        return ResponseEntity.ok(streak);
+    }
+
+    @PostMapping("/counters/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> rebuildAttendanceCounters() {
+        int rows = attendanceCounterService.rebuild();
+        return ResponseEntity.ok(new ResponseMessage("attendance counters rebuilt: " + rows + " rows"));
     }
 }
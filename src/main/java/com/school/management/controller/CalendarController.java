@@ -0,0 +1,111 @@
+package com.school.management.controller;
+import com.school.management.constant.ResponseMessage;
+import com.school.management.entity.AcademicTerm;
+import com.school.management.entity.Holiday;
+import com.school.management.repository.AcademicTermRepository;
+import com.school.management.repository.HolidayRepository;
+import com.school.management.service.AcademicCalendar;
+import com.school.management.service.CalendarChangeService;
+import exception.CustomException;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/calendar")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class CalendarController {
+
+    @Autowired
+    private AcademicTermRepository academicTermRepository;
+
+    @Autowired
+    private HolidayRepository holidayRepository;
+
+    @Autowired
+    private AcademicCalendar academicCalendar;
+
+    @Autowired
+    private CalendarChangeService calendarChangeService;
+
+    @GetMapping("/terms")
+    public ResponseEntity<List<AcademicTerm>> getTerms() {
+        return ResponseEntity.ok(academicTermRepository.findAllByOrderByStartDateAsc());
+    }
+
+    @PostMapping("/terms")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseMessage> createTerm(@Valid @RequestBody AcademicTerm term) {
+        if (term.getEndDate().isBefore(term.getStartDate())) {
+            throw new CustomException("term end date is before its start date");
+        }
+        if (academicTermRepository.existsBySemesterAndAcademicYear(term.getSemester(), term.getAcademicYear())) {
+            throw new CustomException("term already exists for this semester and academic year");
+        }
+        term.setId(null);
+        academicTermRepository.save(term);
+        calendarChangeService.calendarChanged();
+        return new ResponseEntity<>(new ResponseMessage("term saved successfully"), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/terms/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> deleteTerm(@PathVariable Long id) {
+        if (!academicTermRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        academicTermRepository.deleteById(id);
+        calendarChangeService.calendarChanged();
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/holidays")
+    public ResponseEntity<List<Holiday>> getHolidays() {
+        return ResponseEntity.ok(holidayRepository.findAllByOrderByDateAsc());
+    }
+
+    @PostMapping("/holidays")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseMessage> createHoliday(@Valid @RequestBody Holiday holiday) {
+        if (holidayRepository.existsByDate(holiday.getDate())) {
+            throw new CustomException("holiday already exists for this date");
+        }
+        holiday.setId(null);
+        holidayRepository.save(holiday);
+        calendarChangeService.calendarChanged();
+        return new ResponseEntity<>(new ResponseMessage("holiday saved successfully"), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/holidays/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> deleteHoliday(@PathVariable Long id) {
+        if (!holidayRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        holidayRepository.deleteById(id);
+        calendarChangeService.calendarChanged();
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/school-days")
+    public ResponseEntity<Integer> countSchoolDays(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(academicCalendar.schoolDaysBetween(startDate, endDate));
+    }
+
+    // e.g. an assignment due five school days from today
+    @GetMapping("/school-days/shift")
+    public ResponseEntity<LocalDate> shiftBySchoolDays(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                       @RequestParam int days) {
+        return academicCalendar.snapshot().plusSchoolDays(date, days)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -3,16 +3,21 @@ package com.school.management.controller;
 
 import com.school.management.constant.ResponseMessage;
 import com.school.management.dto.CourseDto;
+import com.school.management.dto.CourseView;
 import com.school.management.entity.Course;
 import com.school.management.entity.Teacher;
 import com.school.management.repository.CourseRepository;
 import com.school.management.repository.TeacherRepository;
+import com.school.management.service.CourseCatalog;
+import com.school.management.service.CourseSeatService;
 import com.school.management.service.CourseService;
+import com.school.management.service.EnrollmentCacheVersions;
+import com.school.management.service.TeacherDashboardService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -38,19 +43,32 @@ public class CourseController {
     @Autowired
     private CourseService courseService;
 
+    @Autowired
+    private CourseCatalog courseCatalog;
+
+    @Autowired
+    private TeacherDashboardService teacherDashboardService;
 
+    @Autowired
+    private CourseSeatService courseSeatService;
+
+    @Autowired
+    private EnrollmentCacheVersions enrollmentCacheVersions;
 
+
+
+    // catalog GETs are served from the in-memory course catalog
     @GetMapping
-    @Cacheable(value = "courses", key = "#pageable.pageNumber + '-' + #pageable.pageSize")
-    public ResponseEntity<Page<Course>> getAllCourses(Pageable pageable) {
-        Page<Course> courses = courseRepository.findAll(pageable);
-        return ResponseEntity.ok(courses);
+    public ResponseEntity<Page<CourseView>> getAllCourses(Pageable pageable) {
+        List<CourseView> all = courseCatalog.findAll();
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return ResponseEntity.ok(new PageImpl<>(all.subList(from, to), pageable, all.size()));
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<Course>> getActiveCourses() {
-        List<Course> activeCourses = courseRepository.findByIsActiveTrue();
-        return ResponseEntity.ok(activeCourses);
+    public ResponseEntity<List<CourseView>> getActiveCourses() {
+        return ResponseEntity.ok(courseCatalog.findActive());
     }
 
     @GetMapping("/{id}")
@@ -60,33 +78,28 @@ public class CourseController {
     }
 
     @GetMapping("/code/{courseCode}")
-    public ResponseEntity<Course> getCourseByCourseCode(@PathVariable String courseCode) {
-        Optional<Course> course = courseRepository.findByCourseCode(courseCode);
-        return course.map(ResponseEntity::ok)
+    public ResponseEntity<CourseView> getCourseByCourseCode(@PathVariable String courseCode) {
+        return courseCatalog.findByCode(courseCode).map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/teacher/{teacherId}")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN') or hasRole('STUDENT')")
-    @Cacheable(value = "courses-by-teacher", key = "#teacherId")
-    public ResponseEntity<List<Course>> getCoursesByTeacher(@PathVariable Long teacherId) {
-        List<Course> courses = courseRepository.findActiveCoursesByTeacher(teacherId);
-        return ResponseEntity.ok(courses);
+    public ResponseEntity<List<CourseView>> getCoursesByTeacher(@PathVariable Long teacherId) {
+        return ResponseEntity.ok(courseCatalog.findActiveByTeacher(teacherId));
     }
 
     @GetMapping("/student/{studentId}")
     @PreAuthorize("hasRole('STUDENT') and #studentId == authentication.principal.id or hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "courses-by-student", key = "#studentId")
-    public ResponseEntity<List<Course>> getCoursesByStudent(@PathVariable Long studentId) {
-        List<Course> courses = courseRepository.findCoursesByStudentId(studentId);
+    public ResponseEntity<List<CourseView>> getCoursesByStudent(@PathVariable Long studentId) {
+        // enrollment is not catalog data, only the course ids come from the database
+        List<CourseView> courses = courseCatalog.findByIds(courseRepository.findCourseIdsByStudentId(studentId));
         return ResponseEntity.ok(courses);
     }
 
     @GetMapping("/semester/{semester}/year/{academicYear}")
-    @Cacheable(value = "courses-by-semester-year", key = "#semester + '-' + #academicYear")
-    public ResponseEntity<List<Course>> getCoursesBySemesterAndYear(@PathVariable String semester, @PathVariable String academicYear) {
-        List<Course> courses = courseRepository.findCoursesBySemesterAndYear(semester, academicYear);
-        return ResponseEntity.ok(courses);
+    public ResponseEntity<List<CourseView>> getCoursesBySemesterAndYear(@PathVariable String semester, @PathVariable String academicYear) {
+        return ResponseEntity.ok(courseCatalog.findActiveBySemesterAndYear(semester, academicYear));
     }
 
     @PostMapping
@@ -113,16 +126,18 @@ public class CourseController {
         course.setTeacher(teacher);
 
         Course savedCourse = courseRepository.save(course);
+        courseCatalog.courseChanged(savedCourse.getId());
+        teacherDashboardService.evictForCourse(savedCourse.getId());
         return  new ResponseEntity<>( new ResponseMessage("course saved successfully"), HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
-    @CacheEvict(value = {"courses", "course", "active-courses", "courses-by-teacher", "courses-by-semester-year", "course-by-code"}, allEntries = true)
     public ResponseEntity<Course> updateCourse(@PathVariable Long id, @Valid @RequestBody Course courseDetails) {
         Optional<Course> optionalCourse = courseRepository.findById(id);
         if (optionalCourse.isPresent()) {
             Course course = optionalCourse.get();
+            boolean capacityChanged = !Objects.equals(course.getMaxStudents(), courseDetails.getMaxStudents());
             course.setCourseName(courseDetails.getCourseName());
             course.setDescription(courseDetails.getDescription());
             course.setCredits(courseDetails.getCredits());
@@ -134,6 +149,12 @@ public class CourseController {
             course.setIsActive(courseDetails.getIsActive());
 
             Course updatedCourse = courseRepository.save(course);
+            courseCatalog.courseChanged(id);
+            if (capacityChanged) {
+                courseSeatService.reset(id);
+            }
+            enrollmentCacheVersions.courseChanged(id);
+            teacherDashboardService.evictForCourse(id);
             return ResponseEntity.ok(updatedCourse);
         }
         return ResponseEntity.notFound().build();
@@ -141,7 +162,6 @@ public class CourseController {
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
-    @CacheEvict(value = {"courses", "course", "active-courses", "courses-by-teacher", "courses-by-semester-year", "course-by-code"}, allEntries = true)
     public ResponseEntity<?> deleteCourse(@PathVariable Long id) {
         Optional<Course> course = courseRepository.findById(id);
         if (course.isPresent()) {
@@ -150,6 +170,9 @@ public class CourseController {
             c.setIsActive(false);
             
             courseRepository.save(c);
+            courseCatalog.courseChanged(id);
+            enrollmentCacheVersions.courseChanged(id);
+            teacherDashboardService.evictForCourse(id);
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
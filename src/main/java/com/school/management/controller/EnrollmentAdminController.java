@@ -0,0 +1,69 @@
+package com.school.management.controller;
+
+import com.school.management.dto.EnrollmentImportJob;
+import com.school.management.dto.SemesterRollover;
+import com.school.management.service.EnrollmentImportService;
+import com.school.management.service.SemesterRolloverService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/admin/enrollments")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class EnrollmentAdminController {
+
+    @Autowired
+    private EnrollmentImportService enrollmentImportService;
+
+    @Autowired
+    private SemesterRolloverService semesterRolloverService;
+
+    // CSV body with studentId,courseCode rows; a header row is optional
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EnrollmentImportJob> importEnrollments(HttpServletRequest request) throws IOException {
+        try (InputStream csv = request.getInputStream()) {
+            return new ResponseEntity<>(enrollmentImportService.start(csv), HttpStatus.ACCEPTED);
+        }
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EnrollmentImportJob> importEnrollmentsFile(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream csv = file.getInputStream()) {
+            return new ResponseEntity<>(enrollmentImportService.start(csv), HttpStatus.ACCEPTED);
+        }
+    }
+
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EnrollmentImportJob> getImportJob(@PathVariable String jobId) {
+        return enrollmentImportService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // completes the semester's enrollments in the background; starting it again resumes a failed run
+    @PostMapping("/rollover/semester/{semester}/year/{academicYear}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SemesterRollover> startRollover(@PathVariable String semester, @PathVariable String academicYear) {
+        return new ResponseEntity<>(semesterRolloverService.start(semester, academicYear), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/rollover/semester/{semester}/year/{academicYear}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SemesterRollover> getRollover(@PathVariable String semester, @PathVariable String academicYear) {
+        return semesterRolloverService.getProgress(semester, academicYear)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
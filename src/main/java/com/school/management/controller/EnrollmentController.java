@@ -2,18 +2,28 @@ package com.school.management.controller;
 
 
 
+import com.school.management.dto.CursorPage;
 import com.school.management.dto.EnrollementDto;
+import com.school.management.dto.EnrollmentTicket;
+import com.school.management.dto.EnrollmentView;
 import com.school.management.entity.Course;
 import com.school.management.entity.Enrollment;
 import com.school.management.entity.Student;
 import com.school.management.repository.CourseRepository;
 import com.school.management.repository.EnrollmentRepository;
 import com.school.management.repository.StudentRepository;
+import com.school.management.service.AttendanceCacheService;
+import com.school.management.service.CourseSeatService;
+import com.school.management.service.EnrollmentAdmissionService;
+import com.school.management.service.EnrollmentCacheVersions;
+import com.school.management.service.EnrollmentQueryService;
+import com.school.management.service.EnrollmentService;
+import com.school.management.service.TeacherDashboardService;
+import com.school.management.service.WaitlistIndex;
 import exception.CustomException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -21,8 +31,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/enrollments")
@@ -36,50 +49,81 @@ public class EnrollmentController {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private AttendanceCacheService attendanceCacheService;
+
+    @Autowired
+    private TeacherDashboardService teacherDashboardService;
+
+    @Autowired
+    private CourseSeatService courseSeatService;
+
+    @Autowired
+    private EnrollmentAdmissionService enrollmentAdmissionService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private WaitlistIndex waitlistIndex;
+
+    @Autowired
+    private EnrollmentQueryService enrollmentQueryService;
+
+    @Autowired
+    private EnrollmentCacheVersions enrollmentCacheVersions;
+
     @GetMapping
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
-    //@Cacheable(value = "enrollments", key = "#pageable.pageNumber + '-' + #pageable.pageSize")
+    // not cached: pages are not deserializable from Redis and admins page through the whole table
     public ResponseEntity<Page<Enrollment>> getAllEnrollments(Pageable pageable) {
         Page<Enrollment> enrollments = enrollmentRepository.findAll(pageable);
         return ResponseEntity.ok(enrollments);
     }
 
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<Enrollment>> getAllEnrollmentsByCursor(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        int pageSize = CursorPage.clampSize(size);
+        List<Enrollment> enrollments = enrollmentRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.decodeCursor(after), Limit.of(pageSize + 1));
+        Long total = includeTotal ? enrollmentRepository.count() : null;
+        return ResponseEntity.ok(CursorPage.of(enrollments, pageSize, Enrollment::getId, total));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN') or (hasRole('STUDENT') and @enrollmentRepository.findById(#id).orElse(null)?.student?.id == authentication.principal.id)")
-    //@Cacheable(value = "enrollment", key = "#id")
-    public ResponseEntity<Enrollment> getEnrollmentById(@PathVariable Long id) {
-        Optional<Enrollment> enrollment = enrollmentRepository.findById(id);
-        return enrollment.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<EnrollmentView> getEnrollmentById(@PathVariable Long id) {
+        EnrollmentView enrollment = enrollmentQueryService.getEnrollment(id);
+        return enrollment != null ? ResponseEntity.ok(enrollment) : ResponseEntity.notFound().build();
     }
 
     @GetMapping("/student/{studentId}")
     @PreAuthorize("hasRole('STUDENT') and #studentId == authentication.principal.id or hasRole('TEACHER') or hasRole('ADMIN')")
-    //@Cacheable(value = "enrollments-by-student", key = "#studentId")
-    public ResponseEntity<List<Enrollment>> getEnrollmentsByStudent(@PathVariable Long studentId) {
-        List<Enrollment> enrollments = enrollmentRepository.findActiveEnrollmentsByStudent(studentId);
-        return ResponseEntity.ok(enrollments);
+    public ResponseEntity<List<EnrollmentView>> getEnrollmentsByStudent(@PathVariable Long studentId) {
+        return ResponseEntity.ok(enrollmentQueryService.getEnrollmentsByStudent(studentId));
     }
 
     @GetMapping("/course/{courseId}")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
-    //@Cacheable(value = "enrollments-by-course", key = "#courseId")
-    public ResponseEntity<List<Enrollment>> getEnrollmentsByCourse(@PathVariable Long courseId) {
-        List<Enrollment> enrollments = enrollmentRepository.findActiveEnrollmentsByCourse(courseId);
-        return ResponseEntity.ok(enrollments);
+    public ResponseEntity<List<EnrollmentView>> getEnrollmentsByCourse(@PathVariable Long courseId) {
+        return ResponseEntity.ok(enrollmentQueryService.getEnrollmentsByCourse(courseId));
     }
 
     @GetMapping("/semester/{semester}/year/{academicYear}")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "enrollments-by-semester-year", key = "#semester + '-' + #academicYear")
-    public ResponseEntity<List<Enrollment>> getEnrollmentsBySemesterAndYear(@PathVariable String semester, @PathVariable String academicYear) {
-        List<Enrollment> enrollments = enrollmentRepository.findEnrollmentsBySemesterAndYear(semester, academicYear);
-        return ResponseEntity.ok(enrollments);
+    public ResponseEntity<List<EnrollmentView>> getEnrollmentsBySemesterAndYear(@PathVariable String semester, @PathVariable String academicYear) {
+        return ResponseEntity.ok(enrollmentQueryService.getEnrollmentsBySemesterAndYear(semester, academicYear));
     }
 
     @PostMapping
     @PreAuthorize("hasRole('STUDENT') or hasRole('ADMIN')")
     public ResponseEntity<?> createEnrollment(@Valid @RequestBody EnrollementDto enrollementDto) {
+        if (enrollmentAdmissionService.isEnabled()) {
+            // admitted by the per-course queue; poll the ticket for the outcome
+            return new ResponseEntity<>(enrollmentAdmissionService.submit(enrollementDto), HttpStatus.ACCEPTED);
+        }
         // Check if enrollment already exists
         Course course = courseRepository.findByCourseId(enrollementDto.getCourseId());
         Student student = studentRepository.findByStudentId(enrollementDto.getStudentId()) ;
@@ -93,22 +137,54 @@ public class EnrollmentController {
 
               enrollment.setGrade(enrollementDto.getGrade());
 
-
-        Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
+        if (!courseSeatService.reserve(course.getId())) {
+            Enrollment waitlisted = enrollmentService.joinWaitlist(enrollment);
+            int place = waitlistIndex.rankOf(course.getId(), waitlisted.getId()).orElse(0);
+            return new ResponseEntity<>("course is full, added to waitlist" + (place > 0 ? " at position " + place : ""),
+                    HttpStatus.CREATED);
+        }
+        Enrollment savedEnrollment;
+        try {
+            savedEnrollment = enrollmentRepository.save(enrollment);
+        } catch (RuntimeException e) {
+            courseSeatService.release(course.getId());
+            throw e;
+        }
+        enrollmentCacheVersions.bump(student.getId(), course.getId(), savedEnrollment.getId());
+        attendanceCacheService.evictCourseSummary(course.getId());
+        teacherDashboardService.evictForCourse(course.getId());
         return new ResponseEntity<>("enrollment saved successfully", HttpStatus.CREATED);
     }
 
+    @GetMapping("/tickets/{ticketId}")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('ADMIN')")
+    public CompletableFuture<ResponseEntity<EnrollmentTicket>> getEnrollmentTicket(@PathVariable String ticketId,
+            @RequestParam(defaultValue = "0") long waitSeconds) {
+        return enrollmentAdmissionService.poll(ticketId, Duration.ofSeconds(waitSeconds))
+                .thenApply(ticket -> ticket != null ? ResponseEntity.ok(ticket) : ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/waitlist-position")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @enrollmentRepository.findById(#id).orElse(null)?.student?.id == authentication.principal.id)")
+    public ResponseEntity<Integer> getWaitlistPosition(@PathVariable Long id) {
+        Optional<Enrollment> enrollment = enrollmentRepository.findById(id);
+        if (enrollment.isEmpty() || enrollment.get().getStatus() != Enrollment.EnrollmentStatus.WAITLISTED) {
+            return ResponseEntity.notFound().build();
+        }
+        OptionalInt place = waitlistIndex.rankOf(enrollment.get().getCourse().getId(), id);
+        return place.isPresent() ? ResponseEntity.ok(place.getAsInt()) : ResponseEntity.notFound().build();
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
-    @CacheEvict(value = {"enrollments", "enrollment", "enrollments-by-student", "enrollments-by-course", "enrollments-by-semester-year"}, allEntries = true)
     public ResponseEntity<Enrollment> updateEnrollment(@PathVariable Long id, @Valid @RequestBody Enrollment enrollmentDetails) {
-        Optional<Enrollment> optionalEnrollment = enrollmentRepository.findById(id);
+        // seat and waitlist bookkeeping lives in the service
+        Optional<Enrollment> optionalEnrollment = enrollmentService.updateEnrollment(id,
+                enrollmentDetails.getGrade(), enrollmentDetails.getStatus());
         if (optionalEnrollment.isPresent()) {
-            Enrollment enrollment = optionalEnrollment.get();
-            enrollment.setGrade(enrollmentDetails.getGrade());
-            enrollment.setStatus(enrollmentDetails.getStatus());
-
-            Enrollment updatedEnrollment = enrollmentRepository.save(enrollment);
+            Enrollment updatedEnrollment = optionalEnrollment.get();
+            attendanceCacheService.evictCourseSummary(updatedEnrollment.getCourse().getId());
+            teacherDashboardService.evictForCourse(updatedEnrollment.getCourse().getId());
             return ResponseEntity.ok(updatedEnrollment);
         }
         return ResponseEntity.notFound().build();
@@ -116,13 +192,14 @@ public class EnrollmentController {
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('STUDENT') or hasRole('ADMIN')")
-    @CacheEvict(value = {"enrollments", "enrollment", "enrollments-by-student", "enrollments-by-course", "enrollments-by-semester-year"}, allEntries = true)
     public ResponseEntity<?> deleteEnrollment(@PathVariable Long id) {
         Optional<Enrollment> enrollment = enrollmentRepository.findById(id);
         if (enrollment.isPresent()) {
             Enrollment e = enrollment.get();
-            e.setStatus(Enrollment.EnrollmentStatus.DROPPED);
-            enrollmentRepository.save(e);
+            // the freed seat goes to the head of the waitlist in the same transaction
+            enrollmentService.dropEnrollment(id);
+            attendanceCacheService.evictCourseSummary(e.getCourse().getId());
+            teacherDashboardService.evictForCourse(e.getCourse().getId());
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
@@ -130,17 +207,15 @@ public class EnrollmentController {
 
     @GetMapping("/course/{courseId}/count")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "enrollment-count-by-course", key = "#courseId")
     public ResponseEntity<Long> getEnrollmentCountByCourse(@PathVariable Long courseId) {
-        Long count = enrollmentRepository.countActiveEnrollmentsByCourse(courseId);
+        Long count = enrollmentQueryService.countByCourse(courseId).longValue();
         return ResponseEntity.ok(count);
     }
 
     @GetMapping("/student/{studentId}/count")
     @PreAuthorize("hasRole('STUDENT') and #studentId == authentication.principal.id or hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "enrollment-count-by-student", key = "#studentId")
     public ResponseEntity<Long> getEnrollmentCountByStudent(@PathVariable Long studentId) {
-        Long count = enrollmentRepository.countActiveEnrollmentsByStudent(studentId);
+        Long count = enrollmentQueryService.countByStudent(studentId).longValue();
         return ResponseEntity.ok(count);
     }
 }
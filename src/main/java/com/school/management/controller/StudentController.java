@@ -2,15 +2,18 @@ package com.school.management.controller;
 
 
 
+import com.school.management.dto.CursorPage;
 import com.school.management.dto.StudentDto;
 import com.school.management.entity.Student;
 import com.school.management.repository.StudentRepository;
+import com.school.management.service.EnrollmentCacheVersions;
 import com.school.management.service.StudentService;
 import exception.CustomException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -29,6 +32,8 @@ public class StudentController {
     private StudentRepository studentRepository;
     @Autowired
     private StudentService studentService;;
+    @Autowired
+    private EnrollmentCacheVersions enrollmentCacheVersions;
 
     @GetMapping
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
@@ -37,6 +42,17 @@ public class StudentController {
         return ResponseEntity.ok(students);
     }
 
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<Student>> getAllStudentsByCursor(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        int pageSize = CursorPage.clampSize(size);
+        List<Student> students = studentRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.decodeCursor(after), Limit.of(pageSize + 1));
+        Long total = includeTotal ? studentRepository.count() : null;
+        return ResponseEntity.ok(CursorPage.of(students, pageSize, Student::getId, total));
+    }
+
 //    @GetMapping("/active")
 //    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
 ////    @Cacheable(value = "active-students")
@@ -99,6 +115,8 @@ public class StudentController {
             student.setIsActive(studentDetails.getIsActive());
 
             Student updatedStudent = studentRepository.save(student);
+            // cached enrollment rows embed the student's name
+            enrollmentCacheVersions.studentChanged(id);
             return ResponseEntity.ok(updatedStudent);
         }
         return ResponseEntity.notFound().build();
@@ -114,6 +132,7 @@ public class StudentController {
             Student s = student.get();
             s.setIsActive(false);
             studentRepository.save(s);
+            enrollmentCacheVersions.studentChanged(id);
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
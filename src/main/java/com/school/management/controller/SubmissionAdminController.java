@@ -0,0 +1,33 @@
+package com.school.management.controller;
+
+import com.school.management.dto.SubmissionCompressionJob;
+import com.school.management.service.SubmissionCompressionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/submissions")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class SubmissionAdminController {
+
+    @Autowired
+    private SubmissionCompressionService submissionCompressionService;
+
+    // re-encodes bodies still stored plain; safe to start again after a failure
+    @PostMapping("/compression")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SubmissionCompressionJob> startCompression() {
+        return new ResponseEntity<>(submissionCompressionService.start(), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/compression")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SubmissionCompressionJob> getCompression() {
+        return submissionCompressionService.getJob()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,7 +1,14 @@
 package com.school.management.controller;
 
+import com.school.management.dto.CursorPage;
+import com.school.management.dto.GradeEntry;
+import com.school.management.dto.SubmissionSummary;
 import com.school.management.entity.Submission;
 import com.school.management.repository.SubmissionRepository;
+import com.school.management.service.SubmissionCacheService;
+import com.school.management.service.SubmissionQueryService;
+import com.school.management.service.SubmissionService;
+import com.school.management.service.TeacherDashboardService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
@@ -13,9 +20,9 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/submissions")
@@ -25,74 +32,90 @@ public class SubmissionController {
     @Autowired
     private SubmissionRepository submissionRepository;
 
+    @Autowired
+    private TeacherDashboardService teacherDashboardService;
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private SubmissionQueryService submissionQueryService;
+
+    @Autowired
+    private SubmissionCacheService submissionCacheService;
+
     @GetMapping
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
-    public ResponseEntity<Page<Submission>> getAllSubmissions(Pageable pageable) {
-        Page<Submission> submissions = submissionRepository.findAll(pageable);
+    public ResponseEntity<Page<SubmissionSummary>> getAllSubmissions(Pageable pageable) {
+        Page<SubmissionSummary> submissions = submissionQueryService.getAllSubmissions(pageable);
         return ResponseEntity.ok(submissions);
     }
 
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<SubmissionSummary>> getAllSubmissionsByCursor(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        int pageSize = CursorPage.clampSize(size);
+        List<SubmissionSummary> submissions = submissionQueryService.getSubmissionsAfter(CursorPage.decodeCursor(after), pageSize + 1);
+        Long total = includeTotal ? submissionRepository.count() : null;
+        return ResponseEntity.ok(CursorPage.of(submissions, pageSize, SubmissionSummary::getId, total));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN') or (hasRole('STUDENT') and @submissionRepository.findById(#id).orElse(null)?.student?.id == authentication.principal.id)")
     public ResponseEntity<Submission> getSubmissionById(@PathVariable Long id) {
-        Optional<Submission> submission = submissionRepository.findById(id);
+        Optional<Submission> submission = submissionService.getSubmission(id);
         return submission.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/student/{studentId}")
     @PreAuthorize("hasRole('STUDENT') and #studentId == authentication.principal.id or hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "submissions-by-student", key = "#studentId")
-    public ResponseEntity<List<Submission>> getSubmissionsByStudent(@PathVariable Long studentId) {
-        List<Submission> submissions = submissionRepository.findByStudentId(studentId);
+    public ResponseEntity<List<SubmissionSummary>> getSubmissionsByStudent(@PathVariable Long studentId) {
+        List<SubmissionSummary> submissions = submissionQueryService.getSubmissionsByStudent(studentId);
         return ResponseEntity.ok(submissions);
     }
 
     @GetMapping("/assignment/{assignmentId}")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "submissions-by-assignment", key = "#assignmentId")
-    public ResponseEntity<List<Submission>> getSubmissionsByAssignment(@PathVariable Long assignmentId) {
-        List<Submission> submissions = submissionRepository.findByAssignmentId(assignmentId);
+    public ResponseEntity<List<SubmissionSummary>> getSubmissionsByAssignment(@PathVariable Long assignmentId) {
+        List<SubmissionSummary> submissions = submissionQueryService.getSubmissionsByAssignment(assignmentId);
         return ResponseEntity.ok(submissions);
     }
 
     @GetMapping("/course/{courseId}")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "submissions-by-course", key = "#courseId")
-    public ResponseEntity<List<Submission>> getSubmissionsByCourse(@PathVariable Long courseId) {
-        List<Submission> submissions = submissionRepository.findSubmissionsByCourse(courseId);
+    public ResponseEntity<List<SubmissionSummary>> getSubmissionsByCourse(@PathVariable Long courseId) {
+        List<SubmissionSummary> submissions = submissionQueryService.getSubmissionsByCourse(courseId);
         return ResponseEntity.ok(submissions);
     }
 
     @GetMapping("/student/{studentId}/course/{courseId}")
     @PreAuthorize("hasRole('STUDENT') and #studentId == authentication.principal.id or hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "submissions-by-student-course", key = "#studentId + '-' + #courseId")
-    public ResponseEntity<List<Submission>> getSubmissionsByStudentAndCourse(@PathVariable Long studentId, @PathVariable Long courseId) {
-        List<Submission> submissions = submissionRepository.findSubmissionsByStudentAndCourse(studentId, courseId);
+    public ResponseEntity<List<SubmissionSummary>> getSubmissionsByStudentAndCourse(@PathVariable Long studentId, @PathVariable Long courseId) {
+        List<SubmissionSummary> submissions = submissionQueryService.getSubmissionsByStudentAndCourse(studentId, courseId);
         return ResponseEntity.ok(submissions);
     }
 
     @GetMapping("/ungraded")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "ungraded-submissions")
-    public ResponseEntity<List<Submission>> getUnGradedSubmissions() {
-        List<Submission> submissions = submissionRepository.findUnGradedSubmissions();
+    public ResponseEntity<List<SubmissionSummary>> getUnGradedSubmissions() {
+        List<SubmissionSummary> submissions = submissionQueryService.getUngradedSubmissions();
         return ResponseEntity.ok(submissions);
     }
 
     @GetMapping("/assignment/{assignmentId}/ungraded")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "ungraded-submissions-by-assignment", key = "#assignmentId")
-    public ResponseEntity<List<Submission>> getUnGradedSubmissionsByAssignment(@PathVariable Long assignmentId) {
-        List<Submission> submissions = submissionRepository.findUnGradedSubmissionsByAssignment(assignmentId);
+    public ResponseEntity<List<SubmissionSummary>> getUnGradedSubmissionsByAssignment(@PathVariable Long assignmentId) {
+        List<SubmissionSummary> submissions = submissionQueryService.getUngradedSubmissionsByAssignment(assignmentId);
         return ResponseEntity.ok(submissions);
     }
 
     @GetMapping("/late")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
-    @Cacheable(value = "late-submissions")
-    public ResponseEntity<List<Submission>> getLateSubmissions() {
-        List<Submission> submissions = submissionRepository.findLateSubmissions();
+    public ResponseEntity<List<SubmissionSummary>> getLateSubmissions() {
+        List<SubmissionSummary> submissions = submissionQueryService.getLateSubmissions();
         return ResponseEntity.ok(submissions);
     }
 
@@ -104,23 +127,22 @@ public class SubmissionController {
             return ResponseEntity.badRequest().build();
         }
 
-        Submission savedSubmission = submissionRepository.save(submission);
+        Submission savedSubmission = submissionService.create(submission);
+        teacherDashboardService.evictForAssignment(submission.getAssignment().getId());
         return ResponseEntity.ok(savedSubmission);
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('STUDENT') and @submissionRepository.findById(#id).orElse(null)?.student?.id == authentication.principal.id")
-    @CacheEvict(value = {"submissions", "submission", "submissions-by-student", "submissions-by-assignment", "submissions-by-course", "submissions-by-student-course"}, allEntries = true)
+    @CacheEvict(value = {"submissions", "submission", SubmissionCacheService.BY_STUDENT, SubmissionCacheService.BY_ASSIGNMENT,
+            SubmissionCacheService.BY_COURSE, SubmissionCacheService.BY_STUDENT_COURSE}, allEntries = true)
     public ResponseEntity<Submission> updateSubmission(@PathVariable Long id, @Valid @RequestBody Submission submissionDetails) {
         Optional<Submission> optionalSubmission = submissionRepository.findById(id);
         if (optionalSubmission.isPresent()) {
             Submission submission = optionalSubmission.get();
             // Students can only update content before grading
             if (submission.getGrade() == null) {
-                submission.setContent(submissionDetails.getContent());
-                submission.setSubmittedAt(LocalDateTime.now());
-
-                Submission updatedSubmission = submissionRepository.save(submission);
+                Submission updatedSubmission = submissionService.updateContent(submission, submissionDetails.getContent());
                 return ResponseEntity.ok(updatedSubmission);
             } else {
                 return ResponseEntity.badRequest().build(); // Cannot update graded submission
@@ -131,31 +153,40 @@ public class SubmissionController {
 
     @PutMapping("/{id}/grade")
     @PreAuthorize("hasRole('TEACHER')")
-    @CacheEvict(value = {"submissions", "submission", "submissions-by-assignment", "submissions-by-course", "ungraded-submissions", "ungraded-submissions-by-assignment"}, allEntries = true)
     public ResponseEntity<Submission> gradeSubmission(@PathVariable Long id, @RequestBody String grade, @RequestParam(required = false) String feedback, Authentication authentication) {
         Optional<Submission> optionalSubmission = submissionRepository.findById(id);
         if (optionalSubmission.isPresent()) {
             Submission submission = optionalSubmission.get();
-            submission.setGrade(grade);
-            submission.setFeedback(feedback);
-            submission.setGradedAt(LocalDateTime.now());
-            submission.setGradedBy(authentication.getName());
-
-            Submission updatedSubmission = submissionRepository.save(submission);
+            Submission updatedSubmission = submissionService.grade(submission, grade, feedback, authentication.getName());
+            submissionCacheService.evictGrades(submission.getAssignment().getId(), Set.of(submission.getStudent().getId()));
+            teacherDashboardService.evictForAssignment(submission.getAssignment().getId());
             return ResponseEntity.ok(updatedSubmission);
         }
         return ResponseEntity.notFound().build();
     }
 
+    // grades many submissions of the assignment in one transaction; returns how many were graded
+    @PutMapping("/assignment/{assignmentId}/grades")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<Integer> gradeSubmissions(@PathVariable Long assignmentId, @RequestBody List<GradeEntry> grades,
+                                                    Authentication authentication) {
+        SubmissionService.GradedBatch batch = submissionService.gradeAll(assignmentId, grades, authentication.getName());
+        submissionCacheService.evictGrades(assignmentId, batch.studentIds());
+        teacherDashboardService.evictForAssignment(assignmentId);
+        return ResponseEntity.ok(batch.graded());
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('STUDENT') and @submissionRepository.findById(#id).orElse(null)?.student?.id == authentication.principal.id or hasRole('ADMIN')")
-    @CacheEvict(value = {"submissions", "submission", "submissions-by-student", "submissions-by-assignment", "submissions-by-course", "submissions-by-student-course"}, allEntries = true)
+    @CacheEvict(value = {"submissions", "submission", SubmissionCacheService.BY_STUDENT, SubmissionCacheService.BY_ASSIGNMENT,
+            SubmissionCacheService.BY_COURSE, SubmissionCacheService.BY_STUDENT_COURSE}, allEntries = true)
     public ResponseEntity<?> deleteSubmission(@PathVariable Long id) {
         Optional<Submission> submission = submissionRepository.findById(id);
         if (submission.isPresent()) {
             // Only allow deletion if not graded yet
             if (submission.get().getGrade() == null) {
-                submissionRepository.deleteById(id);
+                submissionService.delete(id);
+                teacherDashboardService.evictForAssignment(submission.get().getAssignment().getId());
                 return ResponseEntity.ok().build();
             } else {
                 return ResponseEntity.badRequest().build(); // Cannot delete graded submission
@@ -1,10 +1,14 @@
 package com.school.management.controller;
+import com.school.management.dto.CursorPage;
+import com.school.management.dto.TeacherDashboard;
 import com.school.management.entity.Teacher;
 import com.school.management.repository.TeacherRepository;
+import com.school.management.service.TeacherDashboardService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +26,9 @@ public class TeacherController {
     @Autowired
     private TeacherRepository teacherRepository;
 
+    @Autowired
+    private TeacherDashboardService teacherDashboardService;
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Page<Teacher>> getAllTeachers(Pageable pageable) {
@@ -29,6 +36,17 @@ public class TeacherController {
         return ResponseEntity.ok(teachers);
     }
 
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<Teacher>> getAllTeachersByCursor(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        int pageSize = CursorPage.clampSize(size);
+        List<Teacher> teachers = teacherRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.decodeCursor(after), Limit.of(pageSize + 1));
+        Long total = includeTotal ? teacherRepository.count() : null;
+        return ResponseEntity.ok(CursorPage.of(teachers, pageSize, Teacher::getId, total));
+    }
+
     @GetMapping("/active")
     @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
     public ResponseEntity<List<Teacher>> getActiveTeachers(@RequestParam String department ) {
@@ -111,4 +129,10 @@ public class TeacherController {
         Long courseCount = teacherRepository.countActiveCoursesByTeacher(teacherId);
         return ResponseEntity.ok(courseCount);
     }
+
+    @GetMapping("/{teacherId}/dashboard")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('TEACHER') and #teacherId == authentication.principal.id)")
+    public ResponseEntity<TeacherDashboard> getDashboard(@PathVariable Long teacherId) {
+        return ResponseEntity.ok(teacherDashboardService.getDashboard(teacherId));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.school.management.dto;
+
+import com.school.management.constant.Constant;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+public class AttendanceRangeSummary {
+
+    private Long studentId;
+
+    private Long courseId;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private Map<Constant.AttendanceStatus, Long> counts;
+
+    // school days in the range according to the academic calendar
+    private Integer schoolDays;
+
+    private Double percentage;
+
+}
@@ -0,0 +1,30 @@
+package com.school.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * Attendance rows of one owner (student or course) for one ISO week, Monday to Sunday.
+ * A segment is closed once its week has ended; closed segments are cached much longer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceSegment {
+
+    private LocalDate weekStart;
+
+    private boolean closed;
+
+    private List<AttendanceView> rows;
+
+    public static LocalDate weekStartOf(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
@@ -0,0 +1,32 @@
+package com.school.management.dto;
+
+import com.school.management.constant.Constant;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class AttendanceSessionDto {
+
+    // defaults to today when not supplied
+    private LocalDate date;
+
+    @NotEmpty
+    @Valid
+    private List<Entry> entries;
+
+    @Data
+    public static class Entry {
+
+        @NotBlank
+        private String studentId;
+
+        private Constant.AttendanceStatus status;
+
+        private String remarks;
+    }
+}
@@ -0,0 +1,25 @@
+package com.school.management.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class AttendanceSessionResult {
+
+    private Long courseId;
+
+    private LocalDate date;
+
+    // student ids (roll numbers) whose row was written
+    private List<String> inserted = new ArrayList<>();
+
+    // student ids that already had a row for (course, date)
+    private List<String> conflicted = new ArrayList<>();
+
+    // student ids that could not be resolved
+    private List<String> unknownStudents = new ArrayList<>();
+
+}
@@ -0,0 +1,31 @@
+package com.school.management.dto;
+
+import com.school.management.constant.Constant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Flat read model for attendance listings, selected with a JPQL constructor expression
+ * so no Student or Course proxies are loaded, serialized or cached.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceView {
+
+    private Long id;
+
+    private Long studentId;
+
+    private Long courseId;
+
+    private LocalDate date;
+
+    private Constant.AttendanceStatus status;
+
+    private String markedBy;
+
+}
@@ -0,0 +1,43 @@
+package com.school.management.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Attendance counts for every enrolled student of one course, the teacher's roster view.
+ */
+@Data
+public class CourseAttendanceSummary {
+
+    private Long courseId;
+
+    // school days of the course's term so far, null when the term is not in the calendar
+    private Integer schoolDaysToDate;
+
+    private List<StudentRow> students = new ArrayList<>();
+
+    @Data
+    public static class StudentRow {
+
+        private Long studentId;
+
+        // roll number
+        private String studentCode;
+
+        private String studentName;
+
+        private long present;
+
+        private long absent;
+
+        private long late;
+
+        private long excused;
+
+        private long total;
+
+        private double percentage;
+    }
+}
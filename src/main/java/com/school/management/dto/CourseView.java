@@ -0,0 +1,42 @@
+package com.school.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Flat catalog entry for a course, selected with a JPQL constructor expression and held
+ * in the in-memory course catalog. Catalog entries are shared, so callers must not modify them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseView {
+
+    private Long id;
+
+    private String courseCode;
+
+    private String courseName;
+
+    private String description;
+
+    private Integer credits;
+
+    private String semester;
+
+    private String academicYear;
+
+    private String schedule;
+
+    private String room;
+
+    private Integer maxStudents;
+
+    private Boolean isActive;
+
+    private Long teacherId;
+
+    private String teacherName;
+
+}
@@ -0,0 +1,79 @@
+package com.school.management.dto;
+
+import exception.CustomException;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (seek) listing. Rows are ordered by primary key and the opaque
+ * {@code nextCursor} encodes the last id returned; pass it back as {@code after} to
+ * continue. No COUNT query runs unless the caller asks for {@code totalElements}.
+ */
+@Data
+public class CursorPage<T> {
+
+    public static final int DEFAULT_SIZE = 20;
+
+    public static final int MAX_SIZE = 500;
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    private List<T> content;
+
+    private int size;
+
+    private boolean hasNext;
+
+    private String nextCursor;
+
+    private Long totalElements;
+
+    /**
+     * Builds a page from a query that fetched {@code size + 1} rows; the extra row only signals that more rows exist.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Long> idOf, Long totalElements) {
+        CursorPage<T> page = new CursorPage<>();
+        page.setHasNext(rows.size() > size);
+        page.setContent(page.isHasNext() ? rows.subList(0, size) : rows);
+        page.setSize(page.getContent().size());
+        if (page.isHasNext()) {
+            page.setNextCursor(encodeCursor(idOf.apply(page.getContent().get(size - 1))));
+        }
+        page.setTotalElements(totalElements);
+        return page;
+    }
+
+    public static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the last seen id, 0 when no cursor was given
+     */
+    public static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new CustomException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new CustomException("Invalid cursor");
+        }
+    }
+
+    public static int clampSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+}
@@ -0,0 +1,53 @@
+package com.school.management.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress and outcome of a bulk enrollment import. Only the first errors are kept in
+ * {@code errors}; {@code errorCount} counts all of them.
+ */
+@Data
+public class EnrollmentImportJob {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private String jobId;
+
+    private Status status = Status.RUNNING;
+
+    // data rows in the file, header excluded
+    private long totalRows;
+
+    private long processedRows;
+
+    private long inserted;
+
+    private long errorCount;
+
+    private List<RowError> errors = new ArrayList<>();
+
+    private long startedAt;
+
+    private Long finishedAt;
+
+    // set when the whole job failed
+    private String message;
+
+    @Data
+    public static class RowError {
+
+        // 1-based line number in the file
+        private long line;
+
+        private String studentId;
+
+        private String courseCode;
+
+        private String message;
+    }
+}
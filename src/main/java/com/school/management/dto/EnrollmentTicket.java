@@ -0,0 +1,33 @@
+package com.school.management.dto;
+
+import lombok.Data;
+
+/**
+ * Handle for an enrollment request queued for admission. Clients poll it by {@code ticketId}
+ * until the status leaves PENDING.
+ */
+@Data
+public class EnrollmentTicket {
+
+    public enum Status {
+        PENDING, ENROLLED, WAITLISTED, REJECTED
+    }
+
+    private String ticketId;
+
+    // roll number
+    private String studentId;
+
+    private Long courseId;
+
+    private String grade;
+
+    private Status status = Status.PENDING;
+
+    private Long enrollmentId;
+
+    // reason when rejected or waitlisted
+    private String message;
+
+    private long submittedAt;
+}
@@ -0,0 +1,41 @@
+package com.school.management.dto;
+
+import com.school.management.entity.Enrollment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat enrollment row selected with a JPQL constructor expression, the cached shape of the
+ * enrollment listings.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentView {
+
+    private Long id;
+
+    private Long studentId;
+
+    // roll number
+    private String studentCode;
+
+    private String studentName;
+
+    private Long courseId;
+
+    private String courseCode;
+
+    private String courseName;
+
+    private LocalDateTime enrollmentDate;
+
+    private String grade;
+
+    private Enrollment.EnrollmentStatus status;
+
+    private Long waitlistPosition;
+}
@@ -0,0 +1,16 @@
+package com.school.management.dto;
+
+import lombok.Data;
+
+/**
+ * One grade of a bulk grading request.
+ */
+@Data
+public class GradeEntry {
+
+    private Long submissionId;
+
+    private String grade;
+
+    private String feedback;
+}
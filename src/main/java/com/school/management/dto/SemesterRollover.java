@@ -0,0 +1,41 @@
+package com.school.management.dto;
+
+import lombok.Data;
+
+/**
+ * Progress of a semester rollover, also its checkpoint: a resumed run continues with the
+ * courses after {@code lastCourseId}.
+ */
+@Data
+public class SemesterRollover {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private String semester;
+
+    private String academicYear;
+
+    private Status status = Status.RUNNING;
+
+    private long totalCourses;
+
+    private long processedCourses;
+
+    // highest course id fully rolled over, 0 before the first chunk
+    private long lastCourseId;
+
+    // ENROLLED rows moved to COMPLETED
+    private long completed;
+
+    // WAITLISTED rows dropped, the term is over
+    private long dropped;
+
+    private long startedAt;
+
+    private Long finishedAt;
+
+    // set when the run failed
+    private String message;
+}
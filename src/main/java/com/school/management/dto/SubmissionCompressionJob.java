@@ -0,0 +1,37 @@
+package com.school.management.dto;
+
+import lombok.Data;
+
+/**
+ * Progress of re-encoding plain submission bodies into the compressed column.
+ */
+@Data
+public class SubmissionCompressionJob {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private Status status = Status.RUNNING;
+
+    // plain rows found when the job started
+    private long totalRows;
+
+    private long processedRows;
+
+    // rows stored deflated rather than raw
+    private long compressedRows;
+
+    // UTF-8 size of the processed bodies
+    private long bytesBefore;
+
+    // stored size of the processed bodies, codec header included
+    private long bytesAfter;
+
+    private long startedAt;
+
+    private Long finishedAt;
+
+    // set when the job failed
+    private String message;
+}
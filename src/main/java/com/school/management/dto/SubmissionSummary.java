@@ -0,0 +1,42 @@
+package com.school.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Submission metadata for listings, selected with a JPQL constructor expression. The body
+ * and feedback are left out; they are loaded only when one submission is opened.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionSummary {
+
+    private Long id;
+
+    private Long studentId;
+
+    // roll number
+    private String studentCode;
+
+    private String studentName;
+
+    private Long assignmentId;
+
+    private String assignmentTitle;
+
+    private Long courseId;
+
+    private LocalDateTime submittedAt;
+
+    private String grade;
+
+    private Boolean isLate;
+
+    private LocalDateTime gradedAt;
+
+    private String gradedBy;
+}
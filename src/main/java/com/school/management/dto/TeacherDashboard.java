@@ -0,0 +1,43 @@
+package com.school.management.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A teacher's active courses with enrolment, grading backlog and the next assignment due.
+ */
+@Data
+public class TeacherDashboard {
+
+    private Long teacherId;
+
+    private long enrolledStudents;
+
+    private long ungradedSubmissions;
+
+    private List<CourseRow> courses = new ArrayList<>();
+
+    @Data
+    public static class CourseRow {
+
+        private Long courseId;
+
+        private String courseCode;
+
+        private String courseName;
+
+        private long enrolledCount;
+
+        private long ungradedCount;
+
+        // null when no active assignment is due
+        private String nextAssignmentTitle;
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy HH:mm")
+        private LocalDateTime nextDueDate;
+    }
+}
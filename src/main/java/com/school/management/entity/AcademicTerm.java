@@ -0,0 +1,64 @@
+package com.school.management.entity;
+
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+/**
+ * Teaching period of one semester in one academic year. Courses belong to a term through
+ * their semester and academicYear columns.
+ */
+@Entity
+@Table(name = "academic_terms",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"semester", "academic_year"}))
+public class AcademicTerm {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Column(name = "semester", nullable = false)
+    private String semester;
+
+    @NotBlank
+    @Column(name = "academic_year", nullable = false)
+    private String academicYear;
+
+    @NotNull
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @NotNull
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    // Constructors
+    public AcademicTerm() {}
+
+    public AcademicTerm(String semester, String academicYear, LocalDate startDate, LocalDate endDate) {
+        this.semester = semester;
+        this.academicYear = academicYear;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getSemester() { return semester; }
+    public void setSemester(String semester) { this.semester = semester; }
+
+    public String getAcademicYear() { return academicYear; }
+    public void setAcademicYear(String academicYear) { this.academicYear = academicYear; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+}
@@ -12,7 +12,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "assignments")
+@Table(name = "assignments",
+        indexes = @Index(name = "idx_assignments_course_due", columnList = "course_id, is_active, due_date"))
 public class Assignment {
 
     @Id
@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "attendance",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "course_id", "date"}))
+        uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "course_id", "date"}),
+        indexes = @Index(name = "idx_attendance_course_date", columnList = "course_id, date"))
 public class Attendance {
 
     @Id
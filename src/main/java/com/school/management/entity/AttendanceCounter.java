@@ -0,0 +1,51 @@
+package com.school.management.entity;
+
+
+import com.school.management.constant.Constant.*;
+import jakarta.persistence.*;
+
+/**
+ * Read model holding the number of attendance rows per (student, course, status).
+ * Maintained in the same transaction as the attendance writes and rebuilt nightly.
+ */
+@Entity
+@Table(name = "attendance_counters",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "course_id", "status"}))
+public class AttendanceCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private AttendanceStatus status;
+
+    @Column(name = "day_count", nullable = false)
+    private Long dayCount = 0L;
+
+    // Constructors
+    public AttendanceCounter() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public Long getCourseId() { return courseId; }
+    public void setCourseId(Long courseId) { this.courseId = courseId; }
+
+    public AttendanceStatus getStatus() { return status; }
+    public void setStatus(AttendanceStatus status) { this.status = status; }
+
+    public Long getDayCount() { return dayCount; }
+    public void setDayCount(Long dayCount) { this.dayCount = dayCount; }
+}
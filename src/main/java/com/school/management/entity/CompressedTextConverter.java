@@ -0,0 +1,111 @@
+package com.school.management.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores text as bytes behind a one-byte codec header: {@link #RAW} UTF-8, or {@link #DEFLATE}
+ * (zlib-framed) for text of at least {@link #THRESHOLD_BYTES} that deflates to something smaller.
+ * Essays and code usually shrink three to five times.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    public static final byte RAW = 0;
+
+    public static final byte DEFLATE = 1;
+
+    // below this the header and deflate framing eat most of the gain
+    public static final int THRESHOLD_BYTES = 1024;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        return encode(text);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] data) {
+        return decode(data);
+    }
+
+    public static byte[] encode(String text) {
+        if (text == null) {
+            return null;
+        }
+        return encodeUtf8(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // UTF-8 text nearly always deflates a little; the raw fallback is reachable directly from bytes
+    static byte[] encodeUtf8(byte[] utf8) {
+        if (utf8.length >= THRESHOLD_BYTES) {
+            byte[] deflated = deflate(utf8);
+            if (deflated.length + 1 < utf8.length) {
+                return withHeader(DEFLATE, deflated);
+            }
+        }
+        return withHeader(RAW, utf8);
+    }
+
+    public static String decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        byte[] body = Arrays.copyOfRange(data, 1, data.length);
+        return switch (data[0]) {
+            case RAW -> new String(body, StandardCharsets.UTF_8);
+            case DEFLATE -> new String(inflate(body), StandardCharsets.UTF_8);
+            default -> throw new IllegalStateException("Unknown text codec " + data[0]);
+        };
+    }
+
+    private static byte[] withHeader(byte codec, byte[] body) {
+        byte[] data = new byte[body.length + 1];
+        data[0] = codec;
+        System.arraycopy(body, 0, data, 1, body.length);
+        return data;
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 3);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated deflate data");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt deflate data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
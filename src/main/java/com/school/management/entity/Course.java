@@ -11,7 +11,8 @@ import java.util.List;
 import java.util.Optional;
 
 @Entity
-@Table(name = "courses")
+@Table(name = "courses",
+        indexes = @Index(name = "idx_courses_teacher_active", columnList = "teacher_id, is_active"))
 public class Course {
 
     @Id
@@ -7,7 +7,9 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "enrollments",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "course_id"}))
+        uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "course_id"}),
+        indexes = {@Index(name = "idx_enrollments_course_status", columnList = "course_id, status"),
+                @Index(name = "idx_enrollments_waitlist", columnList = "course_id, status, waitlist_position")})
 public class Enrollment {
 
     @Id
@@ -32,6 +34,10 @@ public class Enrollment {
     @Enumerated(EnumType.STRING)
     private EnrollmentStatus status = EnrollmentStatus.ENROLLED;
 
+    // order on the course waitlist while WAITLISTED, lower is served first; null otherwise
+    @Column(name = "waitlist_position")
+    private Long waitlistPosition;
+
     @PrePersist
     protected void onCreate() {
         enrollmentDate = LocalDateTime.now();
@@ -65,7 +71,10 @@ public class Enrollment {
     public EnrollmentStatus getStatus() { return status; }
     public void setStatus(EnrollmentStatus status) { this.status = status; }
 
+    public Long getWaitlistPosition() { return waitlistPosition; }
+    public void setWaitlistPosition(Long waitlistPosition) { this.waitlistPosition = waitlistPosition; }
+
     public enum EnrollmentStatus {
-        ENROLLED, DROPPED, COMPLETED
+        ENROLLED, DROPPED, COMPLETED, WAITLISTED
     }
 }
@@ -0,0 +1,46 @@
+package com.school.management.entity;
+
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+/**
+ * A weekday on which the school is closed.
+ */
+@Entity
+@Table(name = "holidays")
+public class Holiday {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "date", nullable = false, unique = true)
+    private LocalDate date;
+
+    @NotBlank
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    // Constructors
+    public Holiday() {}
+
+    public Holiday(LocalDate date, String name) {
+        this.date = date;
+        this.name = name;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+}
@@ -7,7 +7,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "submissions",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "assignment_id"}))
+        uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "assignment_id"}),
+        indexes = @Index(name = "idx_submissions_assignment_grade", columnList = "assignment_id, grade"))
 public class Submission {
 
     @Id
@@ -22,7 +23,8 @@ public class Submission {
     @JoinColumn(name = "assignment_id")
     private Assignment assignment;
 
-    @Column(name = "content", columnDefinition = "TEXT")
+    // stored in submission_contents, set only on a submission loaded for display or being written
+    @Transient
     private String content;
 
     @Column(name = "submitted_at")
@@ -31,7 +33,7 @@ public class Submission {
     @Column(name = "grade")
     private String grade;
 
-    @Column(name = "feedback", columnDefinition = "TEXT")
+    @Transient
     private String feedback;
 
     @Column(name = "is_late")
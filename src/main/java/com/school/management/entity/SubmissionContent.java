@@ -0,0 +1,52 @@
+package com.school.management.entity;
+
+
+import jakarta.persistence.*;
+
+/**
+ * Body of a submission, kept out of the {@code submissions} table so listings never read it.
+ * Shares the submission's id and is only loaded when a single submission is opened.
+ * The body is stored compressed in {@code body}; rows written before compression keep it
+ * in the plain {@code content} column until they are rewritten or re-encoded by the
+ * compression job.
+ */
+@Entity
+@Table(name = "submission_contents")
+public class SubmissionContent {
+
+    @Id
+    @Column(name = "submission_id")
+    private Long submissionId;
+
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "body", columnDefinition = "MEDIUMBLOB")
+    private String content;
+
+    @Column(name = "content", columnDefinition = "TEXT")
+    private String plainContent;
+
+    @Column(name = "feedback", columnDefinition = "TEXT")
+    private String feedback;
+
+    // Constructors
+    public SubmissionContent() {}
+
+    public SubmissionContent(Long submissionId, String content, String feedback) {
+        this.submissionId = submissionId;
+        this.content = content;
+        this.feedback = feedback;
+    }
+
+    // Getters and Setters
+    public Long getSubmissionId() { return submissionId; }
+    public void setSubmissionId(Long submissionId) { this.submissionId = submissionId; }
+
+    public String getContent() { return content != null ? content : plainContent; }
+    public void setContent(String content) {
+        this.content = content;
+        this.plainContent = null;
+    }
+
+    public String getFeedback() { return feedback; }
+    public void setFeedback(String feedback) { this.feedback = feedback; }
+}
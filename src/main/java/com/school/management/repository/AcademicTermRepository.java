@@ -0,0 +1,16 @@
+package com.school.management.repository;
+
+
+import com.school.management.entity.AcademicTerm;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AcademicTermRepository extends JpaRepository<AcademicTerm, Long> {
+
+    List<AcademicTerm> findAllByOrderByStartDateAsc();
+
+    Boolean existsBySemesterAndAcademicYear(String semester, String academicYear);
+}
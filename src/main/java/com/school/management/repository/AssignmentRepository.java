@@ -2,6 +2,7 @@ package com.school.management.repository;
 
 
 import com.school.management.entity.Assignment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,6 +14,8 @@ import java.util.List;
 @Repository
 public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
 
+    List<Assignment> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
     List<Assignment> findByCourseId(Long courseId);
 
     List<Assignment> findByCourseIdAndIsActiveTrue(Long courseId);
@@ -34,6 +37,9 @@ public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
     @Query("SELECT a FROM Assignment a JOIN a.course c WHERE c.teacher.id = :teacherId AND a.isActive = true")
     List<Assignment> findAssignmentsByTeacher(@Param("teacherId") Long teacherId);
 
+    @Query("SELECT a.course.id FROM Assignment a WHERE a.id = :assignmentId")
+    Long findCourseIdById(@Param("assignmentId") Long assignmentId);
+
     @Query("SELECT COUNT(s) FROM Submission s WHERE s.assignment.id = :assignmentId")
     Long countSubmissionsByAssignment(@Param("assignmentId") Long assignmentId);
 }
@@ -0,0 +1,36 @@
+package com.school.management.repository;
+
+
+import com.school.management.entity.AttendanceCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AttendanceCounterRepository extends JpaRepository<AttendanceCounter, Long> {
+
+    List<AttendanceCounter> findByStudentIdAndCourseId(Long studentId, Long courseId);
+
+    @Modifying
+    @Query(value = "INSERT INTO attendance_counters (student_id, course_id, status, day_count) VALUES (:studentId, :courseId, :status, GREATEST(:delta, 0)) " +
+            "ON DUPLICATE KEY UPDATE day_count = GREATEST(day_count + :delta, 0)", nativeQuery = true)
+    int increment(@Param("studentId") Long studentId,
+                  @Param("courseId") Long courseId,
+                  @Param("status") String status,
+                  @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "DELETE FROM attendance_counters", nativeQuery = true)
+    int deleteAllCounters();
+
+    @Modifying
+    @Query(value = "INSERT INTO attendance_counters (student_id, course_id, status, day_count) " +
+            "SELECT student_id, course_id, status, COUNT(*) FROM attendance " +
+            "WHERE student_id IS NOT NULL AND course_id IS NOT NULL AND status IS NOT NULL " +
+            "GROUP BY student_id, course_id, status", nativeQuery = true)
+    int insertCountersFromAttendance();
+}
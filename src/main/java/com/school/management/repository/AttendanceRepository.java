@@ -1,14 +1,18 @@
 package com.school.management.repository;
 
 
+import com.school.management.dto.AttendanceView;
 import com.school.management.entity.Attendance;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -45,6 +49,46 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
             "FROM Attendance a WHERE a.student.id = :studentId AND a.course.id = :courseId AND a.status = 'PRESENT'")
     Double getAttendancePercentage(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
 
-    @Query(value = "select * from attendance a where a.marked_at = :date and marked_by = :markedBy",nativeQuery = true)
-    Attendance findByMarkedAtAndMarkedBy(@Param("date") LocalDateTime date, @Param("markedBy")String markedBy );
+    String VIEW_SELECT = "SELECT new com.school.management.dto.AttendanceView(a.id, a.student.id, a.course.id, a.date, a.status, a.markedBy) FROM Attendance a ";
+
+    @Query(value = VIEW_SELECT + "ORDER BY a.id",
+            countQuery = "SELECT COUNT(a) FROM Attendance a")
+    Page<AttendanceView> findAllViews(Pageable pageable);
+
+    @Query(VIEW_SELECT + "WHERE a.id > :id ORDER BY a.id")
+    List<AttendanceView> findViewsAfterId(@Param("id") Long id, Limit limit);
+
+    @Query(VIEW_SELECT + "WHERE a.student.id = :studentId ORDER BY a.date, a.id")
+    List<AttendanceView> findViewsByStudentId(@Param("studentId") Long studentId);
+
+    @Query(VIEW_SELECT + "WHERE a.course.id = :courseId ORDER BY a.date, a.id")
+    List<AttendanceView> findViewsByCourseId(@Param("courseId") Long courseId);
+
+    @Query(VIEW_SELECT + "WHERE a.date = :date ORDER BY a.course.id, a.id")
+    List<AttendanceView> findViewsByDate(@Param("date") LocalDate date);
+
+    /**
+     * One row per enrolled student and status: [studentId, studentCode, firstName, lastName, status, count].
+     * Students without attendance yet come back once with a null status and a zero count.
+     */
+    @Query("SELECT s.id, s.studentId, s.firstName, s.lastName, a.status, COUNT(a.id) FROM Enrollment e JOIN e.student s " +
+            "LEFT JOIN Attendance a ON a.student.id = s.id AND a.course.id = e.course.id " +
+            "WHERE e.course.id = :courseId AND e.status = 'ENROLLED' " +
+            "GROUP BY s.id, s.studentId, s.firstName, s.lastName, a.status ORDER BY s.studentId")
+    List<Object[]> summarizeCourse(@Param("courseId") Long courseId);
+
+    @Query(VIEW_SELECT + "WHERE a.course.id = :courseId AND a.date BETWEEN :startDate AND :endDate ORDER BY a.date, a.id")
+    List<AttendanceView> findViewsByCourseAndDateRange(@Param("courseId") Long courseId,
+                                                       @Param("startDate") LocalDate startDate,
+                                                       @Param("endDate") LocalDate endDate);
+
+    @Query(VIEW_SELECT + "WHERE a.student.id = :studentId AND a.date BETWEEN :startDate AND :endDate ORDER BY a.date, a.id")
+    List<AttendanceView> findViewsByStudentAndDateRange(@Param("studentId") Long studentId,
+                                                        @Param("startDate") LocalDate startDate,
+                                                        @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT a.student.id FROM Attendance a WHERE a.course.id = :courseId AND a.date = :date AND a.student.id IN :studentIds")
+    List<Long> findMarkedStudentIds(@Param("courseId") Long courseId,
+                                    @Param("date") LocalDate date,
+                                    @Param("studentIds") Collection<Long> studentIds);
 }
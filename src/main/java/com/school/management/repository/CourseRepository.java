@@ -1,12 +1,16 @@
 package com.school.management.repository;
 
 
+import com.school.management.dto.CourseView;
 import com.school.management.entity.Course;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,17 +29,47 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
 
     List<Course> findByIsActiveTrue();
 
-    @Query(value = "SELECT c FROM Course c WHERE c.teacher_id = :teacherId AND c.isActive = true",nativeQuery = true)
+    @Query("SELECT c FROM Course c WHERE c.teacher.id = :teacherId AND c.isActive = true")
     List<Course> findActiveCoursesByTeacher(@Param("teacherId") Long teacherId);
 
     @Query("SELECT c FROM Course c WHERE c.semester = :semester AND c.academicYear = :academicYear AND c.isActive = true")
     List<Course> findCoursesBySemesterAndYear(@Param("semester") String semester, @Param("academicYear") String academicYear);
 
+    @Query("SELECT c.id FROM Course c WHERE c.semester = :semester AND c.academicYear = :academicYear AND c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsBySemesterAndYearAfter(@Param("semester") String semester, @Param("academicYear") String academicYear,
+                                             @Param("afterId") Long afterId, Limit limit);
+
+    long countBySemesterAndAcademicYear(String semester, String academicYear);
+
     @Query("SELECT COUNT(e) FROM Enrollment e WHERE e.course.id = :courseId AND e.status = 'ENROLLED'")
     Long countEnrolledStudents(@Param("courseId") Long courseId);
 
     @Query("SELECT c FROM Course c JOIN c.enrollments e WHERE e.student.id = :studentId AND e.status = 'ENROLLED'")
     List<Course> findCoursesByStudentId(@Param("studentId") Long studentId);
+    @Query("SELECT new com.school.management.dto.CourseView(c.id, c.courseCode, c.courseName, c.description, c.credits, " +
+            "c.semester, c.academicYear, c.schedule, c.room, c.maxStudents, c.isActive, t.id, CONCAT(t.firstName, ' ', t.lastName)) " +
+            "FROM Course c LEFT JOIN c.teacher t")
+    List<CourseView> findAllViews();
+
+    @Query("SELECT e.course.id FROM Enrollment e WHERE e.student.id = :studentId AND e.status = 'ENROLLED'")
+    List<Long> findCourseIdsByStudentId(@Param("studentId") Long studentId);
+
+    /**
+     * One row per active course of the teacher: [courseId, courseCode, courseName, enrolledCount,
+     * ungradedCount, nextDueDate, nextDueTitle]. The next-due columns are null when nothing is due after :now.
+     */
+    @Query("SELECT c.id, c.courseCode, c.courseName, " +
+            "(SELECT COUNT(e) FROM Enrollment e WHERE e.course.id = c.id AND e.status = 'ENROLLED'), " +
+            "(SELECT COUNT(s) FROM Submission s JOIN s.assignment sa WHERE sa.course.id = c.id AND s.grade IS NULL), " +
+            "(SELECT MIN(a.dueDate) FROM Assignment a WHERE a.course.id = c.id AND a.isActive = true AND a.dueDate > :now), " +
+            "(SELECT MIN(n.title) FROM Assignment n WHERE n.course.id = c.id AND n.isActive = true AND n.dueDate = " +
+            "(SELECT MIN(d.dueDate) FROM Assignment d WHERE d.course.id = c.id AND d.isActive = true AND d.dueDate > :now)) " +
+            "FROM Course c WHERE c.teacher.id = :teacherId AND c.isActive = true ORDER BY c.courseCode")
+    List<Object[]> summarizeTeacherCourses(@Param("teacherId") Long teacherId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT c.id FROM Course c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
      @Query(value = "select * from  courses c where c.id =:id",nativeQuery = true )
     Course findByCourseId(Long id);
 
@@ -1,18 +1,27 @@
 package com.school.management.repository;
 
 
+import com.school.management.dto.EnrollmentView;
 import com.school.management.entity.Enrollment;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
 
+    List<Enrollment> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
     List<Enrollment> findByStudentId(Long studentId);
 
     List<Enrollment> findByCourseId(Long courseId);
@@ -21,6 +30,22 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
 
     Boolean existsByStudent_StudentIdAndCourse_id(String studentId, Long courseId);
 
+    String VIEW_SELECT = "SELECT new com.school.management.dto.EnrollmentView(e.id, s.id, s.studentId, " +
+            "CONCAT(s.firstName, ' ', s.lastName), c.id, c.courseCode, c.courseName, e.enrollmentDate, e.grade, " +
+            "e.status, e.waitlistPosition) FROM Enrollment e JOIN e.student s JOIN e.course c ";
+
+    @Query(VIEW_SELECT + "WHERE e.id = :id")
+    Optional<EnrollmentView> findViewById(@Param("id") Long id);
+
+    @Query(VIEW_SELECT + "WHERE s.id = :studentId AND e.status = 'ENROLLED' ORDER BY c.courseCode")
+    List<EnrollmentView> findActiveViewsByStudent(@Param("studentId") Long studentId);
+
+    @Query(VIEW_SELECT + "WHERE c.id = :courseId AND e.status = 'ENROLLED' ORDER BY s.studentId")
+    List<EnrollmentView> findActiveViewsByCourse(@Param("courseId") Long courseId);
+
+    @Query(VIEW_SELECT + "WHERE c.semester = :semester AND c.academicYear = :academicYear AND e.status = 'ENROLLED' ORDER BY e.id")
+    List<EnrollmentView> findViewsBySemesterAndYear(@Param("semester") String semester, @Param("academicYear") String academicYear);
+
     @Query("SELECT e FROM Enrollment e WHERE e.student.id = :studentId AND e.status = 'ENROLLED'")
     List<Enrollment> findActiveEnrollmentsByStudent(@Param("studentId") Long studentId);
 
@@ -30,9 +55,60 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     @Query("SELECT COUNT(e) FROM Enrollment e WHERE e.course.id = :courseId AND e.status = 'ENROLLED'")
     Long countActiveEnrollmentsByCourse(@Param("courseId") Long courseId);
 
+    @Query("SELECT e.student.id, e.course.id FROM Enrollment e WHERE e.student.id IN :studentIds AND e.course.id IN :courseIds")
+    List<Object[]> findPairsByStudentIdInAndCourseIdIn(@Param("studentIds") Collection<Long> studentIds,
+                                                       @Param("courseIds") Collection<Long> courseIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Enrollment> findFirstByCourse_IdAndStatusOrderByWaitlistPositionAscIdAsc(Long courseId, Enrollment.EnrollmentStatus status);
+
+    @Query("SELECT MAX(e.waitlistPosition) FROM Enrollment e WHERE e.course.id = :courseId")
+    Long findMaxWaitlistPosition(@Param("courseId") Long courseId);
+
+    /**
+     * Every waitlisted enrollment as [courseId, enrollmentId, studentId, waitlistPosition].
+     */
+    @Query("SELECT e.course.id, e.id, e.student.id, e.waitlistPosition FROM Enrollment e WHERE e.status = 'WAITLISTED'")
+    List<Object[]> findWaitlistEntries();
+
+    @Query("SELECT e.student.id, e.id FROM Enrollment e WHERE e.course.id = :courseId AND e.student.id IN :studentIds")
+    List<Object[]> findIdsByCourseIdAndStudentIdIn(@Param("courseId") Long courseId, @Param("studentIds") Collection<Long> studentIds);
+
+    @Query("SELECT e.course.id, COUNT(e) FROM Enrollment e WHERE e.status = 'ENROLLED' GROUP BY e.course.id")
+    List<Object[]> countActiveEnrollmentsGroupedByCourse();
+
     @Query("SELECT COUNT(e) FROM Enrollment e WHERE e.student.id = :studentId AND e.status = 'ENROLLED'")
     Long countActiveEnrollmentsByStudent(@Param("studentId") Long studentId);
 
+    /**
+     * Matching enrollments as [enrollmentId, studentId].
+     */
+    @Query("SELECT e.id, e.student.id FROM Enrollment e WHERE e.course.id IN :courseIds AND e.status IN :statuses")
+    List<Object[]> findIdsByCourseIdInAndStatusIn(@Param("courseIds") Collection<Long> courseIds,
+                                                  @Param("statuses") Collection<Enrollment.EnrollmentStatus> statuses);
+
+    /**
+     * All of a student's enrollments as [enrollmentId, courseId].
+     */
+    @Query("SELECT e.id, e.course.id FROM Enrollment e WHERE e.student.id = :studentId")
+    List<Object[]> findIdsByStudentId(@Param("studentId") Long studentId);
+
+    /**
+     * Completes at most {@code limit} ENROLLED rows of the courses in its own short transaction;
+     * grades stay on the rows. Called until it returns 0.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE enrollments SET status = 'COMPLETED' WHERE course_id IN (:courseIds) AND status = 'ENROLLED' LIMIT :limit",
+            nativeQuery = true)
+    int completeEnrolled(@Param("courseIds") Collection<Long> courseIds, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE enrollments SET status = 'DROPPED', waitlist_position = NULL " +
+            "WHERE course_id IN (:courseIds) AND status = 'WAITLISTED' LIMIT :limit", nativeQuery = true)
+    int dropWaitlisted(@Param("courseIds") Collection<Long> courseIds, @Param("limit") int limit);
+
     @Query("SELECT e FROM Enrollment e WHERE e.course.semester = :semester AND e.course.academicYear = :academicYear AND e.status = 'ENROLLED'")
     List<Enrollment> findEnrollmentsBySemesterAndYear(@Param("semester") String semester, @Param("academicYear") String academicYear);
 }
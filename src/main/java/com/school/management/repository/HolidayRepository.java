@@ -0,0 +1,17 @@
+package com.school.management.repository;
+
+
+import com.school.management.entity.Holiday;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface HolidayRepository extends JpaRepository<Holiday, Long> {
+
+    List<Holiday> findAllByOrderByDateAsc();
+
+    Boolean existsByDate(LocalDate date);
+}
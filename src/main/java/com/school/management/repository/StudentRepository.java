@@ -2,17 +2,21 @@ package com.school.management.repository;
 
 
 import com.school.management.entity.Student;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
 
+    List<Student> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
     Student findByStudentId(String studentId);
 
     Boolean existsByStudentId(String studentId);
@@ -32,4 +36,8 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
 
     @Query("SELECT s FROM Student s JOIN s.enrollments e WHERE e.course.id = :courseId AND e.status = 'ENROLLED'")
     List<Student> findStudentsEnrolledInCourse(@Param("courseId") Long courseId);
+
+    // returns [studentId, id] pairs so bulk callers can map roll numbers without hydrating students
+    @Query("SELECT s.studentId, s.id FROM Student s WHERE s.studentId IN :studentIds")
+    List<Object[]> findIdsByStudentIdIn(@Param("studentIds") Collection<String> studentIds);
 }
@@ -0,0 +1,10 @@
+package com.school.management.repository;
+
+
+import com.school.management.entity.SubmissionContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SubmissionContentRepository extends JpaRepository<SubmissionContent, Long> {
+}
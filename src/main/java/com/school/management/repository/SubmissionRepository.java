@@ -1,18 +1,56 @@
 package com.school.management.repository;
 
 
+import com.school.management.dto.SubmissionSummary;
 import com.school.management.entity.Submission;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SubmissionRepository extends JpaRepository<Submission, Long> {
 
+    List<Submission> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    String SUMMARY_SELECT = "SELECT new com.school.management.dto.SubmissionSummary(s.id, st.id, st.studentId, " +
+            "CONCAT(st.firstName, ' ', st.lastName), a.id, a.title, a.course.id, s.submittedAt, s.grade, s.isLate, " +
+            "s.gradedAt, s.gradedBy) FROM Submission s JOIN s.student st JOIN s.assignment a ";
+
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(s) FROM Submission s")
+    Page<SubmissionSummary> findAllSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE s.id > :id ORDER BY s.id")
+    List<SubmissionSummary> findSummariesAfterId(@Param("id") Long id, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE st.id = :studentId ORDER BY s.submittedAt DESC")
+    List<SubmissionSummary> findSummariesByStudent(@Param("studentId") Long studentId);
+
+    @Query(SUMMARY_SELECT + "WHERE a.id = :assignmentId ORDER BY s.submittedAt")
+    List<SubmissionSummary> findSummariesByAssignment(@Param("assignmentId") Long assignmentId);
+
+    @Query(SUMMARY_SELECT + "WHERE a.course.id = :courseId ORDER BY s.submittedAt")
+    List<SubmissionSummary> findSummariesByCourse(@Param("courseId") Long courseId);
+
+    @Query(SUMMARY_SELECT + "WHERE st.id = :studentId AND a.course.id = :courseId ORDER BY s.submittedAt")
+    List<SubmissionSummary> findSummariesByStudentAndCourse(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
+    @Query(SUMMARY_SELECT + "WHERE s.grade IS NULL ORDER BY s.submittedAt")
+    List<SubmissionSummary> findUngradedSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE a.id = :assignmentId AND s.grade IS NULL ORDER BY s.submittedAt")
+    List<SubmissionSummary> findUngradedSummariesByAssignment(@Param("assignmentId") Long assignmentId);
+
+    @Query(SUMMARY_SELECT + "WHERE s.isLate = true ORDER BY s.submittedAt")
+    List<SubmissionSummary> findLateSummaries();
+
     List<Submission> findByStudentId(Long studentId);
 
     List<Submission> findByAssignmentId(Long assignmentId);
@@ -33,6 +71,9 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     @Query("SELECT s FROM Submission s WHERE s.assignment.id = :assignmentId AND s.grade IS NULL")
     List<Submission> findUnGradedSubmissionsByAssignment(@Param("assignmentId") Long assignmentId);
 
+    @Query("SELECT s.id, s.student.id FROM Submission s WHERE s.assignment.id = :assignmentId AND s.id IN :ids")
+    List<Object[]> findStudentIdsByAssignmentIdAndIdIn(@Param("assignmentId") Long assignmentId, @Param("ids") Collection<Long> ids);
+
     @Query("SELECT s FROM Submission s WHERE s.isLate = true")
     List<Submission> findLateSubmissions();
 
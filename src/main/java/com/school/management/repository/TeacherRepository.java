@@ -2,6 +2,7 @@ package com.school.management.repository;
 
 
 import com.school.management.entity.Teacher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,6 +14,8 @@ import java.util.Optional;
 @Repository
 public interface TeacherRepository extends JpaRepository<Teacher, Long> {
 
+    List<Teacher> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
     Optional<Teacher> findByEmployeeId(String employeeId);
 
     Boolean existsByEmployeeId(String employeeId);
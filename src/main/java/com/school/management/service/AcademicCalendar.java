@@ -0,0 +1,80 @@
+package com.school.management.service;
+
+import com.school.management.entity.Holiday;
+import com.school.management.repository.AcademicTermRepository;
+import com.school.management.repository.HolidayRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Holds the current {@link CalendarSnapshot}, built from academic terms and holidays on first
+ * use and swapped atomically by {@link #refresh()} after calendar edits. Callers that need
+ * several lookups to agree, such as an index keyed by ordinal, should hold one snapshot.
+ */
+@Service
+public class AcademicCalendar {
+
+    private static final Logger logger = LoggerFactory.getLogger(AcademicCalendar.class);
+
+    // how far past today ordinals are precomputed when no later term is configured
+    private static final int HORIZON_YEARS = 5;
+
+    @Autowired
+    private AcademicTermRepository academicTermRepository;
+
+    @Autowired
+    private HolidayRepository holidayRepository;
+
+    private volatile CalendarSnapshot snapshot;
+
+    public CalendarSnapshot snapshot() {
+        CalendarSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public synchronized CalendarSnapshot refresh() {
+        snapshot = load();
+        return snapshot;
+    }
+
+    public boolean isSchoolDay(LocalDate date) {
+        return snapshot().isSchoolDay(date);
+    }
+
+    public int ordinalOf(LocalDate date) {
+        return snapshot().ordinalOf(date);
+    }
+
+    public int schoolDaysBetween(LocalDate startDate, LocalDate endDate) {
+        return snapshot().schoolDaysBetween(startDate, endDate);
+    }
+
+    public Optional<CalendarSnapshot.Term> term(String semester, String academicYear) {
+        return snapshot().term(semester, academicYear);
+    }
+
+    private CalendarSnapshot load() {
+        long start = System.currentTimeMillis();
+        List<LocalDate> holidays = holidayRepository.findAllByOrderByDateAsc().stream().map(Holiday::getDate).toList();
+        CalendarSnapshot built = new CalendarSnapshot(academicTermRepository.findAllByOrderByStartDateAsc(), holidays,
+                LocalDate.now().plusYears(HORIZON_YEARS));
+        logger.info("Academic calendar built in {} ms: {} terms, {} holidays, horizon {}",
+                System.currentTimeMillis() - start, built.terms().size(), holidays.size(), built.horizon());
+        return built;
+    }
+}
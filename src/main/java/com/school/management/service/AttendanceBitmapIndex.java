@@ -0,0 +1,334 @@
+package com.school.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.management.constant.Constant.AttendanceStatus;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory attendance index: for every (student, course) pair one {@link DayBitmap}
+ * per {@link AttendanceStatus}, keyed by school-day ordinal. A course belongs to exactly
+ * one term, so (student, course) already identifies the term.
+ * Rebuilt from the attendance table on startup and kept current by {@link AttendanceService}
+ * after each local commit and by the attendance-events topic for writes committed on other
+ * instances; every instance reads the topic in its own consumer group. A change sets the day's
+ * status outright, so the echo of a local change is a no-op and per-student event order wins.
+ * Ordinals come from the {@link CalendarSnapshot} the index was built with, so a calendar
+ * change requires a rebuild.
+ */
+@Service
+public class AttendanceBitmapIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceBitmapIndex.class);
+
+    private static final AttendanceStatus[] STATUSES = AttendanceStatus.values();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AcademicCalendar academicCalendar;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // calendar is null until the first rebuild
+    private volatile Index index = new Index(new ConcurrentHashMap<>(), null);
+
+    // mutations applied while a rebuild is streaming the table, replayed onto the new index
+    private List<Mutation> pending;
+
+    // one rebuild at a time, so two rebuilds never share or reset the pending list
+    private final Object rebuildLock = new Object();
+
+    // false until the first rebuild succeeds; until then queries would only see an empty index
+    private volatile boolean ready;
+
+    private final ExecutorService rebuilder =
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().name("attendance-index-rebuild").daemon().factory());
+
+    // fetch size that makes the driver stream the rebuild query, resolved on the first rebuild
+    private volatile Integer streamingFetchSize;
+
+    // set while a background rebuild is queued but not started, so a burst of calendar edits rebuilds once
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Unable to build attendance bitmap index: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Queues a rebuild on the index's own thread; reads keep using the current index until it finishes.
+     */
+    public void rebuildInBackground() {
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        rebuilder.submit(() -> {
+            rebuildQueued.set(false);
+            try {
+                rebuild();
+            } catch (Exception e) {
+                logger.error("Unable to rebuild attendance bitmap index: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            rebuildLocked();
+        }
+    }
+
+    private void rebuildLocked() {
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+        Index rebuilt = new Index(new ConcurrentHashMap<>(), academicCalendar.snapshot());
+        long start = System.currentTimeMillis();
+        JdbcTemplate streaming = new JdbcTemplate(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+        streaming.setFetchSize(streamingFetchSize());
+        try {
+            streaming.query("SELECT student_id, course_id, date, status FROM attendance " +
+                    "WHERE student_id IS NOT NULL AND course_id IS NOT NULL AND date IS NOT NULL AND status IS NOT NULL",
+                    (ResultSet rs) -> {
+                        apply(rebuilt, new Mutation(rs.getLong(1), rs.getLong(2),
+                                rs.getDate(3).toLocalDate(), AttendanceStatus.valueOf(rs.getString(4))));
+                    });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pending = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            pending.forEach(m -> apply(rebuilt, m));
+            pending = null;
+            index = rebuilt;
+        }
+        ready = true;
+        logger.info("Attendance bitmap index rebuilt in {} ms: {} students, ~{} KB",
+                System.currentTimeMillis() - start, rebuilt.entries.size(), sizeInBytes() / 1024);
+    }
+
+    // a fresh group per instance starting at the latest offset: the startup build covers what came before
+    @KafkaListener(topics = EventPublisher.ATTENDANCE_EVENTS_TOPIC,
+            groupId = "attendance-index-#{T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void consume(ConsumerRecord<String, Object> record, Acknowledgment acknowledgment) {
+        Object value = record.value();
+        Object data = value instanceof EventPublisher.SchoolEvent<?> event ? event.getData() : value;
+        try {
+            if (data != null) {
+                EventPublisher.AttendanceChangeData change = objectMapper.convertValue(data, EventPublisher.AttendanceChangeData.class);
+                if (change.getDate() != null) {
+                    record(change.getStudentId(), change.getCourseId(), LocalDate.parse(change.getDate()),
+                            change.getStatus() != null ? AttendanceStatus.valueOf(change.getStatus()) : null);
+                }
+            }
+        } catch (IllegalArgumentException | DateTimeException e) {
+            logger.warn("Skipping unreadable attendance event at offset {}: {}", record.offset(), e.getMessage());
+        }
+        acknowledgment.acknowledge();
+    }
+
+    /**
+     * Sets the status of one student's course day; status is null for a deleted row.
+     */
+    public synchronized void record(Long studentId, Long courseId, LocalDate date, AttendanceStatus status) {
+        if (studentId == null || courseId == null || date == null) {
+            return;
+        }
+        Mutation mutation = new Mutation(studentId, courseId, date, status);
+        apply(index, mutation);
+        if (pending != null) {
+            pending.add(mutation);
+        }
+    }
+
+    /**
+     * School days in [startDate, endDate] that carry the given status, in date order.
+     */
+    public List<LocalDate> findDays(Long studentId, Long courseId, AttendanceStatus status, LocalDate startDate, LocalDate endDate) {
+        List<LocalDate> days = new ArrayList<>();
+        Index current = index;
+        Entry entry = current.entry(studentId, courseId);
+        if (entry == null) {
+            return days;
+        }
+        int from = current.calendar.ceilingOrdinal(startDate);
+        int to = current.calendar.floorOrdinal(endDate);
+        synchronized (entry) {
+            DayBitmap bitmap = entry.bitmaps[status.ordinal()];
+            if (bitmap != null) {
+                bitmap.forEach(from, to, ordinal -> days.add(current.calendar.dateOf(ordinal)));
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Number of recorded days per status in [startDate, endDate].
+     */
+    public Map<AttendanceStatus, Long> countByStatus(Long studentId, Long courseId, LocalDate startDate, LocalDate endDate) {
+        Map<AttendanceStatus, Long> counts = new EnumMap<>(AttendanceStatus.class);
+        for (AttendanceStatus status : STATUSES) {
+            counts.put(status, 0L);
+        }
+        Index current = index;
+        Entry entry = current.entry(studentId, courseId);
+        if (entry == null) {
+            return counts;
+        }
+        int from = current.calendar.ceilingOrdinal(startDate);
+        int to = current.calendar.floorOrdinal(endDate);
+        synchronized (entry) {
+            for (AttendanceStatus status : STATUSES) {
+                DayBitmap bitmap = entry.bitmaps[status.ordinal()];
+                counts.put(status, bitmap == null ? 0L : (long) bitmap.cardinality(from, to));
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Consecutive recorded school days with the given status, ending at the last recorded day on or before asOf.
+     */
+    public int streak(Long studentId, Long courseId, AttendanceStatus status, LocalDate asOf) {
+        Index current = index;
+        Entry entry = current.entry(studentId, courseId);
+        if (entry == null) {
+            return 0;
+        }
+        int to = current.calendar.floorOrdinal(asOf);
+        if (to < 0) {
+            return 0;
+        }
+        synchronized (entry) {
+            DayBitmap bitmap = entry.bitmaps[status.ordinal()];
+            if (bitmap == null) {
+                return 0;
+            }
+            int lastRecorded = -1;
+            for (DayBitmap any : entry.bitmaps) {
+                if (any != null) {
+                    lastRecorded = Math.max(lastRecorded, any.previousSetBit(to));
+                }
+            }
+            return lastRecorded < 0 ? 0 : bitmap.runEndingAt(lastRecorded);
+        }
+    }
+
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (Map<Long, Entry> courses : index.entries.values()) {
+            for (Entry entry : courses.values()) {
+                synchronized (entry) {
+                    bytes += 48;
+                    for (DayBitmap bitmap : entry.bitmaps) {
+                        bytes += bitmap == null ? 0 : bitmap.sizeInBytes();
+                    }
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static void apply(Index target, Mutation m) {
+        if (target.calendar == null) {
+            return; // not built yet, the first rebuild reads this row from the table
+        }
+        int ordinal = target.calendar.ordinalOf(m.date);
+        if (ordinal < 0) {
+            return; // rows on weekends, holidays or term breaks are not school days and are not indexed
+        }
+        Entry entry = target.entries.computeIfAbsent(m.studentId, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(m.courseId, k -> new Entry());
+        synchronized (entry) {
+            for (int i = 0; i < entry.bitmaps.length; i++) {
+                if (entry.bitmaps[i] != null && (m.status == null || i != m.status.ordinal())) {
+                    entry.bitmaps[i].clear(ordinal);
+                    if (entry.bitmaps[i].isEmpty()) {
+                        entry.bitmaps[i] = null;
+                    }
+                }
+            }
+            if (m.status != null) {
+                if (entry.bitmaps[m.status.ordinal()] == null) {
+                    entry.bitmaps[m.status.ordinal()] = new DayBitmap();
+                }
+                entry.bitmaps[m.status.ordinal()].set(ordinal);
+            }
+        }
+    }
+
+    // Connector/J only streams with Integer.MIN_VALUE, which other drivers reject as a fetch size
+    private int streamingFetchSize() {
+        Integer fetchSize = streamingFetchSize;
+        if (fetchSize == null) {
+            String product;
+            try {
+                product = JdbcUtils.extractDatabaseMetaData(Objects.requireNonNull(jdbcTemplate.getDataSource()),
+                        DatabaseMetaData::getDatabaseProductName);
+            } catch (MetaDataAccessException e) {
+                product = null;
+            }
+            fetchSize = "MySQL".equals(product) ? Integer.MIN_VALUE : 1000;
+            streamingFetchSize = fetchSize;
+        }
+        return fetchSize;
+    }
+
+    private static final class Entry {
+        // indexed by AttendanceStatus.ordinal(); null while a status has no days
+        private final DayBitmap[] bitmaps = new DayBitmap[STATUSES.length];
+    }
+
+    private record Index(Map<Long, Map<Long, Entry>> entries, CalendarSnapshot calendar) {
+
+        private Entry entry(Long studentId, Long courseId) {
+            if (calendar == null) {
+                return null;
+            }
+            Map<Long, Entry> courses = entries.get(studentId);
+            return courses == null ? null : courses.get(courseId);
+        }
+    }
+
+    private record Mutation(Long studentId, Long courseId, LocalDate date, AttendanceStatus status) {}
+}
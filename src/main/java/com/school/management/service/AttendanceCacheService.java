@@ -0,0 +1,140 @@
+package com.school.management.service;
+
+import com.school.management.dto.AttendanceSegment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Invalidates only the attendance cache entries a mutation can affect. Keys embed version
+ * counters, and a mutation bumps the counters of what it touched once it commits, so a read
+ * that loaded before the commit can only write its stale value under a key nobody builds
+ * any more. Date-range reads are cached as ISO-week segments with a counter per owner and
+ * week, so a changed date invalidates exactly one segment per student and per course.
+ */
+@Service("attendanceCacheService")
+public class AttendanceCacheService {
+
+    public static final String BY_STUDENT = "attendance-by-student";
+    public static final String BY_COURSE = "attendance-by-course";
+    public static final String BY_DATE = "attendance-by-date";
+    public static final String COURSE_SUMMARY = "attendance-course-summary";
+    public static final String STUDENT_WEEKS = "attendance-student-weeks";
+    public static final String COURSE_WEEKS = "attendance-course-weeks";
+
+    // segment caches manage their own TTL and must survive the hourly cache cleanup
+    public static final Set<String> SEGMENT_CACHES = Set.of(STUDENT_WEEKS, COURSE_WEEKS);
+
+    private static final String VERSION_PREFIX = "attendance-version:";
+
+    // outlives the longest entry TTL, so a counter never resets while an entry of its old version is live
+    private static final long VERSION_TTL_SECONDS = 48 * 3600;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    public static String segmentKey(Long ownerId, LocalDate weekStart, String version) {
+        return ownerId + "-" + weekStart + "-v" + version;
+    }
+
+    public String student(Long studentId) {
+        return read(VERSION_PREFIX + BY_STUDENT + ":" + studentId);
+    }
+
+    public String course(Long courseId) {
+        return read(VERSION_PREFIX + BY_COURSE + ":" + courseId);
+    }
+
+    public String date(LocalDate date) {
+        return read(VERSION_PREFIX + BY_DATE + ":" + date);
+    }
+
+    public String courseSummary(Long courseId) {
+        return read(VERSION_PREFIX + COURSE_SUMMARY + ":" + courseId);
+    }
+
+    /**
+     * Current versions of an owner's week segments, in the order of the weeks, with one MGET.
+     */
+    public List<String> segmentVersions(String cacheName, Long ownerId, List<LocalDate> weekStarts) {
+        List<String> keys = new ArrayList<>(weekStarts.size());
+        for (LocalDate weekStart : weekStarts) {
+            keys.add(segmentVersionKey(cacheName, ownerId, weekStart));
+        }
+        List<String> values = stringRedisTemplate.opsForValue().multiGet(keys);
+        List<String> versions = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            String version = values != null ? values.get(i) : null;
+            versions.add(version != null ? version : "0");
+        }
+        return versions;
+    }
+
+    /**
+     * Invalidates the listings that contain a row for this student, course and date.
+     */
+    public void evict(Long studentId, Long courseId, LocalDate date) {
+        evict(studentId != null ? List.of(studentId) : List.of(), courseId, date);
+    }
+
+    /**
+     * Roster variant: one course and date, many students.
+     */
+    public void evict(Collection<Long> studentIds, Long courseId, LocalDate date) {
+        List<String> keys = new ArrayList<>();
+        if (courseId != null) {
+            keys.add(VERSION_PREFIX + BY_COURSE + ":" + courseId);
+            keys.add(VERSION_PREFIX + COURSE_SUMMARY + ":" + courseId);
+        }
+        if (date != null) {
+            keys.add(VERSION_PREFIX + BY_DATE + ":" + date);
+            if (courseId != null) {
+                keys.add(segmentVersionKey(COURSE_WEEKS, courseId, AttendanceSegment.weekStartOf(date)));
+            }
+        }
+        for (Long studentId : studentIds) {
+            keys.add(VERSION_PREFIX + BY_STUDENT + ":" + studentId);
+            if (date != null) {
+                keys.add(segmentVersionKey(STUDENT_WEEKS, studentId, AttendanceSegment.weekStartOf(date)));
+            }
+        }
+        bump(keys);
+    }
+
+    /**
+     * The course summary lists enrolled students, so roster changes invalidate it too.
+     */
+    public void evictCourseSummary(Long courseId) {
+        if (courseId != null) {
+            bump(List.of(VERSION_PREFIX + COURSE_SUMMARY + ":" + courseId));
+        }
+    }
+
+    private static String segmentVersionKey(String cacheName, Long ownerId, LocalDate weekStart) {
+        return VERSION_PREFIX + cacheName + ":" + ownerId + ":" + weekStart;
+    }
+
+    private void bump(List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                byte[] raw = key.getBytes(StandardCharsets.UTF_8);
+                connection.stringCommands().incr(raw);
+                connection.keyCommands().expire(raw, VERSION_TTL_SECONDS);
+            }
+            return null;
+        });
+    }
+
+    private String read(String key) {
+        String version = stringRedisTemplate.opsForValue().get(key);
+        return version != null ? version : "0";
+    }
+}
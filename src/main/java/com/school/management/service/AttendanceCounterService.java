@@ -0,0 +1,138 @@
+package com.school.management.service;
+
+import com.school.management.constant.Constant.AttendanceStatus;
+import com.school.management.dto.AttendanceView;
+import com.school.management.entity.AttendanceCounter;
+import com.school.management.repository.AttendanceCounterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps per (student, course, status) attendance counts so the count and percentage
+ * endpoints are a single indexed lookup instead of COUNT scans over attendance.
+ * Writers must call these methods inside the transaction that changes attendance.
+ */
+@Service
+public class AttendanceCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceCounterService.class);
+
+    private static final String INCREMENT_SQL =
+            "INSERT INTO attendance_counters (student_id, course_id, status, day_count) VALUES (?, ?, ?, 1) " +
+            "ON DUPLICATE KEY UPDATE day_count = day_count + 1";
+
+    @Autowired
+    private AttendanceCounterRepository attendanceCounterRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordMarked(Long studentId, Long courseId, AttendanceStatus status) {
+        adjust(studentId, courseId, status, 1);
+    }
+
+    /**
+     * Batched variant used by roster marking, one counter increment per newly inserted row.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordMarked(Long courseId, Map<Long, AttendanceStatus> statusByStudent) {
+        if (statusByStudent.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, AttendanceStatus>> rows = new ArrayList<>(statusByStudent.entrySet());
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, rows, 100, (ps, row) -> {
+            ps.setLong(1, row.getKey());
+            ps.setLong(2, courseId);
+            ps.setString(3, row.getValue().name());
+        });
+    }
+
+    /**
+     * Batched variant for rows spanning several courses, one increment per row.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordMarked(Collection<AttendanceView> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, rows, 100, (ps, row) -> {
+            ps.setLong(1, row.getStudentId());
+            ps.setLong(2, row.getCourseId());
+            ps.setString(3, row.getStatus().name());
+        });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Long studentId, Long courseId, AttendanceStatus status) {
+        adjust(studentId, courseId, status, -1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(Long studentId, Long courseId, AttendanceStatus from, AttendanceStatus to) {
+        if (Objects.equals(from, to)) {
+            return;
+        }
+        adjust(studentId, courseId, from, -1);
+        adjust(studentId, courseId, to, 1);
+    }
+
+    public Map<AttendanceStatus, Long> getCounts(Long studentId, Long courseId) {
+        Map<AttendanceStatus, Long> counts = new EnumMap<>(AttendanceStatus.class);
+        for (AttendanceStatus status : AttendanceStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (AttendanceCounter counter : attendanceCounterRepository.findByStudentIdAndCourseId(studentId, courseId)) {
+            counts.put(counter.getStatus(), counter.getDayCount());
+        }
+        return counts;
+    }
+
+    public long getPresentDays(Long studentId, Long courseId) {
+        return getCounts(studentId, courseId).get(AttendanceStatus.PRESENT);
+    }
+
+    public long getTotalDays(Long studentId, Long courseId) {
+        return getCounts(studentId, courseId).values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public double getAttendancePercentage(Long studentId, Long courseId) {
+        Map<AttendanceStatus, Long> counts = getCounts(studentId, courseId);
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        if (total == 0) {
+            return 0.0;
+        }
+        return counts.get(AttendanceStatus.PRESENT) * 100.0 / total;
+    }
+
+    /**
+     * Recomputes every counter from the attendance table. Runs as one transaction so
+     * readers never observe a half-built read model.
+     */
+    @Transactional
+    public int rebuild() {
+        attendanceCounterRepository.deleteAllCounters();
+        int rows = attendanceCounterRepository.insertCountersFromAttendance();
+        logger.info("Rebuilt attendance counters: {} rows", rows);
+        return rows;
+    }
+
+    private void adjust(Long studentId, Long courseId, AttendanceStatus status, long delta) {
+        if (studentId == null || courseId == null || status == null) {
+            return;
+        }
+        attendanceCounterRepository.increment(studentId, courseId, status.name(), delta);
+    }
+}
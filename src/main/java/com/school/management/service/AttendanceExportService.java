@@ -0,0 +1,132 @@
+package com.school.management.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Streams attendance rows from a forward-only MySQL cursor straight to the response,
+ * so memory use does not depend on the size of the export. Nothing is cached.
+ */
+@Service
+public class AttendanceExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceExportService.class);
+
+    private static final String EXPORT_SQL =
+            "SELECT a.id, s.student_id, a.course_id, a.date, a.status, a.remarks, a.marked_by, a.marked_at " +
+            "FROM attendance a LEFT JOIN students s ON s.user_id = a.student_id " +
+            "WHERE a.course_id = ? AND a.date BETWEEN ? AND ? ORDER BY a.date, a.id";
+
+    private static final String[] COLUMNS =
+            {"id", "studentId", "courseId", "date", "status", "remarks", "markedBy", "markedAt"};
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void export(Long courseId, LocalDate startDate, LocalDate endDate, Format format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        long[] rows = {0};
+        JdbcTemplate streaming = new JdbcTemplate(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+        streaming.setFetchSize(Integer.MIN_VALUE); // MySQL streams row by row with this fetch size
+
+        if (format == Format.CSV) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+            streaming.query(EXPORT_SQL, (ResultSet rs) -> {
+                try {
+                    writeCsvRow(writer, rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            }, courseId, Date.valueOf(startDate), Date.valueOf(endDate));
+            writer.flush();
+        } else {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            // keep the caller's stream open; rows are newline terminated instead of space separated
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            streaming.query(EXPORT_SQL, (ResultSet rs) -> {
+                try {
+                    writeJsonRow(generator, rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            }, courseId, Date.valueOf(startDate), Date.valueOf(endDate));
+            generator.flush();
+        }
+        logger.info("Exported {} attendance rows for course {} ({} to {}) as {} in {} ms",
+                rows[0], courseId, startDate, endDate, format, System.currentTimeMillis() - start);
+    }
+
+    private static void writeCsvRow(Writer writer, ResultSet rs) throws SQLException, IOException {
+        writer.write(String.valueOf(rs.getLong(1)));
+        writer.write(',');
+        writer.write(csv(rs.getString(2)));
+        writer.write(',');
+        writer.write(String.valueOf(rs.getLong(3)));
+        writer.write(',');
+        Date date = rs.getDate(4);
+        writer.write(date != null ? date.toLocalDate().toString() : "");
+        writer.write(',');
+        writer.write(csv(rs.getString(5)));
+        writer.write(',');
+        writer.write(csv(rs.getString(6)));
+        writer.write(',');
+        writer.write(csv(rs.getString(7)));
+        writer.write(',');
+        Timestamp markedAt = rs.getTimestamp(8);
+        writer.write(markedAt != null ? markedAt.toLocalDateTime().toString() : "");
+        writer.write('\n');
+    }
+
+    private static void writeJsonRow(JsonGenerator generator, ResultSet rs) throws SQLException, IOException {
+        Date date = rs.getDate(4);
+        Timestamp markedAt = rs.getTimestamp(8);
+        generator.writeStartObject();
+        generator.writeNumberField(COLUMNS[0], rs.getLong(1));
+        generator.writeStringField(COLUMNS[1], rs.getString(2));
+        generator.writeNumberField(COLUMNS[2], rs.getLong(3));
+        generator.writeStringField(COLUMNS[3], date != null ? date.toLocalDate().toString() : null);
+        generator.writeStringField(COLUMNS[4], rs.getString(5));
+        generator.writeStringField(COLUMNS[5], rs.getString(6));
+        generator.writeStringField(COLUMNS[6], rs.getString(7));
+        generator.writeStringField(COLUMNS[7], markedAt != null ? markedAt.toLocalDateTime().toString() : null);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
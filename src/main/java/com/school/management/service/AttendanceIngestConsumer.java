@@ -0,0 +1,70 @@
+package com.school.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drains the attendance-ingest topic in batches when async ingestion is enabled.
+ * Offsets are acknowledged only after the batch transaction has committed, so a crash
+ * redelivers the batch; redelivered rows are skipped by the (student, course, date) key.
+ * A batch that throws is retried with backoff until it succeeds (see KafkaConfig); only
+ * batches rejected by the database itself are parked on attendance-ingest.DLT.
+ */
+@Service
+public class AttendanceIngestConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceIngestConsumer.class);
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @KafkaListener(topics = EventPublisher.ATTENDANCE_INGEST_TOPIC, groupId = "attendance-ingest-group",
+            containerFactory = "attendanceBatchListenerContainerFactory",
+            autoStartup = "${app.attendance.async-ingest:false}",
+            properties = {"max.poll.records=500", "fetch.max.wait.ms=200"})
+    public void consumeBatch(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        long start = System.currentTimeMillis();
+        List<EventPublisher.AttendanceData> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, Object> record : records) {
+            EventPublisher.AttendanceData data = toAttendanceData(record);
+            if (data != null) {
+                events.add(data);
+            }
+        }
+
+        int inserted;
+        try {
+            inserted = attendanceService.ingestBatch(events);
+        } catch (DuplicateKeyException e) {
+            logger.warn("Attendance batch raced a concurrent writer, retrying row by row: {}", e.getMessage());
+            inserted = attendanceService.ingestEach(events);
+        }
+        acknowledgment.acknowledge();
+        logger.debug("Ingested attendance batch: {} records, {} inserted in {} ms",
+                records.size(), inserted, System.currentTimeMillis() - start);
+    }
+
+    private EventPublisher.AttendanceData toAttendanceData(ConsumerRecord<String, Object> record) {
+        Object value = record.value();
+        Object data = value instanceof EventPublisher.SchoolEvent<?> event ? event.getData() : value;
+        try {
+            return data == null ? null : objectMapper.convertValue(data, EventPublisher.AttendanceData.class);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Skipping unreadable attendance record at offset {}: {}", record.offset(), e.getMessage());
+            return null;
+        }
+    }
+}
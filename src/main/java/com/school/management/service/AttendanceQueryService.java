@@ -0,0 +1,200 @@
+package com.school.management.service;
+
+import com.school.management.constant.Constant.AttendanceStatus;
+import com.school.management.dto.AttendanceSegment;
+import com.school.management.dto.AttendanceView;
+import com.school.management.dto.CourseAttendanceSummary;
+import com.school.management.repository.AttendanceRepository;
+import com.school.management.repository.CourseRepository;
+import exception.CustomException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.cache.CacheKeyPrefix;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * Attendance list reads. Every query selects {@link AttendanceView} rows directly, so
+ * cached values are flat lists instead of entity graphs with lazy proxies.
+ */
+@Service
+public class AttendanceQueryService {
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private AcademicCalendar academicCalendar;
+
+    // a year of weeks, so one request cannot turn into an unbounded scan
+    private static final int MAX_RANGE_WEEKS = 53;
+
+    @Autowired
+    private AttendanceCacheService attendanceCacheService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    public Page<AttendanceView> getAllAttendance(Pageable pageable) {
+        return attendanceRepository.findAllViews(pageable);
+    }
+
+    public List<AttendanceView> getAttendanceAfter(Long lastId, int limit) {
+        return attendanceRepository.findViewsAfterId(lastId, Limit.of(limit));
+    }
+
+    @Cacheable(value = "attendance-by-student", key = "#studentId + '-v' + @attendanceCacheService.student(#studentId)")
+    public List<AttendanceView> getAttendanceByStudent(Long studentId) {
+        return attendanceRepository.findViewsByStudentId(studentId);
+    }
+
+    @Cacheable(value = "attendance-by-course", key = "#courseId + '-v' + @attendanceCacheService.course(#courseId)")
+    public List<AttendanceView> getAttendanceByCourse(Long courseId) {
+        return attendanceRepository.findViewsByCourseId(courseId);
+    }
+
+    @Cacheable(value = "attendance-by-date", key = "#date + '-v' + @attendanceCacheService.date(#date)")
+    public List<AttendanceView> getAttendanceByDate(LocalDate date) {
+        return attendanceRepository.findViewsByDate(date);
+    }
+
+    /**
+     * Present/absent/late/excused counts and percentage for every enrolled student,
+     * from one grouped query over the course's attendance.
+     */
+    @Cacheable(value = AttendanceCacheService.COURSE_SUMMARY,
+            key = "#courseId + '-v' + @attendanceCacheService.courseSummary(#courseId)")
+    public CourseAttendanceSummary getCourseSummary(Long courseId) {
+        CourseAttendanceSummary summary = new CourseAttendanceSummary();
+        summary.setCourseId(courseId);
+        courseRepository.findById(courseId)
+                .flatMap(course -> academicCalendar.term(course.getSemester(), course.getAcademicYear()))
+                .ifPresent(term -> summary.setSchoolDaysToDate(academicCalendar.schoolDaysBetween(term.startDate(),
+                        term.endDate().isBefore(LocalDate.now()) ? term.endDate() : LocalDate.now())));
+        Map<Long, CourseAttendanceSummary.StudentRow> rows = new LinkedHashMap<>();
+        for (Object[] result : attendanceRepository.summarizeCourse(courseId)) {
+            CourseAttendanceSummary.StudentRow row = rows.computeIfAbsent((Long) result[0], id -> {
+                CourseAttendanceSummary.StudentRow created = new CourseAttendanceSummary.StudentRow();
+                created.setStudentId(id);
+                created.setStudentCode((String) result[1]);
+                created.setStudentName(result[2] + " " + result[3]);
+                return created;
+            });
+            AttendanceStatus status = (AttendanceStatus) result[4];
+            long count = ((Number) result[5]).longValue();
+            if (status == null) {
+                continue;
+            }
+            switch (status) {
+                case PRESENT -> row.setPresent(count);
+                case ABSENT -> row.setAbsent(count);
+                case LATE -> row.setLate(count);
+                case EXCUSED -> row.setExcused(count);
+            }
+            row.setTotal(row.getTotal() + count);
+        }
+        for (CourseAttendanceSummary.StudentRow row : rows.values()) {
+            row.setPercentage(row.getTotal() == 0 ? 0.0 : row.getPresent() * 100.0 / row.getTotal());
+        }
+        summary.setStudents(new ArrayList<>(rows.values()));
+        return summary;
+    }
+
+    public List<AttendanceView> getAttendanceByCourseAndDateRange(Long courseId, LocalDate startDate, LocalDate endDate) {
+        return readWeeks(AttendanceCacheService.COURSE_WEEKS, courseId, startDate, endDate,
+                (from, to) -> attendanceRepository.findViewsByCourseAndDateRange(courseId, from, to));
+    }
+
+    public List<AttendanceView> getAttendanceByStudentAndDateRange(Long studentId, LocalDate startDate, LocalDate endDate) {
+        return readWeeks(AttendanceCacheService.STUDENT_WEEKS, studentId, startDate, endDate,
+                (from, to) -> attendanceRepository.findViewsByStudentAndDateRange(studentId, from, to));
+    }
+
+    /**
+     * Assembles a date range from cached week segments, read with one MGET for their versions
+     * and one for the segments. Missing weeks are loaded with one query spanning the first to
+     * the last missing week, split per week and cached under the versions read before the query.
+     */
+    private List<AttendanceView> readWeeks(String cacheName, Long ownerId, LocalDate startDate, LocalDate endDate,
+                                           BiFunction<LocalDate, LocalDate, List<AttendanceView>> loader) {
+        if (endDate.isBefore(startDate)) {
+            return List.of();
+        }
+        List<LocalDate> weekStarts = new ArrayList<>();
+        LocalDate lastWeek = AttendanceSegment.weekStartOf(endDate);
+        for (LocalDate week = AttendanceSegment.weekStartOf(startDate); !week.isAfter(lastWeek); week = week.plusWeeks(1)) {
+            if (weekStarts.size() == MAX_RANGE_WEEKS) {
+                throw new CustomException("date range cannot span more than " + MAX_RANGE_WEEKS + " weeks");
+            }
+            weekStarts.add(week);
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        List<String> versions = cache != null ? attendanceCacheService.segmentVersions(cacheName, ownerId, weekStarts) : null;
+        List<Object> cached = null;
+        if (cache != null) {
+            String prefix = CacheKeyPrefix.simple().compute(cacheName);
+            List<String> keys = new ArrayList<>(weekStarts.size());
+            for (int i = 0; i < weekStarts.size(); i++) {
+                keys.add(prefix + AttendanceCacheService.segmentKey(ownerId, weekStarts.get(i), versions.get(i)));
+            }
+            cached = redisTemplate.opsForValue().multiGet(keys);
+        }
+        Map<LocalDate, List<AttendanceView>> weeks = new TreeMap<>();
+        LocalDate missingFrom = null;
+        LocalDate missingTo = null;
+        for (int i = 0; i < weekStarts.size(); i++) {
+            LocalDate week = weekStarts.get(i);
+            if (cached != null && cached.get(i) instanceof AttendanceSegment segment) {
+                weeks.put(week, segment.getRows());
+            } else {
+                missingFrom = missingFrom == null ? week : missingFrom;
+                missingTo = week;
+            }
+        }
+
+        if (missingFrom != null) {
+            Map<LocalDate, List<AttendanceView>> loaded = new HashMap<>();
+            for (AttendanceView row : loader.apply(missingFrom, missingTo.plusDays(6))) {
+                loaded.computeIfAbsent(AttendanceSegment.weekStartOf(row.getDate()), k -> new ArrayList<>()).add(row);
+            }
+            LocalDate today = LocalDate.now();
+            for (int i = 0; i < weekStarts.size(); i++) {
+                LocalDate week = weekStarts.get(i);
+                if (weeks.containsKey(week)) {
+                    continue;
+                }
+                List<AttendanceView> rows = loaded.getOrDefault(week, new ArrayList<>());
+                weeks.put(week, rows);
+                if (cache != null) {
+                    cache.put(AttendanceCacheService.segmentKey(ownerId, week, versions.get(i)),
+                            new AttendanceSegment(week, week.plusDays(6).isBefore(today), rows));
+                }
+            }
+        }
+
+        List<AttendanceView> result = new ArrayList<>();
+        for (List<AttendanceView> rows : weeks.values()) {
+            for (AttendanceView row : rows) {
+                if (!row.getDate().isBefore(startDate) && !row.getDate().isAfter(endDate)) {
+                    result.add(row);
+                }
+            }
+        }
+        return result;
+    }
+}
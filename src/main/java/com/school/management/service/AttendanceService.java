@@ -0,0 +1,483 @@
+package com.school.management.service;
+
+import com.school.management.constant.Constant.AttendanceStatus;
+import com.school.management.dto.AttendanceSessionDto;
+import com.school.management.dto.AttendanceSessionResult;
+import com.school.management.dto.AttendanceView;
+import com.school.management.dto.AttendenceDto;
+import com.school.management.entity.Attendance;
+import com.school.management.entity.Course;
+import com.school.management.entity.Student;
+import com.school.management.repository.AttendanceRepository;
+import com.school.management.repository.CourseRepository;
+import com.school.management.repository.StudentRepository;
+import exception.CustomException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+public class AttendanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceService.class);
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final long PUBLISH_TIMEOUT_SECONDS = 5;
+
+    private static final String INSERT_ATTENDANCE_SQL =
+            "INSERT INTO attendance (student_id, course_id, date, status, remarks, marked_at, marked_by) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AttendanceCounterService attendanceCounterService;
+
+    @Autowired
+    private AttendanceBitmapIndex attendanceBitmapIndex;
+
+    @Autowired
+    private AttendanceCacheService attendanceCacheService;
+
+    @Autowired
+    private TodayAttendanceView todayAttendanceView;
+
+    @Autowired
+    private EventPublisher eventPublisher;
+
+    @Value("${app.attendance.async-ingest:false}")
+    private boolean asyncIngest;
+
+    /**
+     * Marks one student with a single INSERT guarded by the (student_id, course_id, date)
+     * unique constraint, so concurrent double submits cost one statement each and can
+     * never create a second row.
+     */
+    @Transactional
+    public AttendanceView markAttendance(AttendenceDto attendenceDto, String markedBy) {
+        if (attendenceDto.getCourseId() == null) {
+            throw new CustomException("Unable to identify course of this Id");
+        }
+        Long studentId = studentRepository.findIdsByStudentIdIn(List.of(attendenceDto.getStudentId())).stream()
+                .map(row -> (Long) row[1])
+                .findFirst()
+                .orElseThrow(() -> new CustomException("Student Id is not exist"));
+        Long courseId = attendenceDto.getCourseId();
+        LocalDate date = attendenceDto.getDate() != null ? attendenceDto.getDate() : LocalDate.now();
+        AttendanceStatus status = attendenceDto.getStatus() != null ? attendenceDto.getStatus() : AttendanceStatus.PRESENT;
+        Object[] row = {studentId, courseId, Date.valueOf(date), status.name(), attendenceDto.getRemarks(),
+                Timestamp.valueOf(LocalDateTime.now()), markedBy};
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int inserted;
+        try {
+            inserted = insertIfAbsent(row, keyHolder);
+        } catch (DataIntegrityViolationException e) {
+            // only the course foreign key is a client error; anything else (overflow, NOT NULL) is ours
+            if (!courseRepository.existsById(courseId)) {
+                throw new CustomException("Unable to identify course of this Id");
+            }
+            throw e;
+        }
+
+        if (inserted == 0) {
+            throw new CustomException("attendance already marked");
+        }
+
+        Number key = keyHolder.getKey();
+        AttendanceView view = new AttendanceView(key != null ? key.longValue() : null, studentId, courseId, date, status, markedBy);
+        attendanceCounterService.recordMarked(studentId, courseId, status);
+        afterCommit(() -> {
+            applyCommitted(view, null);
+            attendanceCacheService.evict(studentId, courseId, date);
+            todayAttendanceView.record(view);
+        });
+        return view;
+    }
+
+    public boolean isAsyncIngest() {
+        return asyncIngest;
+    }
+
+    /**
+     * Queues one attendance mark on Kafka instead of writing it, returning once the broker
+     * has the record. {@link AttendanceIngestConsumer} persists it later in batches.
+     */
+    public void enqueueAttendance(AttendenceDto attendenceDto, String markedBy) {
+        if (attendenceDto.getStudentId() == null || attendenceDto.getCourseId() == null) {
+            throw new CustomException("studentId and courseId are required");
+        }
+        LocalDate date = attendenceDto.getDate() != null ? attendenceDto.getDate() : LocalDate.now();
+        AttendanceStatus status = attendenceDto.getStatus() != null ? attendenceDto.getStatus() : AttendanceStatus.PRESENT;
+        EventPublisher.AttendanceData data = new EventPublisher.AttendanceData(attendenceDto.getStudentId(),
+                attendenceDto.getCourseId(), date.toString(), status.name(), attendenceDto.getRemarks(),
+                markedBy, System.currentTimeMillis());
+        try {
+            eventPublisher.publishAttendanceEvent(data).get(PUBLISH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomException("unable to queue attendance, please retry");
+        } catch (Exception e) {
+            logger.error("Failed to queue attendance for student {} in course {}: {}",
+                    attendenceDto.getStudentId(), attendenceDto.getCourseId(), e.getMessage());
+            throw new CustomException("unable to queue attendance, please retry");
+        }
+    }
+
+    /**
+     * Persists a batch of queued attendance marks. Events are coalesced on (student, course, date),
+     * keeping the first like the synchronous path does, rows that already exist are skipped so
+     * redelivered events are harmless, and the rest are written as JDBC batches.
+     * Throws {@link DuplicateKeyException} when a concurrent writer inserted one of the rows after
+     * the existence check; callers then fall back to {@link #ingestEach}.
+     *
+     * @return number of rows inserted
+     */
+    @Transactional
+    public int ingestBatch(List<EventPublisher.AttendanceData> events) {
+        List<QueuedRow> rows = prepareQueued(events);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_ATTENDANCE_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            for (int i = 0; i < row.params().length; i++) {
+                ps.setObject(i + 1, row.params()[i]);
+            }
+        });
+        List<AttendanceView> inserted = rows.stream().map(QueuedRow::view).toList();
+        recordIngested(inserted);
+        return inserted.size();
+    }
+
+    /**
+     * Slow path for a batch that raced another writer, or a redelivered batch: one INSERT per row,
+     * rows rejected by the unique key are skipped and neither counted nor published.
+     *
+     * @return number of rows inserted
+     */
+    @Transactional
+    public int ingestEach(List<EventPublisher.AttendanceData> events) {
+        List<AttendanceView> inserted = new ArrayList<>();
+        for (QueuedRow row : prepareQueued(events)) {
+            if (insertIfAbsent(row.params(), new GeneratedKeyHolder()) > 0) {
+                inserted.add(row.view());
+            }
+        }
+        recordIngested(inserted);
+        return inserted.size();
+    }
+
+    @Transactional
+    public Optional<Attendance> updateAttendance(Long id, Attendance attendanceDetails, String markedBy) {
+        Optional<Attendance> optionalAttendance = attendanceRepository.findById(id);
+        if (optionalAttendance.isEmpty()) {
+            return Optional.empty();
+        }
+        Attendance attendance = optionalAttendance.get();
+        AttendanceStatus previousStatus = attendance.getStatus();
+        attendance.setStatus(attendanceDetails.getStatus());
+        attendance.setRemarks(attendanceDetails.getRemarks());
+        attendance.setMarkedBy(markedBy);
+        attendance.setMarkedAt(LocalDateTime.now());
+
+        Attendance updatedAttendance = attendanceRepository.save(attendance);
+        Long studentId = idOf(attendance.getStudent());
+        Long courseId = idOf(attendance.getCourse());
+        attendanceCounterService.recordStatusChange(studentId, courseId, previousStatus, updatedAttendance.getStatus());
+        AttendanceView view = new AttendanceView(updatedAttendance.getId(), studentId, courseId,
+                updatedAttendance.getDate(), updatedAttendance.getStatus(), updatedAttendance.getMarkedBy());
+        afterCommit(() -> {
+            applyCommitted(view, previousStatus);
+            attendanceCacheService.evict(studentId, courseId, view.getDate());
+            todayAttendanceView.record(view);
+        });
+        return Optional.of(updatedAttendance);
+    }
+
+    @Transactional
+    public boolean deleteAttendance(Long id) {
+        Optional<Attendance> optionalAttendance = attendanceRepository.findById(id);
+        if (optionalAttendance.isEmpty()) {
+            return false;
+        }
+        Attendance attendance = optionalAttendance.get();
+        Long studentId = idOf(attendance.getStudent());
+        Long courseId = idOf(attendance.getCourse());
+        attendanceRepository.delete(attendance);
+        attendanceCounterService.recordDeleted(studentId, courseId, attendance.getStatus());
+        afterCommit(() -> {
+            applyCommitted(new AttendanceView(attendance.getId(), studentId, courseId, attendance.getDate(), null,
+                    attendance.getMarkedBy()), attendance.getStatus());
+            attendanceCacheService.evict(studentId, courseId, attendance.getDate());
+            todayAttendanceView.remove(attendance.getId(), courseId, attendance.getDate());
+        });
+        return true;
+    }
+
+    /**
+     * Marks a whole roster for one course and date: students are resolved in one query,
+     * existing rows are detected in one query and the rest are written as JDBC batches.
+     */
+    @Transactional
+    public AttendanceSessionResult markSession(Long courseId, AttendanceSessionDto sessionDto, String markedBy) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new CustomException("Unable to identify course of this Id");
+        }
+
+        LocalDate date = sessionDto.getDate() != null ? sessionDto.getDate() : LocalDate.now();
+        AttendanceSessionResult result = new AttendanceSessionResult();
+        result.setCourseId(courseId);
+        result.setDate(date);
+
+        // last entry wins when the same student appears twice in one payload
+        Map<String, AttendanceSessionDto.Entry> entries = new LinkedHashMap<>();
+        for (AttendanceSessionDto.Entry entry : sessionDto.getEntries()) {
+            entries.put(entry.getStudentId(), entry);
+        }
+
+        Map<String, Long> studentIds = new HashMap<>();
+        for (Object[] row : studentRepository.findIdsByStudentIdIn(entries.keySet())) {
+            studentIds.put((String) row[0], (Long) row[1]);
+        }
+
+        Set<Long> alreadyMarked = studentIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(attendanceRepository.findMarkedStudentIds(courseId, date, studentIds.values()));
+
+        List<Object[]> rows = new ArrayList<>();
+        Map<Long, AttendanceStatus> insertedStatuses = new HashMap<>();
+        Timestamp markedAt = Timestamp.valueOf(LocalDateTime.now());
+        for (AttendanceSessionDto.Entry entry : entries.values()) {
+            Long studentId = studentIds.get(entry.getStudentId());
+            if (studentId == null) {
+                result.getUnknownStudents().add(entry.getStudentId());
+            } else if (alreadyMarked.contains(studentId)) {
+                result.getConflicted().add(entry.getStudentId());
+            } else {
+                AttendanceStatus status = entry.getStatus() != null ? entry.getStatus() : AttendanceStatus.PRESENT;
+                rows.add(new Object[]{studentId, courseId, Date.valueOf(date), status.name(),
+                        entry.getRemarks(), markedAt, markedBy});
+                insertedStatuses.put(studentId, status);
+                result.getInserted().add(entry.getStudentId());
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_ATTENDANCE_SQL, rows, BATCH_SIZE, (ps, row) -> {
+                    for (int i = 0; i < row.length; i++) {
+                        ps.setObject(i + 1, row[i]);
+                    }
+                });
+            } catch (DuplicateKeyException e) {
+                // another request marked part of this roster between our check and the insert
+                logger.warn("Concurrent attendance session for course {} on {}: {}", courseId, date, e.getMessage());
+                throw new CustomException("attendance for this session was marked concurrently, please retry");
+            }
+            attendanceCounterService.recordMarked(courseId, insertedStatuses);
+            List<AttendanceView> todayRows = todayAttendanceView.isToday(date)
+                    ? attendanceRepository.findViewsByCourseAndDateRange(courseId, date, date)
+                    : List.of();
+            Map<Long, AttendanceView> todayByStudent = new HashMap<>();
+            todayRows.forEach(view -> todayByStudent.put(view.getStudentId(), view));
+            afterCommit(() -> {
+                todayAttendanceView.recordNew(date, todayRows);
+                insertedStatuses.forEach((studentId, status) -> applyCommitted(todayByStudent.getOrDefault(studentId,
+                        new AttendanceView(null, studentId, courseId, date, status, markedBy)), null));
+                attendanceCacheService.evict(insertedStatuses.keySet(), courseId, date);
+            });
+        }
+
+        logger.debug("Attendance session for course {} on {}: {} inserted, {} conflicted, {} unknown",
+                courseId, date, result.getInserted().size(), result.getConflicted().size(), result.getUnknownStudents().size());
+        return result;
+    }
+
+    /**
+     * Inserts one row and lets the (student_id, course_id, date) unique key reject a duplicate.
+     * A plain INSERT is used on purpose: with Connector/J's default CLIENT_FOUND_ROWS an
+     * "ON DUPLICATE KEY UPDATE id = id" no-op still reports 1 row, so it cannot tell a
+     * duplicate from an insert. On MySQL and H2 the failed statement does not abort the
+     * surrounding transaction.
+     *
+     * @return 1 when the row was inserted, 0 when (student_id, course_id, date) already existed
+     */
+    private int insertIfAbsent(Object[] row, KeyHolder keyHolder) {
+        try {
+            return jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(INSERT_ATTENDANCE_SQL, new String[]{"id"});
+                for (int i = 0; i < row.length; i++) {
+                    ps.setObject(i + 1, row[i]);
+                }
+                return ps;
+            }, keyHolder);
+        } catch (DuplicateKeyException e) {
+            return 0;
+        }
+    }
+
+    private List<QueuedRow> prepareQueued(List<EventPublisher.AttendanceData> events) {
+        Map<String, QueuedRow> coalesced = new LinkedHashMap<>();
+        Map<String, String> codes = new HashMap<>();
+        for (EventPublisher.AttendanceData event : events) {
+            LocalDate date;
+            AttendanceStatus status;
+            try {
+                date = LocalDate.parse(event.getDate());
+                status = event.getStatus() != null ? AttendanceStatus.valueOf(event.getStatus()) : AttendanceStatus.PRESENT;
+            } catch (RuntimeException e) {
+                logger.warn("Dropping malformed queued attendance for student {}: {}", event.getStudentId(), e.getMessage());
+                continue;
+            }
+            if (event.getStudentId() == null || event.getCourseId() == null) {
+                continue;
+            }
+            String key = event.getStudentId() + "|" + event.getCourseId() + "|" + date;
+            if (!coalesced.containsKey(key)) {
+                // student id is resolved below, the view only carries it once known
+                AttendanceView view = new AttendanceView(null, null, event.getCourseId(), date, status, event.getMarkedBy());
+                coalesced.put(key, new QueuedRow(view, new Object[]{null, event.getCourseId(), Date.valueOf(date), status.name(),
+                        event.getRemarks(), new Timestamp(event.getMarkedAt()), event.getMarkedBy()}));
+                codes.put(key, event.getStudentId());
+            }
+        }
+        if (coalesced.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Long> studentIds = new HashMap<>();
+        for (Object[] row : studentRepository.findIdsByStudentIdIn(new HashSet<>(codes.values()))) {
+            studentIds.put((String) row[0], (Long) row[1]);
+        }
+        Set<Long> courseIds = new HashSet<>(courseRepository.findExistingIds(
+                coalesced.values().stream().map(row -> row.view().getCourseId()).collect(Collectors.toSet())));
+
+        Map<String, List<QueuedRow>> byCourseAndDate = new LinkedHashMap<>();
+        for (Map.Entry<String, QueuedRow> entry : coalesced.entrySet()) {
+            QueuedRow row = entry.getValue();
+            Long studentId = studentIds.get(codes.get(entry.getKey()));
+            if (studentId == null || !courseIds.contains(row.view().getCourseId())) {
+                logger.warn("Dropping queued attendance for unknown student {} or course {}",
+                        codes.get(entry.getKey()), row.view().getCourseId());
+                continue;
+            }
+            row.view().setStudentId(studentId);
+            row.params()[0] = studentId;
+            byCourseAndDate.computeIfAbsent(row.view().getCourseId() + "|" + row.view().getDate(), k -> new ArrayList<>()).add(row);
+        }
+
+        // redelivered or already marked rows are skipped, one existence query per (course, date)
+        List<QueuedRow> pending = new ArrayList<>();
+        for (List<QueuedRow> group : byCourseAndDate.values()) {
+            AttendanceView first = group.get(0).view();
+            Set<Long> alreadyMarked = new HashSet<>(attendanceRepository.findMarkedStudentIds(first.getCourseId(), first.getDate(),
+                    group.stream().map(row -> row.view().getStudentId()).toList()));
+            for (QueuedRow row : group) {
+                if (!alreadyMarked.contains(row.view().getStudentId())) {
+                    pending.add(row);
+                }
+            }
+        }
+        return pending;
+    }
+
+    private void recordIngested(List<AttendanceView> inserted) {
+        attendanceCounterService.recordMarked(inserted);
+        // batch inserts carry no generated ids, so today's rows are read back once per course
+        LocalDate today = null;
+        Set<Long> todayCourses = new LinkedHashSet<>();
+        for (AttendanceView view : inserted) {
+            if (todayAttendanceView.isToday(view.getDate())) {
+                today = view.getDate();
+                todayCourses.add(view.getCourseId());
+            }
+        }
+        List<AttendanceView> todayRows = new ArrayList<>();
+        for (Long courseId : todayCourses) {
+            todayRows.addAll(attendanceRepository.findViewsByCourseAndDateRange(courseId, today, today));
+        }
+        LocalDate todayDate = today;
+        Map<String, Long> todayIds = new HashMap<>();
+        todayRows.forEach(row -> todayIds.put(row.getStudentId() + "|" + row.getCourseId(), row.getId()));
+        afterCommit(() -> {
+            if (todayDate != null) {
+                todayAttendanceView.recordNew(todayDate, todayRows);
+            }
+            Map<String, List<AttendanceView>> byCourseAndDate = new LinkedHashMap<>();
+            for (AttendanceView view : inserted) {
+                if (view.getDate().equals(todayDate)) {
+                    view.setId(todayIds.get(view.getStudentId() + "|" + view.getCourseId()));
+                }
+                applyCommitted(view, null);
+                byCourseAndDate.computeIfAbsent(view.getCourseId() + "|" + view.getDate(), k -> new ArrayList<>()).add(view);
+            }
+            byCourseAndDate.values().forEach(group -> attendanceCacheService.evict(
+                    group.stream().map(AttendanceView::getStudentId).toList(), group.get(0).getCourseId(), group.get(0).getDate()));
+        });
+    }
+
+    // feeds a committed status transition to the bitmap index and to attendance-events consumers;
+    // the view carries the new status, null when the row was deleted
+    private void applyCommitted(AttendanceView view, AttendanceStatus from) {
+        AttendanceStatus to = view.getStatus();
+        attendanceBitmapIndex.record(view.getStudentId(), view.getCourseId(), view.getDate(), to);
+        if (view.getStudentId() != null && view.getCourseId() != null && view.getDate() != null) {
+            eventPublisher.publishAttendanceChange(new EventPublisher.AttendanceChangeData(view.getId(), view.getStudentId(),
+                    view.getCourseId(), view.getDate().toString(), from != null ? from.name() : null,
+                    to != null ? to.name() : null, view.getMarkedBy()));
+        }
+    }
+
+    // in-memory read models must only see committed rows
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record QueuedRow(AttendanceView view, Object[] params) {}
+
+    private static Long idOf(Student student) {
+        return student != null ? student.getId() : null;
+    }
+
+    private static Long idOf(Course course) {
+        return course != null ? course.getId() : null;
+    }
+}
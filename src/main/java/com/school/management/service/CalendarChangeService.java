@@ -0,0 +1,75 @@
+package com.school.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Applies academic calendar edits on every instance. Ordinals shift when school days change,
+ * so the calendar is reloaded and ordinal keyed attendance state follows it. The instance that
+ * saved the edit applies it at once and announces it on the calendar-events topic, which every
+ * instance reads in its own consumer group.
+ */
+@Service
+public class CalendarChangeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarChangeService.class);
+
+    // tells this instance's own announcements apart, it has already applied them
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Autowired
+    private AcademicCalendar academicCalendar;
+
+    @Autowired
+    private ChronicAbsenceDetector chronicAbsenceDetector;
+
+    @Autowired
+    private AttendanceBitmapIndex attendanceBitmapIndex;
+
+    @Autowired
+    private EventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Applies a saved term or holiday edit here and asks every other instance to apply it.
+     */
+    public void calendarChanged() {
+        apply();
+        eventPublisher.publishCalendarChange(new EventPublisher.CalendarChangeData(instanceId));
+    }
+
+    // a fresh group per instance starting at the latest offset: the startup load covers what came before
+    @KafkaListener(topics = EventPublisher.CALENDAR_EVENTS_TOPIC,
+            groupId = "calendar-#{T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void consume(ConsumerRecord<String, Object> record, Acknowledgment acknowledgment) {
+        Object value = record.value();
+        Object data = value instanceof EventPublisher.SchoolEvent<?> event ? event.getData() : value;
+        try {
+            EventPublisher.CalendarChangeData change = data == null ? null
+                    : objectMapper.convertValue(data, EventPublisher.CalendarChangeData.class);
+            if (change == null || !instanceId.equals(change.getOrigin())) {
+                apply();
+            }
+        } catch (Exception e) {
+            logger.error("Unable to apply calendar change at offset {}: {}", record.offset(), e.getMessage(), e);
+        }
+        acknowledgment.acknowledge();
+    }
+
+    private void apply() {
+        academicCalendar.refresh();
+        chronicAbsenceDetector.recalendar();
+        attendanceBitmapIndex.rebuildInBackground();
+    }
+}
@@ -0,0 +1,172 @@
+package com.school.management.service;
+
+import com.school.management.entity.AcademicTerm;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Immutable, precomputed school calendar. Every calendar day from a fixed Monday epoch up
+ * to a horizon gets a prefix count of school days, so ordinals, ranges and lookups are
+ * array reads instead of {@code LocalDate} iteration.
+ * A school day is a weekday that is not a holiday and, between the first term start and
+ * the last term end, falls inside a term; outside that span only weekends and holidays
+ * are excluded, so attendance from before the calendar was configured stays indexable.
+ */
+public final class CalendarSnapshot {
+
+    static final LocalDate EPOCH = LocalDate.of(1970, 1, 5); // a Monday
+
+    private final LocalDate horizon; // exclusive
+
+    // schoolDaysBefore[i] = number of school days in [EPOCH, EPOCH + i days)
+    private final int[] schoolDaysBefore;
+
+    // day index (days since EPOCH) of every school day, by ordinal
+    private final int[] dayByOrdinal;
+
+    private final Map<String, Term> termsByKey;
+
+    private final List<Term> terms;
+
+    public record Term(Long id, String semester, String academicYear, LocalDate startDate, LocalDate endDate) {}
+
+    CalendarSnapshot(List<AcademicTerm> academicTerms, Collection<LocalDate> holidays, LocalDate horizon) {
+        List<Term> sorted = new ArrayList<>();
+        for (AcademicTerm term : academicTerms) {
+            sorted.add(new Term(term.getId(), term.getSemester(), term.getAcademicYear(), term.getStartDate(), term.getEndDate()));
+        }
+        sorted.sort(Comparator.comparing(Term::startDate));
+        LocalDate lastEnd = sorted.stream().map(Term::endDate).max(Comparator.naturalOrder()).orElse(null);
+        this.horizon = lastEnd != null && !lastEnd.isBefore(horizon) ? lastEnd.plusDays(1) : horizon;
+        this.terms = List.copyOf(sorted);
+
+        Map<String, Term> byKey = new HashMap<>();
+        for (Term term : sorted) {
+            byKey.put(key(term.semester(), term.academicYear()), term);
+        }
+        this.termsByKey = Map.copyOf(byKey);
+
+        int days = (int) ChronoUnit.DAYS.between(EPOCH, this.horizon);
+        boolean[] closed = new boolean[days];
+        if (!sorted.isEmpty()) {
+            // between the first and last term everything outside a term is a break
+            int first = index(sorted.get(0).startDate());
+            int last = index(lastEnd);
+            for (int i = Math.max(first, 0); i <= last && i < days; i++) {
+                closed[i] = true;
+            }
+            for (Term term : sorted) {
+                for (int i = Math.max(index(term.startDate()), 0); i <= index(term.endDate()) && i < days; i++) {
+                    closed[i] = false;
+                }
+            }
+        }
+        for (LocalDate holiday : holidays) {
+            int i = index(holiday);
+            if (i >= 0 && i < days) {
+                closed[i] = true;
+            }
+        }
+
+        schoolDaysBefore = new int[days + 1];
+        int[] ordinals = new int[days];
+        int count = 0;
+        for (int i = 0; i < days; i++) {
+            schoolDaysBefore[i] = count;
+            if (i % 7 < 5 && !closed[i]) {
+                ordinals[count++] = i;
+            }
+        }
+        schoolDaysBefore[days] = count;
+        dayByOrdinal = Arrays.copyOf(ordinals, count);
+    }
+
+    public boolean isSchoolDay(LocalDate date) {
+        int i = index(date);
+        return i >= 0 && i < days() && schoolDaysBefore[i + 1] > schoolDaysBefore[i];
+    }
+
+    /**
+     * @return the dense ordinal of a school day, or -1 when the date is not a school day
+     */
+    public int ordinalOf(LocalDate date) {
+        return isSchoolDay(date) ? schoolDaysBefore[index(date)] : -1;
+    }
+
+    public LocalDate dateOf(int ordinal) {
+        return EPOCH.plusDays(dayByOrdinal[ordinal]);
+    }
+
+    /**
+     * Ordinal of the first school day on or after the date; past the horizon this is one beyond the last ordinal.
+     */
+    public int ceilingOrdinal(LocalDate date) {
+        return schoolDaysBefore[clamp(index(date))];
+    }
+
+    /**
+     * Ordinal of the last school day on or before the date, -1 if there is none.
+     */
+    public int floorOrdinal(LocalDate date) {
+        return schoolDaysBefore[clamp(index(date) + 1)] - 1;
+    }
+
+    /**
+     * Number of school days in [startDate, endDate].
+     */
+    public int schoolDaysBetween(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return 0;
+        }
+        return schoolDaysBefore[clamp(index(endDate) + 1)] - schoolDaysBefore[clamp(index(startDate))];
+    }
+
+    /**
+     * The school day that lies the given number of school days after (or before, when negative) the date.
+     */
+    public Optional<LocalDate> plusSchoolDays(LocalDate date, int schoolDays) {
+        int base = schoolDays >= 0 ? floorOrdinal(date) : ceilingOrdinal(date);
+        int target = base + schoolDays;
+        return target < 0 || target >= dayByOrdinal.length ? Optional.empty() : Optional.of(dateOf(target));
+    }
+
+    public Optional<Term> term(String semester, String academicYear) {
+        return Optional.ofNullable(termsByKey.get(key(semester, academicYear)));
+    }
+
+    public Optional<Term> termOf(LocalDate date) {
+        for (Term term : terms) {
+            if (!date.isBefore(term.startDate()) && !date.isAfter(term.endDate())) {
+                return Optional.of(term);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<Term> terms() {
+        return terms;
+    }
+
+    public LocalDate horizon() {
+        return horizon;
+    }
+
+    private int days() {
+        return schoolDaysBefore.length - 1;
+    }
+
+    private int clamp(long index) {
+        return (int) Math.max(0, Math.min(index, days()));
+    }
+
+    private static int index(LocalDate date) {
+        long days = ChronoUnit.DAYS.between(EPOCH, date);
+        return (int) Math.max(Integer.MIN_VALUE / 2, Math.min(days, Integer.MAX_VALUE / 2));
+    }
+
+    private static String key(String semester, String academicYear) {
+        return semester + "|" + academicYear;
+    }
+}
@@ -0,0 +1,355 @@
+package com.school.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.management.constant.Constant.AttendanceStatus;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Flags chronic absence incrementally from the attendance-events topic. Each (student, course)
+ * keeps the last 64 school days as two bit masks (recorded, absent) anchored at the newest
+ * school day seen, so every event is O(1) and replaying an event is harmless. State is
+ * checkpointed to a Redis hash by {@link ScheduledTaskService}. Instances share one consumer
+ * group, so states are held per partition: a revoked partition's states are checkpointed and
+ * dropped, and an assigned partition's states are reloaded from the latest checkpoint.
+ * Bit positions are school-day ordinals of the {@link CalendarSnapshot} the state was built
+ * with, so {@link #recalendar()} remaps every state by date when the calendar changes, and
+ * checkpoints anchor the newest day by its date rather than its ordinal.
+ */
+@Service
+public class ChronicAbsenceDetector implements ConsumerSeekAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChronicAbsenceDetector.class);
+
+    private static final String CHECKPOINT_KEY = "attendance-absence-state:v2";
+
+    private static final int ALERT_CONSECUTIVE = 1;
+    private static final int ALERT_RATE = 2;
+
+    @Value("${app.attendance.absence.consecutive-days:3}")
+    private int consecutiveDays;
+
+    @Value("${app.attendance.absence.window-days:20}")
+    private int windowDays;
+
+    @Value("${app.attendance.absence.min-days:10}")
+    private int minDays;
+
+    @Value("${app.attendance.absence.min-attendance-percent:75}")
+    private double minAttendancePercent;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private AcademicCalendar academicCalendar;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    // events and checkpoints hold the read lock, a calendar change holds the write lock while remapping
+    private final ReadWriteLock calendarLock = new ReentrantReadWriteLock();
+
+    private volatile CalendarSnapshot calendar;
+
+    /**
+     * Loads the checkpointed states of newly assigned partitions before any of their records are
+     * delivered, replacing whatever this instance held for them from an earlier assignment.
+     */
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        Set<Integer> assigned = partitions(assignments.keySet());
+        calendarLock.readLock().lock();
+        try {
+            CalendarSnapshot current = calendar();
+            Map<Object, Object> saved = stringRedisTemplate.opsForHash().entries(CHECKPOINT_KEY);
+            int loaded = 0;
+            for (Map.Entry<Object, Object> entry : saved.entrySet()) {
+                State state = State.parse((String) entry.getValue(), current);
+                // checkpoints written before partitions were recorded are taken by whoever sees them first
+                if (assigned.contains(state.partition) || state.partition < 0 && !states.containsKey((String) entry.getKey())) {
+                    states.put((String) entry.getKey(), state);
+                    loaded++;
+                }
+            }
+            logger.info("Restored chronic absence state for {} student courses of partitions {}", loaded, assigned);
+        } catch (Exception e) {
+            logger.error("Unable to restore chronic absence state for partitions {}: {}", assigned, e.getMessage(), e);
+        } finally {
+            calendarLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checkpoints before the partitions move, so the next owner resumes from every event acknowledged here.
+     */
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        Set<Integer> revoked = partitions(partitions);
+        checkpoint();
+        states.entrySet().removeIf(entry -> {
+            if (revoked.contains(entry.getValue().partition)) {
+                dirty.remove(entry.getKey());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @KafkaListener(topics = EventPublisher.ATTENDANCE_EVENTS_TOPIC, groupId = "chronic-absence-group")
+    public void consume(ConsumerRecord<String, Object> record, Acknowledgment acknowledgment) {
+        Object value = record.value();
+        Object data = value instanceof EventPublisher.SchoolEvent<?> event ? event.getData() : value;
+        try {
+            if (data != null) {
+                onChange(objectMapper.convertValue(data, EventPublisher.AttendanceChangeData.class), record.partition());
+            }
+        } catch (IllegalArgumentException e) {
+            logger.warn("Skipping unreadable attendance event at offset {}: {}", record.offset(), e.getMessage());
+        }
+        acknowledgment.acknowledge();
+    }
+
+    private void onChange(EventPublisher.AttendanceChangeData change, int partition) {
+        if (change.getStudentId() == null || change.getCourseId() == null || change.getDate() == null) {
+            return;
+        }
+        String key = change.getStudentId() + ":" + change.getCourseId();
+        int trips;
+        calendarLock.readLock().lock();
+        try {
+            int ordinal = calendar().ordinalOf(LocalDate.parse(change.getDate()));
+            if (ordinal < 0) {
+                return;
+            }
+            State state = states.computeIfAbsent(key, k -> new State());
+            synchronized (state) {
+                state.partition = partition;
+                if (!state.apply(ordinal, change.getStatus() != null ? AttendanceStatus.valueOf(change.getStatus()) : null)) {
+                    return;
+                }
+                trips = evaluate(state);
+            }
+        } finally {
+            calendarLock.readLock().unlock();
+        }
+        dirty.add(key);
+        if ((trips & ALERT_CONSECUTIVE) != 0) {
+            notificationService.sendAbsenceAlert(change.getStudentId(), change.getCourseId(),
+                    String.format("absent for %d consecutive school days", consecutiveDays));
+        }
+        if ((trips & ALERT_RATE) != 0) {
+            notificationService.sendAbsenceAlert(change.getStudentId(), change.getCourseId(),
+                    String.format("attendance below %.0f%% over the last %d school days", minAttendancePercent, windowDays));
+        }
+    }
+
+    /**
+     * Moves every state onto the current {@link AcademicCalendar} snapshot after a calendar edit.
+     * Each recorded day keeps its date; days that stopped being school days are dropped and
+     * alerts are left as they were until the next event re-evaluates them.
+     */
+    public void recalendar() {
+        CalendarSnapshot next = academicCalendar.snapshot();
+        calendarLock.writeLock().lock();
+        try {
+            CalendarSnapshot previous = calendar();
+            if (previous == next) {
+                return;
+            }
+            states.forEach((key, state) -> {
+                state.remap(previous, next);
+                dirty.add(key);
+            });
+            calendar = next;
+        } finally {
+            calendarLock.writeLock().unlock();
+        }
+        logger.info("Remapped chronic absence state for {} student courses onto the new calendar", states.size());
+    }
+
+    private static Set<Integer> partitions(Collection<TopicPartition> topicPartitions) {
+        Set<Integer> partitions = new HashSet<>();
+        topicPartitions.forEach(topicPartition -> partitions.add(topicPartition.partition()));
+        return partitions;
+    }
+
+    private CalendarSnapshot calendar() {
+        CalendarSnapshot current = calendar;
+        if (current == null) {
+            synchronized (this) {
+                if (calendar == null) {
+                    calendar = academicCalendar.snapshot();
+                }
+                current = calendar;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Re-evaluates both thresholds and returns the alerts that newly tripped. An alert fires
+     * once and re-arms when its condition clears.
+     */
+    private int evaluate(State state) {
+        int tripped = 0;
+        if (state.consecutiveAbsences() >= consecutiveDays) {
+            tripped |= ALERT_CONSECUTIVE;
+        }
+        long window = windowDays >= 64 ? -1L : (1L << windowDays) - 1;
+        int recorded = Long.bitCount(state.recorded & window);
+        int attended = recorded - Long.bitCount(state.absent & window);
+        if (recorded >= minDays && attended * 100.0 / recorded < minAttendancePercent) {
+            tripped |= ALERT_RATE;
+        }
+        int newlyTripped = tripped & ~state.alerted;
+        state.alerted = tripped;
+        return newlyTripped;
+    }
+
+    /**
+     * Writes states changed since the last checkpoint to the Redis hash in one call.
+     */
+    public void checkpoint() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        Map<String, String> batch = new HashMap<>();
+        calendarLock.readLock().lock();
+        try {
+            CalendarSnapshot current = calendar();
+            for (String key : dirty.toArray(new String[0])) {
+                dirty.remove(key);
+                State state = states.get(key);
+                if (state != null) {
+                    synchronized (state) {
+                        batch.put(key, state.format(current));
+                    }
+                }
+            }
+        } finally {
+            calendarLock.readLock().unlock();
+        }
+        try {
+            stringRedisTemplate.opsForHash().putAll(CHECKPOINT_KEY, batch);
+            logger.debug("Checkpointed chronic absence state for {} student courses", batch.size());
+        } catch (Exception e) {
+            dirty.addAll(batch.keySet());
+            logger.error("Unable to checkpoint chronic absence state: {}", e.getMessage(), e);
+        }
+    }
+
+    private static final class State {
+        // newest school-day ordinal seen; bit i of the masks is the day head - i
+        private int head = -1;
+        private long recorded;
+        private long absent;
+        private int alerted;
+        // attendance-events partition the student's events arrive on, -1 when not known yet
+        private int partition = -1;
+
+        /**
+         * @return false when the day is older than the 64 day window and was ignored
+         */
+        private boolean apply(int ordinal, AttendanceStatus status) {
+            if (ordinal > head) {
+                int shift = head < 0 ? 64 : ordinal - head;
+                recorded = shift >= 64 ? 0 : recorded << shift;
+                absent = shift >= 64 ? 0 : absent << shift;
+                head = ordinal;
+            }
+            int bit = head - ordinal;
+            if (bit >= 64) {
+                return false;
+            }
+            long mask = 1L << bit;
+            recorded = status != null ? recorded | mask : recorded & ~mask;
+            absent = status == AttendanceStatus.ABSENT ? absent | mask : absent & ~mask;
+            return true;
+        }
+
+        // consecutive absent school days ending at the newest recorded day
+        private int consecutiveAbsences() {
+            if (recorded == 0) {
+                return 0;
+            }
+            int newest = Long.numberOfTrailingZeros(recorded);
+            return Long.numberOfTrailingZeros(~(absent >>> newest));
+        }
+
+        /**
+         * Re-anchors the masks on the next calendar, keeping each recorded day on its date.
+         */
+        private void remap(CalendarSnapshot previous, CalendarSnapshot next) {
+            if (head < 0) {
+                return;
+            }
+            int oldHead = head;
+            long oldRecorded = recorded;
+            long oldAbsent = absent;
+            head = next.floorOrdinal(previous.dateOf(oldHead));
+            recorded = 0;
+            absent = 0;
+            for (long bits = oldRecorded; bits != 0; bits &= bits - 1) {
+                int i = Long.numberOfTrailingZeros(bits);
+                int ordinal = next.ordinalOf(previous.dateOf(oldHead - i));
+                if (ordinal < 0 || ordinal > head || head - ordinal >= 64) {
+                    continue;
+                }
+                long mask = 1L << (head - ordinal);
+                recorded |= mask;
+                if ((oldAbsent & (1L << i)) != 0) {
+                    absent |= mask;
+                }
+            }
+        }
+
+        // the newest day is stored as an epoch day so a checkpoint outlives ordinal renumbering
+        private String format(CalendarSnapshot calendar) {
+            long headDay = head < 0 ? -1 : calendar.dateOf(head).toEpochDay();
+            return headDay + "," + recorded + "," + absent + "," + alerted + "," + partition;
+        }
+
+        private static State parse(String value, CalendarSnapshot calendar) {
+            String[] parts = value.split(",");
+            State state = new State();
+            long headDay = Long.parseLong(parts[0]);
+            state.head = headDay < 0 ? -1 : calendar.floorOrdinal(LocalDate.ofEpochDay(headDay));
+            state.recorded = Long.parseLong(parts[1]);
+            state.absent = Long.parseLong(parts[2]);
+            state.alerted = Integer.parseInt(parts[3]);
+            state.partition = parts.length > 4 ? Integer.parseInt(parts[4]) : -1;
+            if (state.head < 0) {
+                state.recorded = 0;
+                state.absent = 0;
+            }
+            return state;
+        }
+    }
+}
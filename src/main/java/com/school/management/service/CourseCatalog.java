@@ -0,0 +1,165 @@
+package com.school.management.service;
+
+import com.school.management.dto.CourseView;
+import com.school.management.repository.CourseRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Read model of the whole course catalog: an immutable snapshot indexed by id, code,
+ * semester/year and teacher, rebuilt on startup and swapped atomically after every
+ * course write. Catalog reads never touch MySQL or Redis. Writes are announced on the
+ * course-events topic so every instance reloads, with a periodic reload from
+ * {@link ScheduledTaskService} as a backstop for missed events.
+ */
+@Service
+public class CourseCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseCatalog.class);
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EventPublisher eventPublisher;
+
+    private volatile Snapshot snapshot = Snapshot.of(List.of());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            logger.error("Unable to build course catalog: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reloads the catalog with one projection query; serialized so the last writer's view wins.
+     */
+    public synchronized void refresh() {
+        long start = System.currentTimeMillis();
+        Snapshot rebuilt = Snapshot.of(courseRepository.findAllViews());
+        snapshot = rebuilt;
+        logger.info("Course catalog rebuilt in {} ms: {} courses, {} active",
+                System.currentTimeMillis() - start, rebuilt.all.size(), rebuilt.active.size());
+    }
+
+    /**
+     * Reloads this instance's catalog after a course write and asks every other instance to reload theirs.
+     */
+    public void courseChanged(Long courseId) {
+        refresh();
+        eventPublisher.publishCourseChange(new EventPublisher.CourseChangeData(courseId));
+    }
+
+    // a fresh group per instance starting at the latest offset: the startup build covers what came before
+    @KafkaListener(topics = EventPublisher.COURSE_EVENTS_TOPIC,
+            groupId = "course-catalog-#{T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void consume(ConsumerRecord<String, Object> record, Acknowledgment acknowledgment) {
+        try {
+            refresh();
+        } catch (Exception e) {
+            logger.error("Unable to reload course catalog after change of course {}: {}", record.key(), e.getMessage(), e);
+        }
+        acknowledgment.acknowledge();
+    }
+
+    /**
+     * All courses in id order.
+     */
+    public List<CourseView> findAll() {
+        return snapshot.all;
+    }
+
+    public List<CourseView> findActive() {
+        return snapshot.active;
+    }
+
+    public Optional<CourseView> findById(Long id) {
+        return Optional.ofNullable(snapshot.byId.get(id));
+    }
+
+    public Optional<CourseView> findByCode(String courseCode) {
+        return Optional.ofNullable(snapshot.byCode.get(courseCode));
+    }
+
+    /**
+     * Active courses of one semester and academic year.
+     */
+    public List<CourseView> findActiveBySemesterAndYear(String semester, String academicYear) {
+        return snapshot.activeBySemesterYear.getOrDefault(semester + "|" + academicYear, List.of());
+    }
+
+    public List<CourseView> findActiveByTeacher(Long teacherId) {
+        return snapshot.activeByTeacher.getOrDefault(teacherId, List.of());
+    }
+
+    public List<CourseView> findByIds(Collection<Long> ids) {
+        Snapshot current = snapshot;
+        List<CourseView> courses = new ArrayList<>();
+        for (Long id : ids) {
+            CourseView course = current.byId.get(id);
+            if (course != null) {
+                courses.add(course);
+            }
+        }
+        return courses;
+    }
+
+    private static final class Snapshot {
+        private final List<CourseView> all;
+        private final List<CourseView> active;
+        private final Map<Long, CourseView> byId;
+        private final Map<String, CourseView> byCode;
+        private final Map<String, List<CourseView>> activeBySemesterYear;
+        private final Map<Long, List<CourseView>> activeByTeacher;
+
+        private Snapshot(List<CourseView> all, List<CourseView> active, Map<Long, CourseView> byId, Map<String, CourseView> byCode,
+                         Map<String, List<CourseView>> activeBySemesterYear, Map<Long, List<CourseView>> activeByTeacher) {
+            this.all = all;
+            this.active = active;
+            this.byId = byId;
+            this.byCode = byCode;
+            this.activeBySemesterYear = activeBySemesterYear;
+            this.activeByTeacher = activeByTeacher;
+        }
+
+        private static Snapshot of(List<CourseView> courses) {
+            List<CourseView> all = new ArrayList<>(courses);
+            all.sort(Comparator.comparing(CourseView::getId));
+            List<CourseView> active = new ArrayList<>();
+            Map<Long, CourseView> byId = new HashMap<>();
+            Map<String, CourseView> byCode = new HashMap<>();
+            Map<String, List<CourseView>> bySemesterYear = new HashMap<>();
+            Map<Long, List<CourseView>> byTeacher = new HashMap<>();
+            for (CourseView course : all) {
+                byId.put(course.getId(), course);
+                if (course.getCourseCode() != null) {
+                    byCode.put(course.getCourseCode(), course);
+                }
+                if (Boolean.TRUE.equals(course.getIsActive())) {
+                    active.add(course);
+                    bySemesterYear.computeIfAbsent(course.getSemester() + "|" + course.getAcademicYear(), k -> new ArrayList<>()).add(course);
+                    if (course.getTeacherId() != null) {
+                        byTeacher.computeIfAbsent(course.getTeacherId(), k -> new ArrayList<>()).add(course);
+                    }
+                }
+            }
+            bySemesterYear.replaceAll((k, v) -> List.copyOf(v));
+            byTeacher.replaceAll((k, v) -> List.copyOf(v));
+            return new Snapshot(List.copyOf(all), List.copyOf(active), Map.copyOf(byId), Map.copyOf(byCode),
+                    Map.copyOf(bySemesterYear), Map.copyOf(byTeacher));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.school.management.service;
+
+import com.school.management.dto.CourseView;
+import com.school.management.repository.EnrollmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remaining seats per course as Redis counters, so capacity checks during a registration
+ * rush are one atomic script call instead of a COUNT plus row locks. A counter is seeded
+ * from the ENROLLED count on first use and corrected by {@link #reconcile()}.
+ * Courses without {@code maxStudents} are unlimited and have no counter.
+ */
+@Service
+public class CourseSeatService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseSeatService.class);
+
+    private static final String KEY_PREFIX = "course-seats:";
+
+    // -2 when the counter is not seeded yet, -1 when the course is full, otherwise seats left after the reservation
+    private static final RedisScript<Long> RESERVE = new DefaultRedisScript<>(
+            "local v = redis.call('GET', KEYS[1]) " +
+            "if not v then return -2 end " +
+            "v = tonumber(v) " +
+            "if v <= 0 then return -1 end " +
+            "return redis.call('DECR', KEYS[1])", Long.class);
+
+    // never creates a counter and never exceeds capacity
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "local v = redis.call('GET', KEYS[1]) " +
+            "if not v then return -2 end " +
+            "if tonumber(v) >= tonumber(ARGV[1]) then return tonumber(v) end " +
+            "return redis.call('INCR', KEYS[1])", Long.class);
+
+    // overwrites the counter only if nobody reserved or released since it was read
+    private static final RedisScript<Long> COMPARE_AND_SET = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then redis.call('SET', KEYS[1], ARGV[2]) return 1 end " +
+            "return 0", Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CourseCatalog courseCatalog;
+
+    // counters seen below the enrolled count on the last reconciliation, as "counter->expected"
+    private final Map<Long, String> lowGaps = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            logger.error("Unable to seed course seat counters: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Takes one seat of the course.
+     *
+     * @return false when the course is full
+     */
+    public boolean reserve(Long courseId) {
+        Integer capacity = capacityOf(courseId);
+        if (capacity == null) {
+            return true;
+        }
+        try {
+            Long left = stringRedisTemplate.execute(RESERVE, List.of(key(courseId)));
+            if (left != null && left == -2) {
+                seed(courseId, capacity);
+                left = stringRedisTemplate.execute(RESERVE, List.of(key(courseId)));
+            }
+            return left != null && left >= 0;
+        } catch (DataAccessException e) {
+            // Redis unavailable: fall back to the racy database check rather than closing registration
+            logger.warn("Seat counter unavailable for course {}, checking the database: {}", courseId, e.getMessage());
+            return enrollmentRepository.countActiveEnrollmentsByCourse(courseId) < capacity;
+        }
+    }
+
+    /**
+     * Gives back a seat taken by {@link #reserve(Long)}, for drops and failed enrollments.
+     */
+    public void release(Long courseId) {
+        Integer capacity = capacityOf(courseId);
+        if (capacity == null) {
+            return;
+        }
+        try {
+            stringRedisTemplate.execute(RELEASE, List.of(key(courseId)), String.valueOf(capacity));
+        } catch (DataAccessException e) {
+            logger.warn("Unable to release seat for course {}, reconciliation will correct it: {}", courseId, e.getMessage());
+        }
+    }
+
+    /**
+     * Drops the counter so the next reservation seeds it again, used when a course's capacity changes.
+     */
+    public void reset(Long courseId) {
+        try {
+            stringRedisTemplate.delete(key(courseId));
+        } catch (DataAccessException e) {
+            logger.warn("Unable to reset seat counter for course {}, reconciliation will correct it: {}", courseId, e.getMessage());
+        }
+    }
+
+    /**
+     * Recomputes every active course's counter from the ENROLLED counts. A counter that moved while
+     * its course was being counted is left alone and corrected on the next run. In-flight enrollments
+     * hold a seat before their row commits, so a counter below the count is only raised once the same
+     * gap has been seen on two consecutive runs.
+     *
+     * @return number of counters that were seeded or corrected
+     */
+    public int reconcile() {
+        List<CourseView> courses = courseCatalog.findActive().stream()
+                .filter(course -> course.getMaxStudents() != null)
+                .toList();
+        List<String> keys = courses.stream().map(course -> key(course.getId())).toList();
+        List<String> before = stringRedisTemplate.opsForValue().multiGet(keys);
+        Map<Long, Long> enrolled = new HashMap<>();
+        for (Object[] row : enrollmentRepository.countActiveEnrollmentsGroupedByCourse()) {
+            enrolled.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        int corrected = 0;
+        for (int i = 0; i < courses.size(); i++) {
+            CourseView course = courses.get(i);
+            String seen = before == null ? null : before.get(i);
+            String expected = String.valueOf(Math.max(0, course.getMaxStudents() - enrolled.getOrDefault(course.getId(), 0L)));
+            if (seen == null || seen.equals(expected)) {
+                lowGaps.remove(course.getId());
+            }
+            if (seen == null) {
+                if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(keys.get(i), expected))) {
+                    corrected++;
+                }
+            } else if (!seen.equals(expected)) {
+                String gap = seen + "->" + expected;
+                if (Long.parseLong(seen) < Long.parseLong(expected) && !gap.equals(lowGaps.put(course.getId(), gap))) {
+                    continue;
+                }
+                lowGaps.remove(course.getId());
+                Long swapped = stringRedisTemplate.execute(COMPARE_AND_SET, List.of(keys.get(i)), seen, expected);
+                if (swapped != null && swapped == 1) {
+                    logger.info("Corrected seat counter for course {} from {} to {}", course.getId(), seen, expected);
+                    corrected++;
+                }
+            }
+        }
+        return corrected;
+    }
+
+    private void seed(Long courseId, int capacity) {
+        long enrolled = enrollmentRepository.countActiveEnrollmentsByCourse(courseId);
+        // concurrent seeders race on SETNX, only the first value is kept
+        stringRedisTemplate.opsForValue().setIfAbsent(key(courseId), String.valueOf(Math.max(0, capacity - enrolled)));
+    }
+
+    private Integer capacityOf(Long courseId) {
+        Optional<CourseView> course = courseCatalog.findById(courseId);
+        return course.map(CourseView::getMaxStudents).orElse(null);
+    }
+
+    private static String key(Long courseId) {
+        return KEY_PREFIX + courseId;
+    }
+}
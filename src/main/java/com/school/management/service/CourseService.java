@@ -1,11 +1,9 @@
 package com.school.management.service;
 
 import com.school.management.dto.CourseDto;
-import com.school.management.entity.Course;
-import com.school.management.repository.CourseRepository;
+import com.school.management.dto.CourseView;
 import exception.CustomException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -15,19 +13,17 @@ import java.util.Optional;
 public class CourseService {
 
     @Autowired
-    private CourseRepository courseRepository;
+    private CourseCatalog courseCatalog;
 
-
-
-    @Cacheable(value = "course-by-code", key = "#p0")
     public CourseDto getCourseById(Long id) {
-        Optional<Course> course = courseRepository.findById(id);
+        Optional<CourseView> course = courseCatalog.findById(id);
         if(course.isPresent())
         {
             CourseDto courseDto = new CourseDto();
                courseDto.setCourseName(course.get().getCourseName());
                courseDto.setCourseCode(course.get().getCourseCode());
                courseDto.setDescription(course.get().getDescription());
+               courseDto.setCredits(course.get().getCredits());
                courseDto.setRoom(course.get().getRoom());
                courseDto.setMaxStudents(course.get().getMaxStudents());
                courseDto.setSemester(course.get().getSemester());
@@ -0,0 +1,162 @@
+package com.school.management.service;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Bitmap over school-day ordinals that only stores the span of 64-bit words between
+ * the first and last set bit. A year of school days fits in five words. Not thread
+ * safe; callers synchronize.
+ */
+final class DayBitmap {
+
+    private static final long[] EMPTY = new long[0];
+
+    private int baseWord;
+    private long[] words = EMPTY;
+
+    boolean isEmpty() {
+        return words.length == 0;
+    }
+
+    boolean get(int bit) {
+        int w = bit >>> 6;
+        if (w < baseWord || w >= baseWord + words.length) {
+            return false;
+        }
+        return (words[w - baseWord] & (1L << (bit & 63))) != 0;
+    }
+
+    void set(int bit) {
+        int w = bit >>> 6;
+        if (words.length == 0) {
+            baseWord = w;
+            words = new long[1];
+        } else if (w < baseWord) {
+            long[] grown = new long[words.length + (baseWord - w)];
+            System.arraycopy(words, 0, grown, baseWord - w, words.length);
+            words = grown;
+            baseWord = w;
+        } else if (w >= baseWord + words.length) {
+            long[] grown = new long[w - baseWord + 1];
+            System.arraycopy(words, 0, grown, 0, words.length);
+            words = grown;
+        }
+        words[w - baseWord] |= 1L << (bit & 63);
+    }
+
+    void clear(int bit) {
+        int w = bit >>> 6;
+        if (w < baseWord || w >= baseWord + words.length) {
+            return;
+        }
+        words[w - baseWord] &= ~(1L << (bit & 63));
+        trim();
+    }
+
+    /**
+     * Number of set bits in [from, to], both inclusive.
+     */
+    int cardinality(int from, int to) {
+        if (words.length == 0 || from > to) {
+            return 0;
+        }
+        int first = Math.max(from >>> 6, baseWord);
+        int last = Math.min(to >>> 6, baseWord + words.length - 1);
+        int count = 0;
+        for (int w = first; w <= last; w++) {
+            count += Long.bitCount(words[w - baseWord] & rangeMask(w, from, to));
+        }
+        return count;
+    }
+
+    void forEach(int from, int to, IntConsumer consumer) {
+        if (words.length == 0 || from > to) {
+            return;
+        }
+        int first = Math.max(from >>> 6, baseWord);
+        int last = Math.min(to >>> 6, baseWord + words.length - 1);
+        for (int w = first; w <= last; w++) {
+            long word = words[w - baseWord] & rangeMask(w, from, to);
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                consumer.accept((w << 6) + bit);
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Length of the run of set bits ending at (and including) the given bit.
+     */
+    int runEndingAt(int bit) {
+        int w = bit >>> 6;
+        int offset = bit & 63;
+        int count = 0;
+        while (w >= baseWord && w < baseWord + words.length) {
+            long shifted = words[w - baseWord] << (63 - offset);
+            int ones = Math.min(Long.numberOfLeadingZeros(~shifted), offset + 1);
+            count += ones;
+            if (ones < offset + 1) {
+                break;
+            }
+            w--;
+            offset = 63;
+        }
+        return count;
+    }
+
+    /**
+     * Highest set bit that is <= the given bit, or -1.
+     */
+    int previousSetBit(int bit) {
+        int w = Math.min(bit >>> 6, baseWord + words.length - 1);
+        int offset = w == (bit >>> 6) ? bit & 63 : 63;
+        while (w >= baseWord && words.length > 0) {
+            long word = words[w - baseWord] & (offset == 63 ? -1L : (1L << (offset + 1)) - 1);
+            if (word != 0) {
+                return (w << 6) + 63 - Long.numberOfLeadingZeros(word);
+            }
+            w--;
+            offset = 63;
+        }
+        return -1;
+    }
+
+    long sizeInBytes() {
+        return 16L + 8L * words.length;
+    }
+
+    private static long rangeMask(int w, int from, int to) {
+        long mask = -1L;
+        if (w == from >>> 6) {
+            mask &= -1L << (from & 63);
+        }
+        if (w == to >>> 6) {
+            mask &= -1L >>> (63 - (to & 63));
+        }
+        return mask;
+    }
+
+    private void trim() {
+        int start = 0;
+        int end = words.length;
+        while (start < end && words[start] == 0) {
+            start++;
+        }
+        while (end > start && words[end - 1] == 0) {
+            end--;
+        }
+        if (start == 0 && end == words.length) {
+            return;
+        }
+        if (start == end) {
+            words = EMPTY;
+            baseWord = 0;
+            return;
+        }
+        long[] trimmed = new long[end - start];
+        System.arraycopy(words, start, trimmed, 0, trimmed.length);
+        words = trimmed;
+        baseWord += start;
+    }
+}
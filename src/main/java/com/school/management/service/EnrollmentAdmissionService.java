@@ -0,0 +1,277 @@
+package com.school.management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.management.dto.EnrollementDto;
+import com.school.management.dto.EnrollmentTicket;
+import com.school.management.entity.Enrollment;
+import exception.CustomException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission pipeline for enrollment requests during registration rushes. Requests are
+ * striped by course id over a fixed set of worker queues, so one course is always handled
+ * by the same worker in arrival order and hot courses never contend with each other on
+ * the unique index. Each worker drains its queue in micro-batches and admits every
+ * course's share with one screening lookup and one insert batch.
+ * Ticket state lives in Redis so any instance can answer a poll; long polls are served by
+ * the instance that owns the ticket.
+ */
+@Service
+public class EnrollmentAdmissionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnrollmentAdmissionService.class);
+
+    private static final String TICKET_KEY_PREFIX = "enrollment-ticket:";
+
+    private static final Duration TICKET_TTL = Duration.ofHours(1);
+
+    private static final Duration MAX_WAIT = Duration.ofSeconds(30);
+
+    @Value("${app.enrollment.admission.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.enrollment.admission.workers:8}")
+    private int workers;
+
+    @Value("${app.enrollment.admission.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.enrollment.admission.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseSeatService courseSeatService;
+
+    @Autowired
+    private AttendanceCacheService attendanceCacheService;
+
+    @Autowired
+    private TeacherDashboardService teacherDashboardService;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<String, CompletableFuture<EnrollmentTicket>> waiting = new ConcurrentHashMap<>();
+
+    private final List<Thread> threads = new ArrayList<>();
+
+    private BlockingQueue<EnrollmentTicket>[] stripes;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @SuppressWarnings("unchecked")
+    public synchronized void start() {
+        if (!enabled || stripes != null) {
+            return;
+        }
+        stripes = new BlockingQueue[workers];
+        for (int i = 0; i < workers; i++) {
+            BlockingQueue<EnrollmentTicket> queue = new LinkedBlockingQueue<>(Math.max(1, queueCapacity / workers));
+            stripes[i] = queue;
+            threads.add(Thread.ofPlatform().name("enrollment-admission-" + i).daemon().start(() -> work(queue)));
+        }
+        logger.info("Enrollment admission started with {} workers", workers);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        threads.forEach(Thread::interrupt);
+        threads.clear();
+    }
+
+    /**
+     * Queues an enrollment request and returns its pending ticket.
+     */
+    public EnrollmentTicket submit(EnrollementDto enrollementDto) {
+        if (enrollementDto.getStudentId() == null || enrollementDto.getCourseId() == null) {
+            throw new CustomException("studentId and courseId are required");
+        }
+        if (stripes == null) {
+            throw new CustomException("enrollment admission is not running");
+        }
+        EnrollmentTicket ticket = new EnrollmentTicket();
+        ticket.setTicketId(UUID.randomUUID().toString());
+        ticket.setStudentId(enrollementDto.getStudentId());
+        ticket.setCourseId(enrollementDto.getCourseId());
+        ticket.setGrade(enrollementDto.getGrade());
+        ticket.setSubmittedAt(System.currentTimeMillis());
+        save(ticket);
+        waiting.put(ticket.getTicketId(), new CompletableFuture<>());
+        if (!stripes[Math.floorMod(ticket.getCourseId().hashCode(), stripes.length)].offer(ticket)) {
+            waiting.remove(ticket.getTicketId());
+            stringRedisTemplate.delete(TICKET_KEY_PREFIX + ticket.getTicketId());
+            throw new CustomException("enrollment queue is full, please retry");
+        }
+        return ticket;
+    }
+
+    /**
+     * Current state of a ticket. A pending ticket owned by this instance is awaited for up to
+     * {@code wait} (capped at 30 seconds) before its state is returned.
+     *
+     * @return completes with null when the ticket is unknown or expired
+     */
+    public CompletableFuture<EnrollmentTicket> poll(String ticketId, Duration wait) {
+        EnrollmentTicket ticket = load(ticketId);
+        CompletableFuture<EnrollmentTicket> pending = waiting.get(ticketId);
+        if (ticket == null || ticket.getStatus() != EnrollmentTicket.Status.PENDING || pending == null
+                || wait.isZero() || wait.isNegative()) {
+            return CompletableFuture.completedFuture(ticket);
+        }
+        Duration capped = wait.compareTo(MAX_WAIT) > 0 ? MAX_WAIT : wait;
+        return pending.copy().completeOnTimeout(ticket, capped.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void work(BlockingQueue<EnrollmentTicket> queue) {
+        List<EnrollmentTicket> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            Map<Long, List<EnrollmentTicket>> byCourse = new LinkedHashMap<>();
+            batch.forEach(ticket -> byCourse.computeIfAbsent(ticket.getCourseId(), k -> new ArrayList<>()).add(ticket));
+            byCourse.forEach(this::admit);
+            batch.clear();
+        }
+    }
+
+    private void admit(Long courseId, List<EnrollmentTicket> tickets) {
+        long start = System.currentTimeMillis();
+        List<EnrollmentService.Admissible> seated = new ArrayList<>();
+        List<EnrollmentService.Admissible> waitlisted = new ArrayList<>();
+        try {
+            for (EnrollmentService.Admissible row : enrollmentService.screen(courseId, tickets)) {
+                (courseSeatService.reserve(courseId) ? seated : waitlisted).add(row);
+            }
+            for (EnrollmentService.Admissible row : insert(courseId, seated, Enrollment.EnrollmentStatus.ENROLLED)) {
+                courseSeatService.release(courseId);
+                reject(row.ticket(), "already enrolled");
+            }
+            for (EnrollmentService.Admissible row : insert(courseId, waitlisted, Enrollment.EnrollmentStatus.WAITLISTED)) {
+                reject(row.ticket(), "already enrolled");
+            }
+            if (!seated.isEmpty() || !waitlisted.isEmpty()) {
+                attendanceCacheService.evictCourseSummary(courseId);
+                teacherDashboardService.evictForCourse(courseId);
+            }
+        } catch (Exception e) {
+            logger.error("Enrollment admission failed for course {}: {}", courseId, e.getMessage(), e);
+            for (EnrollmentTicket ticket : tickets) {
+                if (ticket.getStatus() == EnrollmentTicket.Status.PENDING) {
+                    reject(ticket, "enrollment failed, please retry");
+                }
+            }
+            seated.stream()
+                    .filter(row -> row.ticket().getStatus() != EnrollmentTicket.Status.ENROLLED)
+                    .forEach(row -> courseSeatService.release(courseId));
+        }
+        tickets.forEach(this::complete);
+        logger.debug("Admitted enrollment batch for course {}: {} requests, {} seated, {} waitlisted in {} ms",
+                courseId, tickets.size(), seated.size(), waitlisted.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Inserts the rows with the given status and settles their tickets.
+     *
+     * @return rows that were not inserted because the student enrolled concurrently
+     */
+    private List<EnrollmentService.Admissible> insert(Long courseId, List<EnrollmentService.Admissible> rows,
+                                                      Enrollment.EnrollmentStatus status) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Long> enrollmentIds;
+        try {
+            enrollmentIds = enrollmentService.insertBatch(courseId, rows, status);
+        } catch (DuplicateKeyException e) {
+            logger.warn("Enrollment batch for course {} raced a concurrent writer, retrying row by row", courseId);
+            enrollmentIds = enrollmentService.insertEach(courseId, rows, status);
+        }
+        List<EnrollmentService.Admissible> missed = new ArrayList<>();
+        for (EnrollmentService.Admissible row : rows) {
+            Long enrollmentId = enrollmentIds.get(row.studentId());
+            if (enrollmentId == null) {
+                missed.add(row);
+                continue;
+            }
+            row.ticket().setEnrollmentId(enrollmentId);
+            if (status == Enrollment.EnrollmentStatus.WAITLISTED) {
+                row.ticket().setStatus(EnrollmentTicket.Status.WAITLISTED);
+                row.ticket().setMessage("course is full, added to waitlist");
+            } else {
+                row.ticket().setStatus(EnrollmentTicket.Status.ENROLLED);
+            }
+        }
+        return missed;
+    }
+
+    private void complete(EnrollmentTicket ticket) {
+        try {
+            save(ticket);
+        } catch (Exception e) {
+            logger.error("Unable to store enrollment ticket {}: {}", ticket.getTicketId(), e.getMessage());
+        }
+        CompletableFuture<EnrollmentTicket> pending = waiting.remove(ticket.getTicketId());
+        if (pending != null) {
+            pending.complete(ticket);
+        }
+    }
+
+    private void save(EnrollmentTicket ticket) {
+        try {
+            stringRedisTemplate.opsForValue().set(TICKET_KEY_PREFIX + ticket.getTicketId(),
+                    objectMapper.writeValueAsString(ticket), TICKET_TTL);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private EnrollmentTicket load(String ticketId) {
+        String json = stringRedisTemplate.opsForValue().get(TICKET_KEY_PREFIX + ticketId);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, EnrollmentTicket.class);
+        } catch (JsonProcessingException e) {
+            logger.warn("Unreadable enrollment ticket {}: {}", ticketId, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void reject(EnrollmentTicket ticket, String message) {
+        ticket.setStatus(EnrollmentTicket.Status.REJECTED);
+        ticket.setMessage(message);
+    }
+}
@@ -0,0 +1,134 @@
+package com.school.management.service;
+
+import com.school.management.entity.Enrollment;
+import com.school.management.repository.EnrollmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Version counters embedded in the enrollment cache keys. A write bumps the versions of the
+ * student, course and enrollment it touched, so readers build a new key and the old entries
+ * are left to expire instead of being evicted. A missing counter reads as version 0.
+ */
+@Service("enrollmentCacheVersions")
+public class EnrollmentCacheVersions {
+
+    private static final String KEY_PREFIX = "enrollment-version:";
+
+    private static final String GLOBAL_KEY = KEY_PREFIX + "global";
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    public String student(Long studentId) {
+        return read(KEY_PREFIX + "student:" + studentId);
+    }
+
+    public String course(Long courseId) {
+        return read(KEY_PREFIX + "course:" + courseId);
+    }
+
+    public String enrollment(Long enrollmentId) {
+        return read(KEY_PREFIX + "enrollment:" + enrollmentId);
+    }
+
+    // listings that span courses, such as a whole semester
+    public String global() {
+        return read(GLOBAL_KEY);
+    }
+
+    /**
+     * Invalidates everything cached for one enrollment change.
+     */
+    public void bump(Long studentId, Long courseId, Long enrollmentId) {
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.stringCommands().incr(bytes(KEY_PREFIX + "student:" + studentId));
+            connection.stringCommands().incr(bytes(KEY_PREFIX + "course:" + courseId));
+            if (enrollmentId != null) {
+                connection.stringCommands().incr(bytes(KEY_PREFIX + "enrollment:" + enrollmentId));
+            }
+            connection.stringCommands().incr(bytes(GLOBAL_KEY));
+            return null;
+        });
+    }
+
+    /**
+     * Invalidates the listings of a batch of new enrollments with one round trip.
+     */
+    public void bumpBatch(Collection<Long> studentIds, Collection<Long> courseIds) {
+        bumpBatch(studentIds, courseIds, List.of());
+    }
+
+    /**
+     * Batch variant for changes to existing enrollments, which also invalidates each one's by-id entry.
+     */
+    public void bumpBatch(Collection<Long> studentIds, Collection<Long> courseIds, Collection<Long> enrollmentIds) {
+        if (studentIds.isEmpty() && courseIds.isEmpty() && enrollmentIds.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long enrollmentId : enrollmentIds) {
+                connection.stringCommands().incr(bytes(KEY_PREFIX + "enrollment:" + enrollmentId));
+            }
+            for (Long studentId : studentIds) {
+                connection.stringCommands().incr(bytes(KEY_PREFIX + "student:" + studentId));
+            }
+            for (Long courseId : courseIds) {
+                connection.stringCommands().incr(bytes(KEY_PREFIX + "course:" + courseId));
+            }
+            connection.stringCommands().incr(bytes(GLOBAL_KEY));
+            return null;
+        });
+    }
+
+    /**
+     * Invalidates every cached enrollment of a course after the course itself changed, since the
+     * cached rows embed its code and name.
+     */
+    public void courseChanged(Long courseId) {
+        List<Long> enrollmentIds = new ArrayList<>();
+        Set<Long> studentIds = new HashSet<>();
+        for (Object[] row : enrollmentRepository.findIdsByCourseIdInAndStatusIn(List.of(courseId),
+                EnumSet.allOf(Enrollment.EnrollmentStatus.class))) {
+            enrollmentIds.add((Long) row[0]);
+            studentIds.add((Long) row[1]);
+        }
+        bumpBatch(studentIds, List.of(courseId), enrollmentIds);
+    }
+
+    /**
+     * Invalidates every cached enrollment of a student after the student changed, since the
+     * cached rows embed the student's name.
+     */
+    public void studentChanged(Long studentId) {
+        List<Long> enrollmentIds = new ArrayList<>();
+        Set<Long> courseIds = new HashSet<>();
+        for (Object[] row : enrollmentRepository.findIdsByStudentId(studentId)) {
+            enrollmentIds.add((Long) row[0]);
+            courseIds.add((Long) row[1]);
+        }
+        bumpBatch(List.of(studentId), courseIds, enrollmentIds);
+    }
+
+    private String read(String key) {
+        String version = stringRedisTemplate.opsForValue().get(key);
+        return version != null ? version : "0";
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,329 @@
+package com.school.management.service;
+
+import com.school.management.dto.CourseView;
+import com.school.management.dto.EnrollmentImportJob;
+import com.school.management.repository.EnrollmentRepository;
+import com.school.management.repository.StudentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bulk enrollment import from a CSV of (studentId, courseCode) rows. The upload is spooled to
+ * a temporary file and processed by a single background worker in chunks: one IN query
+ * resolves a chunk's students, course codes come from the {@link CourseCatalog}, one query
+ * finds the chunk's existing enrollments and the rest is inserted in JDBC batches.
+ * Jobs are tracked in memory on the instance that accepted the upload.
+ */
+@Service
+public class EnrollmentImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnrollmentImportService.class);
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final int MAX_RETAINED_JOBS = 20;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseCatalog courseCatalog;
+
+    @Autowired
+    private CourseSeatService courseSeatService;
+
+    @Autowired
+    private AttendanceCacheService attendanceCacheService;
+
+    @Autowired
+    private TeacherDashboardService teacherDashboardService;
+
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().name("enrollment-import").daemon().factory());
+
+    // insertion ordered so the oldest jobs are dropped first
+    private final Map<String, EnrollmentImportJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Spools the CSV and queues it for import.
+     */
+    public EnrollmentImportJob start(InputStream csv) throws IOException {
+        Path file = Files.createTempFile("enrollment-import-", ".csv");
+        long lines;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            lines = copyCountingLines(csv, out);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        EnrollmentImportJob job = new EnrollmentImportJob();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setTotalRows(lines);
+        job.setStartedAt(System.currentTimeMillis());
+        synchronized (jobs) {
+            jobs.put(job.getJobId(), job);
+            Iterator<String> oldest = jobs.keySet().iterator();
+            while (jobs.size() > MAX_RETAINED_JOBS && oldest.hasNext()) {
+                if (jobs.get(oldest.next()).getStatus() != EnrollmentImportJob.Status.RUNNING) {
+                    oldest.remove();
+                }
+            }
+        }
+        executor.submit(() -> run(job, file));
+        return snapshot(job);
+    }
+
+    public Optional<EnrollmentImportJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(EnrollmentImportService::snapshot);
+    }
+
+    private void run(EnrollmentImportJob job, Path file) {
+        long start = System.currentTimeMillis();
+        Set<Long> touchedCourses = new HashSet<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            // course ids already seen in this file, per student id
+            Map<Long, Set<Long>> seen = new HashMap<>();
+            List<String[]> chunk = new ArrayList<>(CHUNK_SIZE);
+            long lineNumber = 0;
+            long firstLine = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && isHeader(line)) {
+                    synchronized (job) {
+                        job.setTotalRows(Math.max(0, job.getTotalRows() - 1));
+                    }
+                    firstLine = 2;
+                    continue;
+                }
+                if (line.isBlank()) {
+                    synchronized (job) {
+                        job.setTotalRows(Math.max(0, job.getTotalRows() - 1));
+                    }
+                    if (chunk.isEmpty()) {
+                        firstLine = lineNumber + 1;
+                    } else {
+                        chunk.add(null);
+                    }
+                    continue;
+                }
+                chunk.add(parse(line));
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(job, firstLine, chunk, seen, touchedCourses);
+                    chunk.clear();
+                    firstLine = lineNumber + 1;
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, firstLine, chunk, seen, touchedCourses);
+            }
+            synchronized (job) {
+                job.setStatus(EnrollmentImportJob.Status.COMPLETED);
+            }
+        } catch (Exception e) {
+            logger.error("Enrollment import {} failed: {}", job.getJobId(), e.getMessage(), e);
+            synchronized (job) {
+                job.setStatus(EnrollmentImportJob.Status.FAILED);
+                job.setMessage(e.getMessage());
+            }
+        } finally {
+            synchronized (job) {
+                job.setFinishedAt(System.currentTimeMillis());
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Unable to delete import file {}: {}", file, e.getMessage());
+            }
+            if (job.getInserted() > 0) {
+                for (Long courseId : touchedCourses) {
+                    courseSeatService.reset(courseId);
+                    attendanceCacheService.evictCourseSummary(courseId);
+                    teacherDashboardService.evictForCourse(courseId);
+                }
+            }
+        }
+        logger.info("Enrollment import {} {}: {} rows, {} inserted, {} errors in {} ms", job.getJobId(),
+                job.getStatus(), job.getProcessedRows(), job.getInserted(), job.getErrorCount(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Resolves, dedupes and inserts one chunk. Blank lines are null entries so line numbers stay right.
+     */
+    private void importChunk(EnrollmentImportJob job, long firstLine, List<String[]> chunk,
+                             Map<Long, Set<Long>> seen, Set<Long> touchedCourses) {
+        Set<String> codes = new HashSet<>();
+        for (String[] row : chunk) {
+            if (row != null && row[0] != null) {
+                codes.add(row[0]);
+            }
+        }
+        Map<String, Long> studentIds = new HashMap<>();
+        if (!codes.isEmpty()) {
+            for (Object[] result : studentRepository.findIdsByStudentIdIn(codes)) {
+                studentIds.put((String) result[0], (Long) result[1]);
+            }
+        }
+
+        List<EnrollmentService.ImportRow> resolved = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            String[] row = chunk.get(i);
+            if (row == null) {
+                continue;
+            }
+            long line = firstLine + i;
+            if (row[0] == null || row[1] == null) {
+                error(job, line, row, "studentId and courseCode are required");
+                continue;
+            }
+            Long studentId = studentIds.get(row[0]);
+            Optional<CourseView> course = courseCatalog.findByCode(row[1]);
+            if (studentId == null) {
+                error(job, line, row, "Student not found");
+            } else if (course.isEmpty()) {
+                error(job, line, row, "Course not found");
+            } else if (!seen.computeIfAbsent(studentId, k -> new HashSet<>()).add(course.get().getId())) {
+                error(job, line, row, "duplicate row in file");
+            } else {
+                resolved.add(new EnrollmentService.ImportRow(line, studentId, course.get().getId()));
+            }
+        }
+
+        if (!resolved.isEmpty()) {
+            Set<Long> chunkStudents = new HashSet<>();
+            Set<Long> chunkCourses = new HashSet<>();
+            resolved.forEach(row -> {
+                chunkStudents.add(row.studentId());
+                chunkCourses.add(row.courseId());
+            });
+            Set<List<Long>> existing = new HashSet<>();
+            for (Object[] pair : enrollmentRepository.findPairsByStudentIdInAndCourseIdIn(chunkStudents, chunkCourses)) {
+                existing.add(List.of((Long) pair[0], (Long) pair[1]));
+            }
+            List<EnrollmentService.ImportRow> toInsert = new ArrayList<>(resolved.size());
+            for (EnrollmentService.ImportRow row : resolved) {
+                if (existing.contains(List.of(row.studentId(), row.courseId()))) {
+                    error(job, row.line(), chunk.get((int) (row.line() - firstLine)), "already enrolled");
+                } else {
+                    toInsert.add(row);
+                }
+            }
+            if (!toInsert.isEmpty()) {
+                List<EnrollmentService.ImportRow> duplicates;
+                try {
+                    enrollmentService.importBatch(toInsert);
+                    duplicates = List.of();
+                } catch (DuplicateKeyException e) {
+                    logger.warn("Enrollment import chunk raced a concurrent writer, retrying row by row");
+                    duplicates = enrollmentService.importEach(toInsert);
+                }
+                for (EnrollmentService.ImportRow row : duplicates) {
+                    error(job, row.line(), chunk.get((int) (row.line() - firstLine)), "already enrolled");
+                }
+                synchronized (job) {
+                    job.setInserted(job.getInserted() + toInsert.size() - duplicates.size());
+                }
+                toInsert.forEach(row -> touchedCourses.add(row.courseId()));
+            }
+        }
+        synchronized (job) {
+            job.setProcessedRows(job.getProcessedRows() + chunk.stream().filter(Objects::nonNull).count());
+        }
+    }
+
+    private static void error(EnrollmentImportJob job, long line, String[] row, String message) {
+        synchronized (job) {
+            job.setErrorCount(job.getErrorCount() + 1);
+            if (job.getErrors().size() < MAX_REPORTED_ERRORS) {
+                EnrollmentImportJob.RowError error = new EnrollmentImportJob.RowError();
+                error.setLine(line);
+                error.setStudentId(row[0]);
+                error.setCourseCode(row[1]);
+                error.setMessage(message);
+                job.getErrors().add(error);
+            }
+        }
+    }
+
+    // jobs are updated by the worker while being polled, so callers get a consistent copy
+    private static EnrollmentImportJob snapshot(EnrollmentImportJob job) {
+        synchronized (job) {
+            EnrollmentImportJob copy = new EnrollmentImportJob();
+            copy.setJobId(job.getJobId());
+            copy.setStatus(job.getStatus());
+            copy.setTotalRows(job.getTotalRows());
+            copy.setProcessedRows(job.getProcessedRows());
+            copy.setInserted(job.getInserted());
+            copy.setErrorCount(job.getErrorCount());
+            copy.setErrors(new ArrayList<>(job.getErrors()));
+            copy.setStartedAt(job.getStartedAt());
+            copy.setFinishedAt(job.getFinishedAt());
+            copy.setMessage(job.getMessage());
+            return copy;
+        }
+    }
+
+    private static boolean isHeader(String line) {
+        return line.toLowerCase(Locale.ROOT).replace("\"", "").replace(" ", "").startsWith("studentid");
+    }
+
+    // two columns: studentId, courseCode; surrounding quotes and whitespace are dropped
+    private static String[] parse(String line) {
+        String[] columns = line.split(",", -1);
+        return new String[] {column(columns, 0), column(columns, 1)};
+    }
+
+    private static String column(String[] columns, int index) {
+        if (index >= columns.length) {
+            return null;
+        }
+        String value = columns[index].trim();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1).trim();
+        }
+        return value.isEmpty() ? null : value;
+    }
+
+    private static long copyCountingLines(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long lines = 0;
+        int last = '\n';
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+            last = buffer[read - 1];
+        }
+        return last == '\n' ? lines : lines + 1;
+    }
+}
@@ -0,0 +1,55 @@
+package com.school.management.service;
+
+import com.school.management.dto.EnrollmentView;
+import com.school.management.repository.EnrollmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Enrollment reads cached under versioned keys (see {@link EnrollmentCacheVersions}).
+ * Values are {@link EnrollmentView} rows, so nothing lazy ends up in Redis.
+ */
+@Service
+public class EnrollmentQueryService {
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Cacheable(value = "enrollment", key = "#id + '-v' + @enrollmentCacheVersions.enrollment(#id)", unless = "#result == null")
+    public EnrollmentView getEnrollment(Long id) {
+        return enrollmentRepository.findViewById(id).orElse(null);
+    }
+
+    @Cacheable(value = "enrollments-by-student", key = "#studentId + '-v' + @enrollmentCacheVersions.student(#studentId)")
+    public List<EnrollmentView> getEnrollmentsByStudent(Long studentId) {
+        return enrollmentRepository.findActiveViewsByStudent(studentId);
+    }
+
+    @Cacheable(value = "enrollments-by-course", key = "#courseId + '-v' + @enrollmentCacheVersions.course(#courseId)")
+    public List<EnrollmentView> getEnrollmentsByCourse(Long courseId) {
+        return enrollmentRepository.findActiveViewsByCourse(courseId);
+    }
+
+    @Cacheable(value = "enrollments-by-semester-year",
+            key = "#semester + '-' + #academicYear + '-v' + @enrollmentCacheVersions.global()")
+    public List<EnrollmentView> getEnrollmentsBySemesterAndYear(String semester, String academicYear) {
+        return enrollmentRepository.findViewsBySemesterAndYear(semester, academicYear);
+    }
+
+    /**
+     * Counts are declared as {@link Number}: the Redis serializer does not type-tag
+     * final classes, so a cached Long comes back as an Integer when it is small.
+     */
+    @Cacheable(value = "enrollment-count-by-course", key = "#courseId + '-v' + @enrollmentCacheVersions.course(#courseId)")
+    public Number countByCourse(Long courseId) {
+        return enrollmentRepository.countActiveEnrollmentsByCourse(courseId);
+    }
+
+    @Cacheable(value = "enrollment-count-by-student", key = "#studentId + '-v' + @enrollmentCacheVersions.student(#studentId)")
+    public Number countByStudent(Long studentId) {
+        return enrollmentRepository.countActiveEnrollmentsByStudent(studentId);
+    }
+}
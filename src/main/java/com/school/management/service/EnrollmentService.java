@@ -0,0 +1,381 @@
+package com.school.management.service;
+
+import com.school.management.dto.EnrollmentTicket;
+import com.school.management.entity.Enrollment;
+import com.school.management.repository.EnrollmentRepository;
+import com.school.management.repository.StudentRepository;
+import exception.CustomException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Enrollment writes that involve seats and the waitlist. Admission batches are set-based:
+ * one lookup resolves a whole micro-batch of students and their existing enrollments, and
+ * rows are inserted with a single JDBC batch. A student who finds the course full is
+ * waitlisted; when an enrolled student leaves, the head of the waitlist takes the seat in
+ * the same transaction.
+ */
+@Service
+public class EnrollmentService {
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final String INSERT_ENROLLMENT_SQL =
+            "INSERT INTO enrollments (student_id, course_id, enrollment_date, grade, status, waitlist_position) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseCatalog courseCatalog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EnrollmentCacheVersions enrollmentCacheVersions;
+
+    @Autowired
+    private CourseSeatService courseSeatService;
+
+    @Autowired
+    private WaitlistIndex waitlistIndex;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    /**
+     * A ticket that passed screening, with its student's primary key.
+     */
+    public record Admissible(EnrollmentTicket ticket, Long studentId) {}
+
+    /**
+     * One resolved row of a bulk import.
+     */
+    public record ImportRow(long line, Long studentId, Long courseId) {}
+
+    /**
+     * Rejects tickets for unknown students or courses, students already enrolled and repeats
+     * within the batch. Returns the remaining tickets in request order.
+     */
+    public List<Admissible> screen(Long courseId, List<EnrollmentTicket> tickets) {
+        List<Admissible> admissible = new ArrayList<>();
+        if (courseCatalog.findById(courseId).isEmpty()) {
+            tickets.forEach(ticket -> reject(ticket, "Course not found"));
+            return admissible;
+        }
+        Set<String> codes = new HashSet<>();
+        tickets.forEach(ticket -> codes.add(ticket.getStudentId()));
+        codes.remove(null);
+        Map<String, Long> studentIds = new HashMap<>();
+        if (!codes.isEmpty()) {
+            for (Object[] row : studentRepository.findIdsByStudentIdIn(codes)) {
+                studentIds.put((String) row[0], (Long) row[1]);
+            }
+        }
+        Set<Long> enrolled = new HashSet<>();
+        if (!studentIds.isEmpty()) {
+            for (Object[] row : enrollmentRepository.findIdsByCourseIdAndStudentIdIn(courseId, studentIds.values())) {
+                enrolled.add((Long) row[0]);
+            }
+        }
+        for (EnrollmentTicket ticket : tickets) {
+            Long studentId = studentIds.get(ticket.getStudentId());
+            if (studentId == null) {
+                reject(ticket, "Student not found");
+            } else if (!enrolled.add(studentId)) {
+                reject(ticket, "already enrolled");
+            } else {
+                admissible.add(new Admissible(ticket, studentId));
+            }
+        }
+        return admissible;
+    }
+
+    /**
+     * Inserts the rows in one batch, as ENROLLED or, when the course is full, WAITLISTED in request order.
+     *
+     * @return enrollment id by student id
+     */
+    @Transactional
+    public Map<Long, Long> insertBatch(Long courseId, List<Admissible> rows, Enrollment.EnrollmentStatus status) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<Long, Long> positions = waitlistPositions(courseId, rows, status);
+        jdbcTemplate.batchUpdate(INSERT_ENROLLMENT_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setLong(1, row.studentId());
+            ps.setLong(2, courseId);
+            ps.setTimestamp(3, now);
+            ps.setString(4, row.ticket().getGrade());
+            ps.setString(5, status.name());
+            ps.setObject(6, positions.get(row.studentId()));
+        });
+        Map<Long, Long> ids = findEnrollmentIds(courseId, rows);
+        afterCommit(() -> {
+            indexWaitlisted(courseId, ids, positions);
+            enrollmentCacheVersions.bumpBatch(ids.keySet(), List.of(courseId));
+        });
+        return ids;
+    }
+
+    /**
+     * Row-by-row fallback when a batch collides with a concurrent writer; duplicates are skipped.
+     *
+     * @return enrollment id by student id, for the rows that were inserted
+     */
+    public Map<Long, Long> insertEach(Long courseId, List<Admissible> rows, Enrollment.EnrollmentStatus status) {
+        Map<Long, Long> positions = waitlistPositions(courseId, rows, status);
+        List<Admissible> inserted = new ArrayList<>();
+        for (Admissible row : rows) {
+            try {
+                jdbcTemplate.update(INSERT_ENROLLMENT_SQL, row.studentId(), courseId,
+                        Timestamp.valueOf(LocalDateTime.now()), row.ticket().getGrade(), status.name(),
+                        positions.get(row.studentId()));
+                inserted.add(row);
+            } catch (DuplicateKeyException e) {
+                // enrolled concurrently, left out of the result
+            }
+        }
+        Map<Long, Long> ids = inserted.isEmpty() ? Map.of() : findEnrollmentIds(courseId, inserted);
+        indexWaitlisted(courseId, ids, positions);
+        enrollmentCacheVersions.bumpBatch(ids.keySet(), ids.isEmpty() ? List.of() : List.of(courseId));
+        return ids;
+    }
+
+    /**
+     * Inserts resolved import rows as ENROLLED in one batch. Imports are an administrative
+     * term setup and do not go through seat reservation.
+     */
+    @Transactional
+    public void importBatch(List<ImportRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_ENROLLMENT_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setLong(1, row.studentId());
+            ps.setLong(2, row.courseId());
+            ps.setTimestamp(3, now);
+            ps.setNull(4, Types.VARCHAR);
+            ps.setString(5, Enrollment.EnrollmentStatus.ENROLLED.name());
+            ps.setNull(6, Types.BIGINT);
+        });
+        afterCommit(() -> bumpImported(rows));
+    }
+
+    /**
+     * Row-by-row fallback for an import batch that collided with a concurrent writer.
+     *
+     * @return rows skipped because the enrollment already exists
+     */
+    public List<ImportRow> importEach(List<ImportRow> rows) {
+        List<ImportRow> duplicates = new ArrayList<>();
+        for (ImportRow row : rows) {
+            try {
+                jdbcTemplate.update(INSERT_ENROLLMENT_SQL, row.studentId(), row.courseId(),
+                        Timestamp.valueOf(LocalDateTime.now()), null, Enrollment.EnrollmentStatus.ENROLLED.name(), null);
+            } catch (DuplicateKeyException e) {
+                duplicates.add(row);
+            }
+        }
+        List<ImportRow> inserted = new ArrayList<>(rows);
+        inserted.removeAll(duplicates);
+        bumpImported(inserted);
+        return duplicates;
+    }
+
+    /**
+     * Puts a new enrollment of a full course at the end of its waitlist.
+     */
+    @Transactional
+    public Enrollment joinWaitlist(Enrollment enrollment) {
+        Long courseId = enrollment.getCourse().getId();
+        enrollment.setStatus(Enrollment.EnrollmentStatus.WAITLISTED);
+        enrollment.setWaitlistPosition(waitlistIndex.nextPosition(courseId));
+        Enrollment saved = enrollmentRepository.save(enrollment);
+        afterCommit(() -> {
+            waitlistIndex.add(courseId, new WaitlistIndex.Entry(saved.getWaitlistPosition(),
+                    saved.getId(), saved.getStudent().getId()));
+            enrollmentCacheVersions.bump(saved.getStudent().getId(), courseId, saved.getId());
+        });
+        return saved;
+    }
+
+    /**
+     * Changes grade and status. Leaving ENROLLED hands the seat to the head of the waitlist;
+     * entering ENROLLED needs a free seat.
+     */
+    @Transactional
+    public Optional<Enrollment> updateEnrollment(Long id, String grade, Enrollment.EnrollmentStatus status) {
+        Optional<Enrollment> optionalEnrollment = enrollmentRepository.findById(id);
+        if (optionalEnrollment.isEmpty()) {
+            return Optional.empty();
+        }
+        Enrollment enrollment = optionalEnrollment.get();
+        Long courseId = enrollment.getCourse().getId();
+        Enrollment.EnrollmentStatus previous = enrollment.getStatus();
+        boolean enrolled = status == Enrollment.EnrollmentStatus.ENROLLED;
+        if (enrolled && previous != Enrollment.EnrollmentStatus.ENROLLED) {
+            if (!courseSeatService.reserve(courseId)) {
+                throw new CustomException("course is full");
+            }
+            afterRollback(() -> courseSeatService.release(courseId));
+        }
+        enrollment.setGrade(grade);
+        enrollment.setStatus(status);
+        boolean joinsWaitlist = previous != Enrollment.EnrollmentStatus.WAITLISTED && status == Enrollment.EnrollmentStatus.WAITLISTED;
+        if (joinsWaitlist) {
+            enrollment.setWaitlistPosition(waitlistIndex.nextPosition(courseId));
+        } else if (status != Enrollment.EnrollmentStatus.WAITLISTED) {
+            enrollment.setWaitlistPosition(null);
+        }
+        Enrollment updated = enrollmentRepository.save(enrollment);
+        if (joinsWaitlist) {
+            afterCommit(() -> waitlistIndex.add(courseId, new WaitlistIndex.Entry(updated.getWaitlistPosition(),
+                    id, updated.getStudent().getId())));
+        } else if (previous == Enrollment.EnrollmentStatus.WAITLISTED && status != Enrollment.EnrollmentStatus.WAITLISTED) {
+            afterCommit(() -> waitlistIndex.remove(courseId, id));
+        }
+        if (previous == Enrollment.EnrollmentStatus.ENROLLED && !enrolled) {
+            vacateSeat(courseId);
+        }
+        Long studentId = updated.getStudent().getId();
+        afterCommit(() -> enrollmentCacheVersions.bump(studentId, courseId, id));
+        return Optional.of(updated);
+    }
+
+    /**
+     * Marks the enrollment DROPPED; a seat it held goes to the next waitlisted student.
+     */
+    @Transactional
+    public boolean dropEnrollment(Long id) {
+        Optional<Enrollment> optionalEnrollment = enrollmentRepository.findById(id);
+        if (optionalEnrollment.isEmpty()) {
+            return false;
+        }
+        Enrollment enrollment = optionalEnrollment.get();
+        Long courseId = enrollment.getCourse().getId();
+        Enrollment.EnrollmentStatus previous = enrollment.getStatus();
+        enrollment.setStatus(Enrollment.EnrollmentStatus.DROPPED);
+        enrollment.setWaitlistPosition(null);
+        enrollmentRepository.save(enrollment);
+        if (previous == Enrollment.EnrollmentStatus.WAITLISTED) {
+            afterCommit(() -> waitlistIndex.remove(courseId, id));
+        } else if (previous == Enrollment.EnrollmentStatus.ENROLLED) {
+            vacateSeat(courseId);
+        }
+        Long studentId = enrollment.getStudent().getId();
+        afterCommit(() -> enrollmentCacheVersions.bump(studentId, courseId, id));
+        return true;
+    }
+
+    /**
+     * Promotes the head of the course waitlist into a seat the caller already holds.
+     *
+     * @return the promoted enrollment, empty when nobody is waiting
+     */
+    @Transactional
+    public Optional<Enrollment> promoteNext(Long courseId) {
+        Optional<Enrollment> head = enrollmentRepository
+                .findFirstByCourse_IdAndStatusOrderByWaitlistPositionAscIdAsc(courseId, Enrollment.EnrollmentStatus.WAITLISTED);
+        if (head.isEmpty()) {
+            return head;
+        }
+        Enrollment enrollment = head.get();
+        enrollment.setStatus(Enrollment.EnrollmentStatus.ENROLLED);
+        enrollment.setWaitlistPosition(null);
+        enrollmentRepository.save(enrollment);
+        Long enrollmentId = enrollment.getId();
+        Long studentId = enrollment.getStudent().getId();
+        afterCommit(() -> {
+            waitlistIndex.remove(courseId, enrollmentId);
+            enrollmentCacheVersions.bump(studentId, courseId, enrollmentId);
+            notificationService.sendWaitlistPromotion(studentId, courseId);
+        });
+        return head;
+    }
+
+    // the leaving student's seat is handed over in this transaction, or released once it commits
+    private void vacateSeat(Long courseId) {
+        if (promoteNext(courseId).isEmpty()) {
+            afterCommit(() -> courseSeatService.release(courseId));
+        }
+    }
+
+    private Map<Long, Long> waitlistPositions(Long courseId, List<Admissible> rows, Enrollment.EnrollmentStatus status) {
+        Map<Long, Long> positions = new HashMap<>();
+        if (status == Enrollment.EnrollmentStatus.WAITLISTED && !rows.isEmpty()) {
+            long position = waitlistIndex.nextPositions(courseId, rows.size());
+            for (Admissible row : rows) {
+                positions.put(row.studentId(), position++);
+            }
+        }
+        return positions;
+    }
+
+    private void indexWaitlisted(Long courseId, Map<Long, Long> ids, Map<Long, Long> positions) {
+        positions.forEach((studentId, position) -> {
+            Long enrollmentId = ids.get(studentId);
+            if (enrollmentId != null) {
+                waitlistIndex.add(courseId, new WaitlistIndex.Entry(position, enrollmentId, studentId));
+            }
+        });
+    }
+
+    private void bumpImported(List<ImportRow> rows) {
+        Set<Long> studentIds = new HashSet<>();
+        Set<Long> courseIds = new HashSet<>();
+        rows.forEach(row -> {
+            studentIds.add(row.studentId());
+            courseIds.add(row.courseId());
+        });
+        enrollmentCacheVersions.bumpBatch(studentIds, courseIds);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void afterRollback(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private Map<Long, Long> findEnrollmentIds(Long courseId, List<Admissible> rows) {
+        Map<Long, Long> ids = new HashMap<>();
+        List<Long> studentIds = rows.stream().map(Admissible::studentId).toList();
+        for (Object[] row : enrollmentRepository.findIdsByCourseIdAndStudentIdIn(courseId, studentIds)) {
+            ids.put((Long) row[0], (Long) row[1]);
+        }
+        return ids;
+    }
+
+    private static void reject(EnrollmentTicket ticket, String message) {
+        ticket.setStatus(EnrollmentTicket.Status.REJECTED);
+        ticket.setMessage(message);
+    }
+}
@@ -23,6 +23,21 @@ public class EventPublisher {
 
     // Topics
     public static final String NOTIFICATION_EVENTS_TOPIC = "notification-events";
+    public static final String ATTENDANCE_INGEST_TOPIC = "attendance-ingest";
+
+    public static final String ATTENDANCE_EVENTS_TOPIC = "attendance-events";
+
+    public static final String ENROLLMENT_EVENTS_TOPIC = "enrollment-events";
+
+    public static final String COURSE_EVENTS_TOPIC = "course-events";
+
+    public static final String CALENDAR_EVENTS_TOPIC = "calendar-events";
+
+    public static final String MARK_ATTENDANCE_EVENT = "MARK_ATTENDANCE";
+    public static final String ATTENDANCE_CHANGED_EVENT = "ATTENDANCE_CHANGED";
+    public static final String SEMESTER_ROLLED_OVER_EVENT = "SEMESTER_ROLLED_OVER";
+    public static final String COURSE_CHANGED_EVENT = "COURSE_CHANGED";
+    public static final String CALENDAR_CHANGED_EVENT = "CALENDAR_CHANGED";
 
     // Publish Notification Event
     public void publishNotificationEvent(String eventType, NotificationData notificationData) {
@@ -31,10 +46,46 @@ public class EventPublisher {
         publishEvent(NOTIFICATION_EVENTS_TOPIC, eventType, event);
     }
 
+    // Publish queued attendance, keyed by course so one course's roll call stays on one partition in order.
+    // The future completes once the broker has acknowledged the record.
+    public CompletableFuture<SendResult<String, Object>> publishAttendanceEvent(AttendanceData attendanceData) {
+        SchoolEvent<AttendanceData> event = new SchoolEvent<>(MARK_ATTENDANCE_EVENT, attendanceData, System.currentTimeMillis());
+        return kafkaTemplate.send(ATTENDANCE_INGEST_TOPIC, String.valueOf(attendanceData.getCourseId()), event);
+    }
+
+    // Publish a committed attendance change, keyed by student so one student's changes stay in order
+    public void publishAttendanceChange(AttendanceChangeData changeData) {
+        SchoolEvent<AttendanceChangeData> event = new SchoolEvent<>(ATTENDANCE_CHANGED_EVENT, changeData, System.currentTimeMillis());
+        publishEvent(ATTENDANCE_EVENTS_TOPIC, String.valueOf(changeData.getStudentId()), ATTENDANCE_CHANGED_EVENT, event);
+    }
+
+    // Publish one summary for a whole semester rollover instead of an event per enrollment
+    public void publishSemesterRollover(SemesterRolloverData rolloverData) {
+        SchoolEvent<SemesterRolloverData> event = new SchoolEvent<>(SEMESTER_ROLLED_OVER_EVENT, rolloverData, System.currentTimeMillis());
+        publishEvent(ENROLLMENT_EVENTS_TOPIC, rolloverData.getSemester() + "-" + rolloverData.getAcademicYear(),
+                SEMESTER_ROLLED_OVER_EVENT, event);
+    }
+
+    // Publish a committed course write so every instance reloads its course catalog
+    public void publishCourseChange(CourseChangeData changeData) {
+        SchoolEvent<CourseChangeData> event = new SchoolEvent<>(COURSE_CHANGED_EVENT, changeData, System.currentTimeMillis());
+        publishEvent(COURSE_EVENTS_TOPIC, String.valueOf(changeData.getCourseId()), COURSE_CHANGED_EVENT, event);
+    }
+
+    // Publish an academic term or holiday edit so every instance renumbers its school days
+    public void publishCalendarChange(CalendarChangeData changeData) {
+        SchoolEvent<CalendarChangeData> event = new SchoolEvent<>(CALENDAR_CHANGED_EVENT, changeData, System.currentTimeMillis());
+        publishEvent(CALENDAR_EVENTS_TOPIC, CALENDAR_CHANGED_EVENT, event);
+    }
+
     // Internal publish method
     private void publishEvent(String topic, String eventType, Object event) {
+        publishEvent(topic, eventType, eventType, event);
+    }
+
+    private void publishEvent(String topic, String key, String eventType, Object event) {
         try {
-            CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(topic, eventType, event);
+            CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(topic, key, event);
 
             future.whenComplete((result, exception) -> {
                 if (exception == null) {
@@ -114,4 +165,161 @@ public class EventPublisher {
         public Object getAdditionalData() { return additionalData; }
         public void setAdditionalData(Object additionalData) { this.additionalData = additionalData; }
     }
+
+    // Attendance mark queued for write-behind persistence; dates are ISO strings so any consumer mapper can read them
+    public static class AttendanceData {
+        private String studentId;
+        private Long courseId;
+        private String date;
+        private String status;
+        private String remarks;
+        private String markedBy;
+        private long markedAt;
+
+        public AttendanceData() {}
+
+        public AttendanceData(String studentId, Long courseId, String date, String status, String remarks, String markedBy, long markedAt) {
+            this.studentId = studentId;
+            this.courseId = courseId;
+            this.date = date;
+            this.status = status;
+            this.remarks = remarks;
+            this.markedBy = markedBy;
+            this.markedAt = markedAt;
+        }
+
+        // Getters and setters
+        public String getStudentId() { return studentId; }
+        public void setStudentId(String studentId) { this.studentId = studentId; }
+
+        public Long getCourseId() { return courseId; }
+        public void setCourseId(Long courseId) { this.courseId = courseId; }
+
+        public String getDate() { return date; }
+        public void setDate(String date) { this.date = date; }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public String getRemarks() { return remarks; }
+        public void setRemarks(String remarks) { this.remarks = remarks; }
+
+        public String getMarkedBy() { return markedBy; }
+        public void setMarkedBy(String markedBy) { this.markedBy = markedBy; }
+
+        public long getMarkedAt() { return markedAt; }
+        public void setMarkedAt(long markedAt) { this.markedAt = markedAt; }
+    }
+
+    // A committed attendance change: previousStatus is null for a new row, status is null for a deleted row.
+    // attendanceId is null for batch inserts outside today, whose generated ids are not read back.
+    public static class AttendanceChangeData {
+        private Long attendanceId;
+        private Long studentId;
+        private Long courseId;
+        private String date;
+        private String previousStatus;
+        private String status;
+        private String markedBy;
+
+        public AttendanceChangeData() {}
+
+        public AttendanceChangeData(Long attendanceId, Long studentId, Long courseId, String date, String previousStatus,
+                                    String status, String markedBy) {
+            this.attendanceId = attendanceId;
+            this.studentId = studentId;
+            this.courseId = courseId;
+            this.date = date;
+            this.previousStatus = previousStatus;
+            this.status = status;
+            this.markedBy = markedBy;
+        }
+
+        // Getters and setters
+        public Long getAttendanceId() { return attendanceId; }
+        public void setAttendanceId(Long attendanceId) { this.attendanceId = attendanceId; }
+
+        public Long getStudentId() { return studentId; }
+        public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+        public Long getCourseId() { return courseId; }
+        public void setCourseId(Long courseId) { this.courseId = courseId; }
+
+        public String getDate() { return date; }
+        public void setDate(String date) { this.date = date; }
+
+        public String getPreviousStatus() { return previousStatus; }
+        public void setPreviousStatus(String previousStatus) { this.previousStatus = previousStatus; }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public String getMarkedBy() { return markedBy; }
+        public void setMarkedBy(String markedBy) { this.markedBy = markedBy; }
+    }
+
+    // Totals of a finished semester rollover
+    public static class SemesterRolloverData {
+        private String semester;
+        private String academicYear;
+        private long courses;
+        private long completed;
+        private long dropped;
+
+        public SemesterRolloverData() {}
+
+        public SemesterRolloverData(String semester, String academicYear, long courses, long completed, long dropped) {
+            this.semester = semester;
+            this.academicYear = academicYear;
+            this.courses = courses;
+            this.completed = completed;
+            this.dropped = dropped;
+        }
+
+        // Getters and setters
+        public String getSemester() { return semester; }
+        public void setSemester(String semester) { this.semester = semester; }
+
+        public String getAcademicYear() { return academicYear; }
+        public void setAcademicYear(String academicYear) { this.academicYear = academicYear; }
+
+        public long getCourses() { return courses; }
+        public void setCourses(long courses) { this.courses = courses; }
+
+        public long getCompleted() { return completed; }
+        public void setCompleted(long completed) { this.completed = completed; }
+
+        public long getDropped() { return dropped; }
+        public void setDropped(long dropped) { this.dropped = dropped; }
+    }
+
+    // A created, updated or deactivated course
+    public static class CourseChangeData {
+        private Long courseId;
+
+        public CourseChangeData() {}
+
+        public CourseChangeData(Long courseId) {
+            this.courseId = courseId;
+        }
+
+        // Getters and setters
+        public Long getCourseId() { return courseId; }
+        public void setCourseId(Long courseId) { this.courseId = courseId; }
+    }
+
+    // An academic calendar edit; origin is the instance that already applied it
+    public static class CalendarChangeData {
+        private String origin;
+
+        public CalendarChangeData() {}
+
+        public CalendarChangeData(String origin) {
+            this.origin = origin;
+        }
+
+        // Getters and setters
+        public String getOrigin() { return origin; }
+        public void setOrigin(String origin) { this.origin = origin; }
+    }
 }
@@ -1,8 +1,11 @@
 package com.school.management.service;
 
 import com.school.management.entity.Assignment;
+import com.school.management.entity.Course;
 import com.school.management.entity.Student;
+import com.school.management.repository.CourseRepository;
 import com.school.management.repository.EnrollmentRepository;
+import com.school.management.repository.StudentRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +23,12 @@ public class NotificationService {
     @Autowired
     private EventPublisher eventPublisher;
 
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
 
 
     public void sendWelcomeMessage(Long userId, String email, String firstName) {
@@ -40,6 +49,60 @@ public class NotificationService {
         }
     }
 
+    public void sendAbsenceAlert(Long studentId, Long courseId, String reason) {
+        try {
+            Student student = studentRepository.findById(studentId).orElse(null);
+            Course course = courseRepository.findById(courseId).orElse(null);
+            if (student == null) {
+                logger.warn("Absence alert for unknown student {}: {}", studentId, reason);
+                return;
+            }
+            String courseName = course != null ? course.getCourseName() : String.valueOf(courseId);
+            EventPublisher.NotificationData notification = new EventPublisher.NotificationData(
+                    student.getId(),
+                    student.getEmail(),
+                    "Attendance alert: " + courseName,
+                    String.format("Dear %s, you have been %s in %s. Please contact your teacher.",
+                            student.getFirstName(), reason, courseName),
+                    "ABSENCE_ALERT",
+                    courseId
+            );
+
+            eventPublisher.publishNotificationEvent("SEND_EMAIL", notification);
+            logger.info("Absence alert for student {} in course {}: {}", studentId, courseId, reason);
+
+        } catch (Exception e) {
+            logger.error("Error sending absence alert: {}", e.getMessage(), e);
+        }
+    }
+
+    public void sendWaitlistPromotion(Long studentId, Long courseId) {
+        try {
+            Student student = studentRepository.findById(studentId).orElse(null);
+            Course course = courseRepository.findById(courseId).orElse(null);
+            if (student == null) {
+                logger.warn("Waitlist promotion for unknown student {} in course {}", studentId, courseId);
+                return;
+            }
+            String courseName = course != null ? course.getCourseName() : String.valueOf(courseId);
+            EventPublisher.NotificationData notification = new EventPublisher.NotificationData(
+                    student.getId(),
+                    student.getEmail(),
+                    "Enrolled from waitlist: " + courseName,
+                    String.format("Dear %s, a seat opened up in %s and you are now enrolled.",
+                            student.getFirstName(), courseName),
+                    "WAITLIST_PROMOTION",
+                    courseId
+            );
+
+            eventPublisher.publishNotificationEvent("SEND_EMAIL", notification);
+            logger.info("Student {} promoted from the waitlist of course {}", studentId, courseId);
+
+        } catch (Exception e) {
+            logger.error("Error sending waitlist promotion: {}", e.getMessage(), e);
+        }
+    }
+
     private List<Student> getEnrolledStudents(Long courseId) {
         // Replace with actual repository query
         return List.of();
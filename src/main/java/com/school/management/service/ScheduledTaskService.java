@@ -27,6 +27,33 @@ public class ScheduledTaskService {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private AttendanceCounterService attendanceCounterService;
+
+    @Autowired
+    private TodayAttendanceView todayAttendanceView;
+
+    @Autowired
+    private ChronicAbsenceDetector chronicAbsenceDetector;
+
+    @Autowired
+    private AttendanceBitmapIndex attendanceBitmapIndex;
+
+    @Autowired
+    private CourseSeatService courseSeatService;
+
+    @Autowired
+    private CourseCatalog courseCatalog;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private WaitlistIndex waitlistIndex;
+
+    @Autowired
+    private SubmissionService submissionService;
+
        /**
      * Clear expired cache entries every hour
      */
@@ -40,8 +67,8 @@ public class ScheduledTaskService {
                 var cache = cacheManager.getCache(cacheName);
                 if (cache != null) {
                     // For frequently changing data, clear more often
-                    if (cacheName.contains("submission") || cacheName.contains("attendance") ||
-                            cacheName.contains("assignment")) {
+                    if ((cacheName.contains("submission") || cacheName.contains("attendance") ||
+                            cacheName.contains("assignment")) && !AttendanceCacheService.SEGMENT_CACHES.contains(cacheName)) {
                         cache.clear();
                         logger.debug("Cleared cache: {}", cacheName);
                     }
@@ -54,5 +81,127 @@ public class ScheduledTaskService {
         }
     }
 
+    /**
+     * Recompute attendance counters from the attendance table every night to correct any drift
+     */
+    @Scheduled(cron = "0 30 2 * * *") // Every day at 02:30
+    public void rebuildAttendanceCounters() {
+        logger.info("Starting attendance counter rebuild");
 
+        try {
+            attendanceCounterService.rebuild();
+        } catch (Exception e) {
+            logger.error("Error during attendance counter rebuild: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Start a fresh in-memory view of today's attendance at midnight
+     */
+    @Scheduled(cron = "0 0 0 * * *") // Every day at midnight
+    public void rollOverTodayAttendance() {
+        try {
+            todayAttendanceView.rollOver();
+        } catch (Exception e) {
+            logger.error("Error during today's attendance rollover: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Persist chronic absence detector state so a restart resumes where it left off
+     */
+    @Scheduled(fixedDelay = 30000) // Every 30 seconds
+    public void checkpointAbsenceDetector() {
+        try {
+            chronicAbsenceDetector.checkpoint();
+        } catch (Exception e) {
+            logger.error("Error during absence detector checkpoint: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retry building the attendance bitmap index after a failed startup build
+     */
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000) // Every minute
+    public void retryAttendanceIndexBuild() {
+        try {
+            if (!attendanceBitmapIndex.isReady()) {
+                attendanceBitmapIndex.rebuildInBackground();
+            }
+        } catch (Exception e) {
+            logger.error("Error scheduling attendance index build: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reload the course catalog, covering course change events this instance missed
+     */
+    @Scheduled(fixedDelay = 300000, initialDelay = 300000) // Every 5 minutes
+    public void refreshCourseCatalog() {
+        try {
+            courseCatalog.refresh();
+        } catch (Exception e) {
+            logger.error("Error during course catalog refresh: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Correct course seat counters that drifted from the enrollment table
+     */
+    @Scheduled(fixedDelay = 300000) // Every 5 minutes
+    public void reconcileCourseSeats() {
+        try {
+            int corrected = courseSeatService.reconcile();
+            logger.info("Course seat reconciliation completed: {} counters corrected", corrected);
+        } catch (Exception e) {
+            logger.error("Error during course seat reconciliation: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reload the waitlists and fill any free seats, covering drops handled by another instance
+     */
+    @Scheduled(fixedDelay = 300000, initialDelay = 60000) // Every 5 minutes
+    public void promoteWaitlistedStudents() {
+        try {
+            waitlistIndex.rebuild();
+            int promoted = 0;
+            for (Long courseId : waitlistIndex.coursesWithWaiting()) {
+                while (courseSeatService.reserve(courseId)) {
+                    if (enrollmentService.promoteNext(courseId).isEmpty()) {
+                        courseSeatService.release(courseId);
+                        break;
+                    }
+                    promoted++;
+                }
+            }
+            if (promoted > 0) {
+                logger.info("Promoted {} waitlisted students", promoted);
+            }
+        } catch (Exception e) {
+            logger.error("Error during waitlist promotion: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Move submission bodies still held in the old submissions columns into submission_contents
+     */
+    @Scheduled(fixedDelay = 600000, initialDelay = 30000) // Every 10 minutes
+    public void migrateSubmissionContent() {
+        try {
+            long moved = 0;
+            Long lastId = 0L;
+            List<Long> ids;
+            while (!(ids = submissionService.findLegacyContentIds(lastId, 500)).isEmpty()) {
+                submissionService.moveLegacyContent(ids);
+                moved += ids.size();
+                lastId = ids.get(ids.size() - 1);
+            }
+            if (moved > 0) {
+                logger.info("Moved {} submission bodies to submission_contents", moved);
+            }
+        } catch (Exception e) {
+            logger.error("Error during submission content migration: {}", e.getMessage(), e);
+        }
+    }
 }
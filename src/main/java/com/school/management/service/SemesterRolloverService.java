@@ -0,0 +1,234 @@
+package com.school.management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.management.dto.SemesterRollover;
+import com.school.management.entity.Enrollment;
+import com.school.management.repository.CourseRepository;
+import com.school.management.repository.EnrollmentRepository;
+import exception.CustomException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * End-of-term rollover: every ENROLLED row of the semester becomes COMPLETED with its grade
+ * kept, and students still on a waitlist are dropped. Courses are taken in id order, a chunk
+ * at a time, and each chunk is updated with set-based statements of at most
+ * {@link #ROW_LIMIT} rows, each in its own transaction, so no lock on {@code enrollments}
+ * is held for long. Progress is checkpointed in Redis after every chunk; starting the
+ * rollover again after a failure or restart resumes after the last finished course.
+ * One run per semester is allowed at a time across instances.
+ */
+@Service
+public class SemesterRolloverService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SemesterRolloverService.class);
+
+    private static final String KEY_PREFIX = "semester-rollover:";
+
+    private static final String LOCK_PREFIX = "semester-rollover-lock:";
+
+    private static final Duration CHECKPOINT_TTL = Duration.ofDays(30);
+
+    private static final Duration LOCK_TTL = Duration.ofMinutes(5);
+
+    private static final int COURSE_CHUNK = 50;
+
+    private static final int ROW_LIMIT = 2000;
+
+    private static final List<Enrollment.EnrollmentStatus> ROLLED_STATUSES =
+            List.of(Enrollment.EnrollmentStatus.ENROLLED, Enrollment.EnrollmentStatus.WAITLISTED);
+
+    // extends the lock only while this run still owns it
+    private static final RedisScript<Long> REFRESH_LOCK = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end " +
+            "return 0", Long.class);
+
+    private static final RedisScript<Long> RELEASE_LOCK = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+            "return 0", Long.class);
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private EnrollmentCacheVersions enrollmentCacheVersions;
+
+    @Autowired
+    private CourseSeatService courseSeatService;
+
+    @Autowired
+    private WaitlistIndex waitlistIndex;
+
+    @Autowired
+    private AttendanceCacheService attendanceCacheService;
+
+    @Autowired
+    private TeacherDashboardService teacherDashboardService;
+
+    @Autowired
+    private EventPublisher eventPublisher;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().name("semester-rollover").daemon().factory());
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts the rollover of the semester in the background, resuming an unfinished one.
+     */
+    public SemesterRollover start(String semester, String academicYear) {
+        String lockKey = LOCK_PREFIX + semester + ":" + academicYear;
+        String token = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(lockKey, token, LOCK_TTL))) {
+            throw new CustomException("rollover of " + semester + " " + academicYear + " is already running");
+        }
+        try {
+            SemesterRollover rollover = getProgress(semester, academicYear)
+                    .filter(previous -> previous.getStatus() != SemesterRollover.Status.COMPLETED)
+                    .orElseGet(() -> {
+                        SemesterRollover fresh = new SemesterRollover();
+                        fresh.setSemester(semester);
+                        fresh.setAcademicYear(academicYear);
+                        fresh.setStartedAt(System.currentTimeMillis());
+                        return fresh;
+                    });
+            rollover.setStatus(SemesterRollover.Status.RUNNING);
+            rollover.setFinishedAt(null);
+            rollover.setMessage(null);
+            rollover.setTotalCourses(courseRepository.countBySemesterAndAcademicYear(semester, academicYear));
+            save(rollover);
+            SemesterRollover snapshot = objectMapper.convertValue(rollover, SemesterRollover.class);
+            executor.submit(() -> run(rollover, lockKey, token));
+            return snapshot;
+        } catch (RuntimeException e) {
+            stringRedisTemplate.execute(RELEASE_LOCK, List.of(lockKey), token);
+            throw e;
+        }
+    }
+
+    /**
+     * Last checkpoint of the semester's rollover, readable from any instance.
+     */
+    public Optional<SemesterRollover> getProgress(String semester, String academicYear) {
+        String json = stringRedisTemplate.opsForValue().get(KEY_PREFIX + semester + ":" + academicYear);
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(json, SemesterRollover.class));
+        } catch (JsonProcessingException e) {
+            logger.warn("Unreadable rollover checkpoint for {} {}: {}", semester, academicYear, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void run(SemesterRollover rollover, String lockKey, String token) {
+        long start = System.currentTimeMillis();
+        try {
+            List<Long> courseIds;
+            while (!(courseIds = courseRepository.findIdsBySemesterAndYearAfter(rollover.getSemester(),
+                    rollover.getAcademicYear(), rollover.getLastCourseId(), Limit.of(COURSE_CHUNK))).isEmpty()) {
+                Long held = stringRedisTemplate.execute(REFRESH_LOCK, List.of(lockKey), token,
+                        String.valueOf(LOCK_TTL.toMillis()));
+                if (held == null || held == 0) {
+                    throw new IllegalStateException("rollover lock expired");
+                }
+                rollChunk(rollover, courseIds);
+                save(rollover);
+            }
+            rollover.setStatus(SemesterRollover.Status.COMPLETED);
+            rollover.setFinishedAt(System.currentTimeMillis());
+            save(rollover);
+            waitlistIndex.rebuild();
+            eventPublisher.publishSemesterRollover(new EventPublisher.SemesterRolloverData(rollover.getSemester(),
+                    rollover.getAcademicYear(), rollover.getProcessedCourses(), rollover.getCompleted(), rollover.getDropped()));
+        } catch (Exception e) {
+            logger.error("Rollover of {} {} failed after course {}: {}", rollover.getSemester(), rollover.getAcademicYear(),
+                    rollover.getLastCourseId(), e.getMessage(), e);
+            rollover.setStatus(SemesterRollover.Status.FAILED);
+            rollover.setMessage(e.getMessage());
+            try {
+                save(rollover);
+            } catch (Exception saveFailure) {
+                logger.error("Unable to store rollover checkpoint: {}", saveFailure.getMessage());
+            }
+        } finally {
+            stringRedisTemplate.execute(RELEASE_LOCK, List.of(lockKey), token);
+        }
+        logger.info("Rollover of {} {} {}: {} courses, {} completed, {} dropped in {} ms", rollover.getSemester(),
+                rollover.getAcademicYear(), rollover.getStatus(), rollover.getProcessedCourses(), rollover.getCompleted(),
+                rollover.getDropped(), System.currentTimeMillis() - start);
+    }
+
+    private void rollChunk(SemesterRollover rollover, List<Long> courseIds) {
+        // read before the update, the rows no longer match afterwards
+        List<Long> enrollmentIds = new ArrayList<>();
+        Set<Long> studentIds = new HashSet<>();
+        for (Object[] row : enrollmentRepository.findIdsByCourseIdInAndStatusIn(courseIds, ROLLED_STATUSES)) {
+            enrollmentIds.add((Long) row[0]);
+            studentIds.add((Long) row[1]);
+        }
+        long completed = drain(limit -> enrollmentRepository.completeEnrolled(courseIds, limit));
+        long dropped = drain(limit -> enrollmentRepository.dropWaitlisted(courseIds, limit));
+
+        rollover.setCompleted(rollover.getCompleted() + completed);
+        rollover.setDropped(rollover.getDropped() + dropped);
+        rollover.setProcessedCourses(rollover.getProcessedCourses() + courseIds.size());
+        rollover.setLastCourseId(courseIds.get(courseIds.size() - 1));
+
+        if (completed + dropped > 0) {
+            enrollmentCacheVersions.bumpBatch(studentIds, courseIds, enrollmentIds);
+            for (Long courseId : courseIds) {
+                courseSeatService.reset(courseId);
+                attendanceCacheService.evictCourseSummary(courseId);
+                teacherDashboardService.evictForCourse(courseId);
+            }
+        }
+    }
+
+    // repeats a limited update until it touches fewer rows than the limit
+    private static long drain(IntUnaryOperator update) {
+        long total = 0;
+        int updated;
+        do {
+            updated = update.applyAsInt(ROW_LIMIT);
+            total += updated;
+        } while (updated == ROW_LIMIT);
+        return total;
+    }
+
+    private void save(SemesterRollover rollover) {
+        try {
+            stringRedisTemplate.opsForValue().set(KEY_PREFIX + rollover.getSemester() + ":" + rollover.getAcademicYear(),
+                    objectMapper.writeValueAsString(rollover), CHECKPOINT_TTL);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
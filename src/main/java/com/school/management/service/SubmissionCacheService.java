@@ -0,0 +1,74 @@
+package com.school.management.service;
+
+import com.school.management.dto.CourseView;
+import com.school.management.repository.AssignmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+
+/**
+ * Evicts only the submission cache entries a grading run can affect, instead of clearing
+ * every submission cache.
+ */
+@Service
+public class SubmissionCacheService {
+
+    // listings hold SubmissionSummary since bodies moved out of submissions; the -v2 names keep
+    // entries cached as full Submission lists by older instances from being read as summaries
+    public static final String BY_STUDENT = "submissions-by-student-v2";
+    public static final String BY_ASSIGNMENT = "submissions-by-assignment-v2";
+    public static final String BY_COURSE = "submissions-by-course-v2";
+    public static final String BY_STUDENT_COURSE = "submissions-by-student-course-v2";
+    public static final String UNGRADED = "ungraded-submissions-v2";
+    public static final String UNGRADED_BY_ASSIGNMENT = "ungraded-submissions-by-assignment-v2";
+    public static final String LATE = "late-submissions-v2";
+    public static final String PENDING_GRADES_COUNT = "pending-grades-count";
+    public static final String AVERAGE_GRADE = "average-grade-by-assignment";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CourseCatalog courseCatalog;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    /**
+     * Evicts the listings and aggregates that show grades of these students on this assignment.
+     */
+    public void evictGrades(Long assignmentId, Collection<Long> studentIds) {
+        Long courseId = assignmentRepository.findCourseIdById(assignmentId);
+        evictKey(BY_ASSIGNMENT, assignmentId);
+        evictKey(UNGRADED_BY_ASSIGNMENT, assignmentId);
+        evictKey(AVERAGE_GRADE, assignmentId);
+        evictKey(BY_COURSE, courseId);
+        // keyless @Cacheable methods are stored under SimpleKey.EMPTY
+        evictKey(UNGRADED, SimpleKey.EMPTY);
+        evictKey(LATE, SimpleKey.EMPTY);
+        for (Long studentId : studentIds) {
+            evictKey(BY_STUDENT, studentId);
+        }
+        if (courseId != null) {
+            courseCatalog.findById(courseId).map(CourseView::getTeacherId)
+                    .ifPresent(teacherId -> evictKey(PENDING_GRADES_COUNT, teacherId));
+            for (Long studentId : studentIds) {
+                evictKey(BY_STUDENT_COURSE, studentId + "-" + courseId);
+            }
+        }
+    }
+
+    private void evictKey(String cacheName, Object key) {
+        if (key == null) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.school.management.service;
+
+import com.school.management.dto.SubmissionCompressionJob;
+import com.school.management.entity.CompressedTextConverter;
+import exception.CustomException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Re-encodes submission bodies still stored in the plain {@code content} column into the
+ * compressed {@code body} column, a batch of rows per statement batch. A row rewritten
+ * through the entity in the meantime is skipped, and a stopped job simply starts over
+ * with the rows that are still plain. One job runs at a time on an instance.
+ */
+@Service
+public class SubmissionCompressionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionCompressionService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String SELECT_PLAIN_SQL =
+            "SELECT submission_id, content FROM submission_contents WHERE submission_id > ? AND content IS NOT NULL " +
+            "ORDER BY submission_id LIMIT ?";
+
+    private static final String ENCODE_SQL =
+            "UPDATE submission_contents SET body = ?, content = NULL WHERE submission_id = ? AND content IS NOT NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().name("submission-compression").daemon().factory());
+
+    private SubmissionCompressionJob current;
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public synchronized SubmissionCompressionJob start() {
+        if (current != null && current.getStatus() == SubmissionCompressionJob.Status.RUNNING) {
+            throw new CustomException("submission compression is already running");
+        }
+        SubmissionCompressionJob job = new SubmissionCompressionJob();
+        Long plain = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM submission_contents WHERE content IS NOT NULL", Long.class);
+        job.setTotalRows(plain != null ? plain : 0);
+        job.setStartedAt(System.currentTimeMillis());
+        current = job;
+        executor.submit(() -> run(job));
+        return snapshot(job);
+    }
+
+    public synchronized Optional<SubmissionCompressionJob> getJob() {
+        return Optional.ofNullable(current).map(SubmissionCompressionService::snapshot);
+    }
+
+    private void run(SubmissionCompressionJob job) {
+        try {
+            long lastId = 0;
+            List<Object[]> rows;
+            while (!(rows = jdbcTemplate.query(SELECT_PLAIN_SQL,
+                    (rs, rowNum) -> new Object[] {rs.getLong(1), rs.getString(2)}, lastId, BATCH_SIZE)).isEmpty()) {
+                List<Object[]> updates = new ArrayList<>(rows.size());
+                long before = 0;
+                long after = 0;
+                long compressed = 0;
+                for (Object[] row : rows) {
+                    String content = (String) row[1];
+                    byte[] encoded = CompressedTextConverter.encode(content);
+                    before += content.getBytes(StandardCharsets.UTF_8).length;
+                    after += encoded.length;
+                    if (encoded[0] == CompressedTextConverter.DEFLATE) {
+                        compressed++;
+                    }
+                    updates.add(new Object[] {encoded, row[0]});
+                }
+                jdbcTemplate.batchUpdate(ENCODE_SQL, updates);
+                lastId = (Long) rows.get(rows.size() - 1)[0];
+                synchronized (this) {
+                    job.setProcessedRows(job.getProcessedRows() + rows.size());
+                    job.setCompressedRows(job.getCompressedRows() + compressed);
+                    job.setBytesBefore(job.getBytesBefore() + before);
+                    job.setBytesAfter(job.getBytesAfter() + after);
+                }
+            }
+            synchronized (this) {
+                job.setStatus(SubmissionCompressionJob.Status.COMPLETED);
+            }
+        } catch (Exception e) {
+            logger.error("Submission compression failed: {}", e.getMessage(), e);
+            synchronized (this) {
+                job.setStatus(SubmissionCompressionJob.Status.FAILED);
+                job.setMessage(e.getMessage());
+            }
+        } finally {
+            synchronized (this) {
+                job.setFinishedAt(System.currentTimeMillis());
+            }
+        }
+        logger.info("Submission compression {}: {} rows, {} compressed, {} bytes -> {} bytes in {} ms", job.getStatus(),
+                job.getProcessedRows(), job.getCompressedRows(), job.getBytesBefore(), job.getBytesAfter(),
+                job.getFinishedAt() - job.getStartedAt());
+    }
+
+    private static SubmissionCompressionJob snapshot(SubmissionCompressionJob job) {
+        SubmissionCompressionJob copy = new SubmissionCompressionJob();
+        copy.setStatus(job.getStatus());
+        copy.setTotalRows(job.getTotalRows());
+        copy.setProcessedRows(job.getProcessedRows());
+        copy.setCompressedRows(job.getCompressedRows());
+        copy.setBytesBefore(job.getBytesBefore());
+        copy.setBytesAfter(job.getBytesAfter());
+        copy.setStartedAt(job.getStartedAt());
+        copy.setFinishedAt(job.getFinishedAt());
+        copy.setMessage(job.getMessage());
+        return copy;
+    }
+}
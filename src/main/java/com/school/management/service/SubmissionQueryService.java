@@ -0,0 +1,66 @@
+package com.school.management.service;
+
+import com.school.management.dto.SubmissionSummary;
+import com.school.management.repository.SubmissionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Submission listings. Every query selects {@link SubmissionSummary} rows, so neither the
+ * database nor the cache ever carries submission bodies for a table view.
+ */
+@Service
+public class SubmissionQueryService {
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    public Page<SubmissionSummary> getAllSubmissions(Pageable pageable) {
+        return submissionRepository.findAllSummaries(pageable);
+    }
+
+    public List<SubmissionSummary> getSubmissionsAfter(Long lastId, int limit) {
+        return submissionRepository.findSummariesAfterId(lastId, Limit.of(limit));
+    }
+
+    @Cacheable(value = SubmissionCacheService.BY_STUDENT, key = "#studentId")
+    public List<SubmissionSummary> getSubmissionsByStudent(Long studentId) {
+        return submissionRepository.findSummariesByStudent(studentId);
+    }
+
+    @Cacheable(value = SubmissionCacheService.BY_ASSIGNMENT, key = "#assignmentId")
+    public List<SubmissionSummary> getSubmissionsByAssignment(Long assignmentId) {
+        return submissionRepository.findSummariesByAssignment(assignmentId);
+    }
+
+    @Cacheable(value = SubmissionCacheService.BY_COURSE, key = "#courseId")
+    public List<SubmissionSummary> getSubmissionsByCourse(Long courseId) {
+        return submissionRepository.findSummariesByCourse(courseId);
+    }
+
+    @Cacheable(value = SubmissionCacheService.BY_STUDENT_COURSE, key = "#studentId + '-' + #courseId")
+    public List<SubmissionSummary> getSubmissionsByStudentAndCourse(Long studentId, Long courseId) {
+        return submissionRepository.findSummariesByStudentAndCourse(studentId, courseId);
+    }
+
+    @Cacheable(value = SubmissionCacheService.UNGRADED)
+    public List<SubmissionSummary> getUngradedSubmissions() {
+        return submissionRepository.findUngradedSummaries();
+    }
+
+    @Cacheable(value = SubmissionCacheService.UNGRADED_BY_ASSIGNMENT, key = "#assignmentId")
+    public List<SubmissionSummary> getUngradedSubmissionsByAssignment(Long assignmentId) {
+        return submissionRepository.findUngradedSummariesByAssignment(assignmentId);
+    }
+
+    @Cacheable(value = SubmissionCacheService.LATE)
+    public List<SubmissionSummary> getLateSubmissions() {
+        return submissionRepository.findLateSummaries();
+    }
+}
@@ -0,0 +1,228 @@
+package com.school.management.service;
+
+import com.school.management.dto.GradeEntry;
+import com.school.management.entity.CompressedTextConverter;
+import com.school.management.entity.Submission;
+import com.school.management.entity.SubmissionContent;
+import com.school.management.repository.SubmissionContentRepository;
+import com.school.management.repository.SubmissionRepository;
+import exception.CustomException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Submission writes and single-submission reads. The body and feedback live in
+ * {@link SubmissionContent}; this service keeps the two rows in step and fills the
+ * transient fields of a {@link Submission} that is opened.
+ * Rows written before the split still carry their body in the old {@code submissions}
+ * columns until {@link #moveLegacyContent(List)} has moved it.
+ */
+@Service
+public class SubmissionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionService.class);
+
+    private static final String SELECT_LEGACY_SQL =
+            "SELECT id, content, feedback FROM submissions WHERE id IN (%s)";
+
+    // never overwrites a body already written through the new table
+    private static final String MOVE_LEGACY_SQL =
+            "INSERT INTO submission_contents (submission_id, body, feedback) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE submission_id = submission_id";
+
+    private static final String GRADE_SQL =
+            "UPDATE submissions SET grade = ?, graded_at = ?, graded_by = ? WHERE id = ?";
+
+    private static final String FEEDBACK_SQL =
+            "INSERT INTO submission_contents (submission_id, feedback) VALUES (?, ?) " +
+            "ON DUPLICATE KEY UPDATE feedback = VALUES(feedback)";
+
+    private static final int MAX_GRADES = 1000;
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final String CLEAR_LEGACY_SQL =
+            "UPDATE submissions SET content = NULL, feedback = NULL WHERE id IN (%s)";
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private SubmissionContentRepository submissionContentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean legacyColumns;
+
+    /**
+     * Outcome of a bulk grading run, with what the caller needs for cache invalidation.
+     */
+    public record GradedBatch(Set<Long> studentIds, int graded) {}
+
+    /**
+     * Loads one submission with its body and feedback.
+     */
+    public Optional<Submission> getSubmission(Long id) {
+        Optional<Submission> submission = submissionRepository.findById(id);
+        if (submission.isEmpty()) {
+            return submission;
+        }
+        findContent(id).ifPresent(body -> {
+            submission.get().setContent(body.getContent());
+            submission.get().setFeedback(body.getFeedback());
+        });
+        return submission;
+    }
+
+    @Transactional
+    public Submission create(Submission submission) {
+        Submission saved = submissionRepository.save(submission);
+        submissionContentRepository.save(new SubmissionContent(saved.getId(), submission.getContent(), null));
+        saved.setContent(submission.getContent());
+        return saved;
+    }
+
+    @Transactional
+    public Submission updateContent(Submission submission, String content) {
+        submission.setSubmittedAt(LocalDateTime.now());
+        Submission saved = submissionRepository.save(submission);
+        SubmissionContent body = findContent(saved.getId())
+                .orElseGet(() -> new SubmissionContent(saved.getId(), null, null));
+        body.setContent(content);
+        submissionContentRepository.save(body);
+        saved.setContent(body.getContent());
+        saved.setFeedback(body.getFeedback());
+        return saved;
+    }
+
+    @Transactional
+    public Submission grade(Submission submission, String grade, String feedback, String gradedBy) {
+        submission.setGrade(grade);
+        submission.setGradedAt(LocalDateTime.now());
+        submission.setGradedBy(gradedBy);
+        Submission saved = submissionRepository.save(submission);
+        SubmissionContent body = findContent(saved.getId())
+                .orElseGet(() -> new SubmissionContent(saved.getId(), null, null));
+        body.setFeedback(feedback);
+        submissionContentRepository.save(body);
+        saved.setContent(body.getContent());
+        saved.setFeedback(body.getFeedback());
+        return saved;
+    }
+
+    /**
+     * Grades many submissions of one assignment in a single transaction with two statement
+     * batches, one for the grades and one for the feedback. Every submission must belong to
+     * the assignment, otherwise nothing is graded.
+     */
+    @Transactional
+    public GradedBatch gradeAll(Long assignmentId, List<GradeEntry> entries, String gradedBy) {
+        if (entries == null || entries.isEmpty()) {
+            throw new CustomException("no grades given");
+        }
+        if (entries.size() > MAX_GRADES) {
+            throw new CustomException("at most " + MAX_GRADES + " grades per request");
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (GradeEntry entry : entries) {
+            if (entry.getSubmissionId() == null || entry.getGrade() == null || entry.getGrade().isBlank()) {
+                throw new CustomException("submissionId and grade are required");
+            }
+            if (!ids.add(entry.getSubmissionId())) {
+                throw new CustomException("submission " + entry.getSubmissionId() + " is graded twice");
+            }
+        }
+        Map<Long, Long> studentBySubmission = new HashMap<>();
+        for (Object[] row : submissionRepository.findStudentIdsByAssignmentIdAndIdIn(assignmentId, ids)) {
+            studentBySubmission.put((Long) row[0], (Long) row[1]);
+        }
+        if (studentBySubmission.size() != ids.size()) {
+            List<Long> unknown = ids.stream().filter(id -> !studentBySubmission.containsKey(id)).toList();
+            throw new CustomException("submissions not found for this assignment: " + unknown);
+        }
+        if (hasLegacyColumns()) {
+            // feedback rows must not be created ahead of the body they would hide
+            moveLegacyContent(new ArrayList<>(ids));
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(GRADE_SQL, entries, BATCH_SIZE, (ps, entry) -> {
+            ps.setString(1, entry.getGrade());
+            ps.setTimestamp(2, now);
+            ps.setString(3, gradedBy);
+            ps.setLong(4, entry.getSubmissionId());
+        });
+        jdbcTemplate.batchUpdate(FEEDBACK_SQL, entries, BATCH_SIZE, (ps, entry) -> {
+            ps.setLong(1, entry.getSubmissionId());
+            ps.setString(2, entry.getFeedback());
+        });
+        return new GradedBatch(new HashSet<>(studentBySubmission.values()), entries.size());
+    }
+
+    @Transactional
+    public void delete(Long id) {
+        if (submissionContentRepository.existsById(id)) {
+            submissionContentRepository.deleteById(id);
+        }
+        submissionRepository.deleteById(id);
+    }
+
+    /**
+     * Next submissions whose body is still in the old columns, in id order.
+     */
+    public List<Long> findLegacyContentIds(Long afterId, int limit) {
+        if (!hasLegacyColumns()) {
+            return Collections.emptyList();
+        }
+        return jdbcTemplate.queryForList("SELECT id FROM submissions WHERE id > ? " +
+                "AND (content IS NOT NULL OR feedback IS NOT NULL) ORDER BY id LIMIT ?", Long.class, afterId, limit);
+    }
+
+    /**
+     * Copies the old-column body of the submissions into submission_contents, compressed, and
+     * clears the old columns.
+     */
+    @Transactional
+    public void moveLegacyContent(List<Long> ids) {
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Object[] args = ids.toArray();
+        List<Object[]> rows = jdbcTemplate.query(String.format(SELECT_LEGACY_SQL, placeholders),
+                (rs, rowNum) -> new Object[] {rs.getLong(1),
+                        CompressedTextConverter.encode(rs.getString(2)), rs.getString(3)}, args);
+        jdbcTemplate.batchUpdate(MOVE_LEGACY_SQL, rows);
+        jdbcTemplate.update(String.format(CLEAR_LEGACY_SQL, placeholders), args);
+    }
+
+    // a submission the migration job has not reached yet is moved first, so its old body is not lost
+    private Optional<SubmissionContent> findContent(Long id) {
+        Optional<SubmissionContent> content = submissionContentRepository.findById(id);
+        if (content.isEmpty() && hasLegacyColumns()) {
+            moveLegacyContent(List.of(id));
+            content = submissionContentRepository.findById(id);
+        }
+        return content;
+    }
+
+    // the old columns stay in the schema until dropped by hand; a fresh schema never had them
+    private boolean hasLegacyColumns() {
+        Boolean present = legacyColumns;
+        if (present == null) {
+            Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.columns " +
+                    "WHERE table_schema = DATABASE() AND table_name = 'submissions' AND column_name = 'content'", Integer.class);
+            present = count != null && count > 0;
+            legacyColumns = present;
+            if (present) {
+                logger.info("submissions.content still present, submission bodies are moved on access and by the migration job");
+            }
+        }
+        return present;
+    }
+}
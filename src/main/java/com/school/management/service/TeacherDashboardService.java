@@ -0,0 +1,83 @@
+package com.school.management.service;
+
+import com.school.management.dto.CourseView;
+import com.school.management.dto.TeacherDashboard;
+import com.school.management.repository.AssignmentRepository;
+import com.school.management.repository.CourseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Builds the teacher dashboard from one aggregate query over the teacher's active courses
+ * and caches it per teacher. Enrollment, submission, assignment and course writes evict
+ * only the dashboard of the teacher who owns the course.
+ */
+@Service
+public class TeacherDashboardService {
+
+    public static final String DASHBOARD = "teacher-dashboard";
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private CourseCatalog courseCatalog;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Cacheable(value = DASHBOARD, key = "#teacherId")
+    public TeacherDashboard getDashboard(Long teacherId) {
+        TeacherDashboard dashboard = new TeacherDashboard();
+        dashboard.setTeacherId(teacherId);
+        for (Object[] result : courseRepository.summarizeTeacherCourses(teacherId, LocalDateTime.now())) {
+            TeacherDashboard.CourseRow row = new TeacherDashboard.CourseRow();
+            row.setCourseId((Long) result[0]);
+            row.setCourseCode((String) result[1]);
+            row.setCourseName((String) result[2]);
+            row.setEnrolledCount(((Number) result[3]).longValue());
+            row.setUngradedCount(((Number) result[4]).longValue());
+            row.setNextDueDate((LocalDateTime) result[5]);
+            row.setNextAssignmentTitle((String) result[6]);
+            dashboard.getCourses().add(row);
+            dashboard.setEnrolledStudents(dashboard.getEnrolledStudents() + row.getEnrolledCount());
+            dashboard.setUngradedSubmissions(dashboard.getUngradedSubmissions() + row.getUngradedCount());
+        }
+        return dashboard;
+    }
+
+    public void evictTeacher(Long teacherId) {
+        if (teacherId == null) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(DASHBOARD);
+        if (cache != null) {
+            cache.evict(teacherId);
+        }
+    }
+
+    /**
+     * Evicts the dashboard of the course's teacher, resolved from the course catalog.
+     */
+    public void evictForCourse(Long courseId) {
+        if (courseId == null) {
+            return;
+        }
+        courseCatalog.findById(courseId).map(CourseView::getTeacherId).ifPresent(this::evictTeacher);
+    }
+
+    public void evictForAssignment(Long assignmentId) {
+        if (assignmentId == null) {
+            return;
+        }
+        evictForCourse(assignmentRepository.findCourseIdById(assignmentId));
+    }
+}
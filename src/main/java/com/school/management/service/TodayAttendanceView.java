@@ -0,0 +1,166 @@
+package com.school.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.management.constant.Constant.AttendanceStatus;
+import com.school.management.dto.AttendanceView;
+import com.school.management.repository.AttendanceRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Today's attendance per course, held in process so reads for the current date never reach
+ * MySQL or Redis. Kept current by {@link AttendanceService} after each local commit and by
+ * the attendance-events topic for writes committed on other instances; every instance reads
+ * the topic in its own consumer group. Rolled over at midnight by {@link ScheduledTaskService}.
+ * Until a day has loaded, or when the rollover is late, {@link #find} is empty and callers use
+ * the regular cached path.
+ */
+@Service
+public class TodayAttendanceView {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodayAttendanceView.class);
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile Day current = new Day(LocalDate.now());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rollOver();
+    }
+
+    /**
+     * Switches to the current date and loads whatever is already marked for it.
+     * Writes that arrive while loading land in the new day and take precedence.
+     */
+    public void rollOver() {
+        Day day = new Day(LocalDate.now());
+        current = day;
+        try {
+            for (AttendanceView view : attendanceRepository.findViewsByDate(day.date)) {
+                if (!day.removed.contains(view.getId())) {
+                    day.course(view.getCourseId()).putIfAbsent(view.getId(), view);
+                }
+            }
+            day.ready = true;
+            logger.info("Today's attendance view loaded for {}: {} courses", day.date, day.byCourse.size());
+        } catch (Exception e) {
+            logger.error("Unable to load today's attendance view for {}: {}", day.date, e.getMessage(), e);
+        }
+    }
+
+    // a fresh group per instance starting at the latest offset: the startup load covers what came before
+    @KafkaListener(topics = EventPublisher.ATTENDANCE_EVENTS_TOPIC,
+            groupId = "today-attendance-#{T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void consume(ConsumerRecord<String, Object> record, Acknowledgment acknowledgment) {
+        Object value = record.value();
+        Object data = value instanceof EventPublisher.SchoolEvent<?> event ? event.getData() : value;
+        try {
+            if (data != null) {
+                apply(objectMapper.convertValue(data, EventPublisher.AttendanceChangeData.class));
+            }
+        } catch (IllegalArgumentException e) {
+            logger.warn("Skipping unreadable attendance event at offset {}: {}", record.offset(), e.getMessage());
+        }
+        acknowledgment.acknowledge();
+    }
+
+    private void apply(EventPublisher.AttendanceChangeData change) {
+        if (change.getAttendanceId() == null || change.getDate() == null) {
+            return;
+        }
+        LocalDate date = LocalDate.parse(change.getDate());
+        if (change.getStatus() == null) {
+            remove(change.getAttendanceId(), change.getCourseId(), date);
+        } else {
+            record(new AttendanceView(change.getAttendanceId(), change.getStudentId(), change.getCourseId(), date,
+                    AttendanceStatus.valueOf(change.getStatus()), change.getMarkedBy()));
+        }
+    }
+
+    public boolean isToday(LocalDate date) {
+        return current.date.equals(date);
+    }
+
+    /**
+     * All of the date's attendance ordered by course and id, empty unless date is the loaded current day.
+     */
+    public Optional<List<AttendanceView>> find(LocalDate date) {
+        Day day = current;
+        if (!day.ready || !day.date.equals(date)) {
+            return Optional.empty();
+        }
+        List<AttendanceView> views = new ArrayList<>();
+        day.byCourse.values().forEach(course -> views.addAll(course.values()));
+        return Optional.of(views);
+    }
+
+    public void record(AttendanceView view) {
+        Day day = current;
+        if (view.getId() == null || view.getCourseId() == null || !day.date.equals(view.getDate())) {
+            return;
+        }
+        day.course(view.getCourseId()).put(view.getId(), view);
+    }
+
+    /**
+     * Adds rows read back after batch writes, which do not return generated ids. Rows already
+     * present came from a later single write and are kept.
+     */
+    public void recordNew(LocalDate date, List<AttendanceView> views) {
+        Day day = current;
+        if (!day.date.equals(date)) {
+            return;
+        }
+        for (AttendanceView view : views) {
+            if (view.getId() != null && view.getCourseId() != null && !day.removed.contains(view.getId())) {
+                day.course(view.getCourseId()).putIfAbsent(view.getId(), view);
+            }
+        }
+    }
+
+    public void remove(Long id, Long courseId, LocalDate date) {
+        Day day = current;
+        if (id == null || !day.date.equals(date)) {
+            return;
+        }
+        day.removed.add(id);
+        if (courseId != null) {
+            day.course(courseId).remove(id);
+        }
+    }
+
+    private static final class Day {
+        private final LocalDate date;
+        // course id -> attendance id -> row, both ordered like the by-date query
+        private final Map<Long, Map<Long, AttendanceView>> byCourse = new ConcurrentSkipListMap<>();
+        // deletions seen during the day, so a slower initial load cannot resurrect them
+        private final Set<Long> removed = ConcurrentHashMap.newKeySet();
+        private volatile boolean ready;
+
+        private Day(LocalDate date) {
+            this.date = date;
+        }
+
+        private Map<Long, AttendanceView> course(Long courseId) {
+            return byCourse.computeIfAbsent(courseId, k -> new ConcurrentSkipListMap<>());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.school.management.service;
+
+import com.school.management.repository.EnrollmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory order of every course waitlist, so a student can see their place without
+ * scanning enrollments. The enrollments table stays authoritative: promotion locks the
+ * head row there, and {@link #rebuild()} reloads the index to pick up waitlist changes
+ * made by other instances. Positions are allocated from a Redis counter per course so
+ * every instance appends to the same sequence.
+ */
+@Service
+public class WaitlistIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistIndex.class);
+
+    private static final Comparator<Entry> ORDER =
+            Comparator.comparingLong(Entry::position).thenComparingLong(Entry::enrollmentId);
+
+    private static final String POSITION_PREFIX = "waitlist-position:";
+
+    // -1 when the counter is not seeded yet, otherwise the last of the ARGV[1] positions just taken
+    private static final RedisScript<Long> ALLOCATE = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+            "return redis.call('INCRBY', KEYS[1], ARGV[1])", Long.class);
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    private volatile Map<Long, NavigableSet<Entry>> byCourse = new ConcurrentHashMap<>();
+
+    public record Entry(long position, long enrollmentId, long studentId) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Unable to build waitlist index: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reloads every waitlist from the enrollments table. Mutations are held off while the
+     * (small) WAITLISTED set is read, so none are lost to the swap.
+     */
+    public synchronized void rebuild() {
+        Map<Long, NavigableSet<Entry>> rebuilt = new ConcurrentHashMap<>();
+        for (Object[] row : enrollmentRepository.findWaitlistEntries()) {
+            Long courseId = (Long) row[0];
+            long position = row[3] != null ? (Long) row[3] : Long.MAX_VALUE;
+            rebuilt.computeIfAbsent(courseId, k -> new ConcurrentSkipListSet<>(ORDER))
+                    .add(new Entry(position, (Long) row[1], (Long) row[2]));
+        }
+        byCourse = rebuilt;
+        logger.info("Waitlist index rebuilt: {} courses with waiting students", rebuilt.size());
+    }
+
+    /**
+     * Hands out the next waitlist position of the course.
+     */
+    public long nextPosition(Long courseId) {
+        return nextPositions(courseId, 1);
+    }
+
+    /**
+     * Reserves count consecutive positions at the end of the course waitlist.
+     *
+     * @return the first reserved position
+     */
+    public long nextPositions(Long courseId, int count) {
+        String key = POSITION_PREFIX + courseId;
+        try {
+            Long last = stringRedisTemplate.execute(ALLOCATE, List.of(key), String.valueOf(count));
+            if (last != null && last == -1) {
+                Long max = enrollmentRepository.findMaxWaitlistPosition(courseId);
+                stringRedisTemplate.opsForValue().setIfAbsent(key, String.valueOf(max != null ? max : 0L));
+                last = stringRedisTemplate.execute(ALLOCATE, List.of(key), String.valueOf(count));
+            }
+            if (last != null && last > 0) {
+                return last - count + 1;
+            }
+        } catch (DataAccessException e) {
+            // Redis unavailable: positions may tie with another instance, the enrollment id breaks the tie
+            logger.warn("Waitlist position counter unavailable for course {}, using the database: {}", courseId, e.getMessage());
+        }
+        Long max = enrollmentRepository.findMaxWaitlistPosition(courseId);
+        return (max != null ? max : 0L) + 1;
+    }
+
+    public synchronized void add(Long courseId, Entry entry) {
+        byCourse.computeIfAbsent(courseId, k -> new ConcurrentSkipListSet<>(ORDER)).add(entry);
+    }
+
+    public synchronized void remove(Long courseId, Long enrollmentId) {
+        NavigableSet<Entry> waitlist = byCourse.get(courseId);
+        if (waitlist == null) {
+            return;
+        }
+        waitlist.removeIf(entry -> entry.enrollmentId() == enrollmentId);
+        if (waitlist.isEmpty()) {
+            byCourse.remove(courseId);
+        }
+    }
+
+    public Set<Long> coursesWithWaiting() {
+        return Set.copyOf(byCourse.keySet());
+    }
+
+    /**
+     * 1-based place of the enrollment on its course waitlist, empty when it is not waiting.
+     */
+    public OptionalInt rankOf(Long courseId, Long enrollmentId) {
+        NavigableSet<Entry> waitlist = byCourse.get(courseId);
+        if (waitlist == null) {
+            return OptionalInt.empty();
+        }
+        int rank = 1;
+        for (Entry entry : waitlist) {
+            if (entry.enrollmentId() == enrollmentId) {
+                return OptionalInt.of(rank);
+            }
+            rank++;
+        }
+        return OptionalInt.empty();
+    }
+}
@@ -0,0 +1,76 @@
+package com.school.management.dto;
+
+import exception.CustomException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorPageTest {
+
+    @Test
+    void cursorRoundTrips() {
+        for (long id : new long[] {1L, 42L, 1_000_000_007L, Long.MAX_VALUE}) {
+            String cursor = CursorPage.encodeCursor(id);
+
+            assertThat(cursor).matches("[A-Za-z0-9_-]+");
+            assertThat(CursorPage.decodeCursor(cursor)).isEqualTo(id);
+        }
+    }
+
+    @Test
+    void missingCursorStartsFromTheBeginning() {
+        assertThat(CursorPage.decodeCursor(null)).isZero();
+        assertThat(CursorPage.decodeCursor("")).isZero();
+        assertThat(CursorPage.decodeCursor("  ")).isZero();
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        for (String cursor : new String[] {"not base64!", encode("offset:10"), encode("id:"), encode("id:abc"), "42"}) {
+            assertThatThrownBy(() -> CursorPage.decodeCursor(cursor))
+                    .as(cursor)
+                    .isInstanceOf(CustomException.class)
+                    .hasMessage("Invalid cursor");
+        }
+    }
+
+    @Test
+    void extraRowSignalsNextPage() {
+        CursorPage<Long> page = CursorPage.of(List.of(3L, 5L, 8L), 2, Function.identity(), null);
+
+        assertThat(page.getContent()).containsExactly(3L, 5L);
+        assertThat(page.getSize()).isEqualTo(2);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(CursorPage.decodeCursor(page.getNextCursor())).isEqualTo(5L);
+        assertThat(page.getTotalElements()).isNull();
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPage<Long> page = CursorPage.of(List.of(3L, 5L), 2, Function.identity(), 7L);
+
+        assertThat(page.getContent()).containsExactly(3L, 5L);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getTotalElements()).isEqualTo(7L);
+    }
+
+    @Test
+    void sizeIsClamped() {
+        assertThat(CursorPage.clampSize(null)).isEqualTo(CursorPage.DEFAULT_SIZE);
+        assertThat(CursorPage.clampSize(0)).isEqualTo(CursorPage.DEFAULT_SIZE);
+        assertThat(CursorPage.clampSize(-1)).isEqualTo(CursorPage.DEFAULT_SIZE);
+        assertThat(CursorPage.clampSize(50)).isEqualTo(50);
+        assertThat(CursorPage.clampSize(CursorPage.MAX_SIZE + 1)).isEqualTo(CursorPage.MAX_SIZE);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,119 @@
+package com.school.management.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompressedTextConverterTest {
+
+    private final CompressedTextConverter converter = new CompressedTextConverter();
+
+    @Test
+    void shortTextIsStoredRaw() {
+        String text = "public static void main(String[] args) {}";
+
+        byte[] stored = converter.convertToDatabaseColumn(text);
+
+        assertThat(stored[0]).isEqualTo(CompressedTextConverter.RAW);
+        assertThat(stored).hasSize(text.getBytes(StandardCharsets.UTF_8).length + 1);
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(text);
+    }
+
+    @Test
+    void textJustBelowThresholdIsStoredRaw() {
+        String text = "a".repeat(CompressedTextConverter.THRESHOLD_BYTES - 1);
+
+        byte[] stored = converter.convertToDatabaseColumn(text);
+
+        assertThat(stored[0]).isEqualTo(CompressedTextConverter.RAW);
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(text);
+    }
+
+    @Test
+    void compressibleTextAboveThresholdIsDeflated() {
+        String text = "The quick brown fox jumps over the lazy dog. ".repeat(100);
+
+        byte[] stored = converter.convertToDatabaseColumn(text);
+
+        assertThat(stored[0]).isEqualTo(CompressedTextConverter.DEFLATE);
+        assertThat(stored.length).isLessThan(text.length() / 3);
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(text);
+    }
+
+    @Test
+    void multiByteTextRoundTrips() {
+        String text = "\u041f\u0440\u0438\u0432\u0435\u0442, \u092e\u093f\u0924\u094d\u0930! \u4f60\u597d \u2713 ".repeat(200);
+
+        byte[] stored = converter.convertToDatabaseColumn(text);
+
+        assertThat(stored[0]).isEqualTo(CompressedTextConverter.DEFLATE);
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(text);
+    }
+
+    @Test
+    void incompressibleInputIsStoredRaw() {
+        byte[] random = new byte[4 * CompressedTextConverter.THRESHOLD_BYTES];
+        new Random(42).nextBytes(random);
+
+        byte[] stored = CompressedTextConverter.encodeUtf8(random);
+
+        assertThat(stored[0]).isEqualTo(CompressedTextConverter.RAW);
+        assertThat(Arrays.copyOfRange(stored, 1, stored.length)).isEqualTo(random);
+    }
+
+    @Test
+    void highEntropyTextNeverGrowsBeyondTheHeader() {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 2 * CompressedTextConverter.THRESHOLD_BYTES) {
+            int codePoint = random.nextInt(Character.MAX_CODE_POINT);
+            if (codePoint < Character.MIN_SURROGATE || codePoint > Character.MAX_SURROGATE) {
+                text.appendCodePoint(codePoint);
+            }
+        }
+        int utf8Length = text.toString().getBytes(StandardCharsets.UTF_8).length;
+
+        byte[] stored = converter.convertToDatabaseColumn(text.toString());
+
+        assertThat(stored.length).isLessThanOrEqualTo(utf8Length + 1);
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(text.toString());
+    }
+
+    @Test
+    void nullStaysNull() {
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+
+    @Test
+    void emptyTextRoundTripsAndEmptyColumnReadsAsNull() {
+        byte[] stored = converter.convertToDatabaseColumn("");
+
+        assertThat(stored).containsExactly(CompressedTextConverter.RAW);
+        assertThat(converter.convertToEntityAttribute(stored)).isEmpty();
+        assertThat(converter.convertToEntityAttribute(new byte[0])).isNull();
+    }
+
+    @Test
+    void unknownCodecIsRejected() {
+        byte[] stored = {7, 'h', 'i'};
+
+        assertThatThrownBy(() -> converter.convertToEntityAttribute(stored))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Unknown text codec 7");
+    }
+
+    @Test
+    void truncatedDeflateDataIsRejected() {
+        byte[] stored = converter.convertToDatabaseColumn("lorem ipsum dolor sit amet ".repeat(100));
+        byte[] truncated = Arrays.copyOf(stored, stored.length / 2);
+
+        assertThatThrownBy(() -> converter.convertToEntityAttribute(truncated))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,124 @@
+package com.school.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.management.constant.Constant.AttendanceStatus;
+import com.school.management.entity.Attendance;
+import com.school.management.entity.Course;
+import com.school.management.entity.Student;
+import com.school.management.repository.AttendanceRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The index rebuilt from the attendance table on H2, then fed by local commits and attendance-events.
+ */
+@Import(AttendanceBitmapIndex.class)
+class AttendanceBitmapIndexTest extends JpaServiceTestSupport {
+
+    // Monday to Friday, with a Saturday row that is not a school day
+    private static final LocalDate MONDAY = LocalDate.of(2025, 3, 10);
+
+    @TestConfiguration
+    static class JsonConfig {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @Autowired
+    private AttendanceBitmapIndex attendanceBitmapIndex;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @MockitoBean
+    private AcademicCalendar academicCalendar;
+
+    private Student student;
+
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        when(academicCalendar.snapshot()).thenReturn(new CalendarSnapshot(List.of(), List.of(), LocalDate.of(2030, 1, 1)));
+        student = student("S-100", "asha@school.test");
+        course = course("MATH-101", "Algebra");
+        attendanceRepository.saveAll(List.of(
+                new Attendance(student, course, MONDAY, AttendanceStatus.PRESENT),
+                new Attendance(student, course, MONDAY.plusDays(1), AttendanceStatus.ABSENT),
+                new Attendance(student, course, MONDAY.plusDays(2), AttendanceStatus.ABSENT),
+                new Attendance(student, course, MONDAY.plusDays(5), AttendanceStatus.PRESENT)));
+    }
+
+    @Test
+    void rebuildStreamsTheTableOnH2() {
+        attendanceBitmapIndex.rebuild();
+
+        assertThat(attendanceBitmapIndex.isReady()).isTrue();
+        assertThat(attendanceBitmapIndex.countByStatus(student.getId(), course.getId(), MONDAY, MONDAY.plusDays(6)))
+                .containsEntry(AttendanceStatus.PRESENT, 1L)
+                .containsEntry(AttendanceStatus.ABSENT, 2L);
+        assertThat(attendanceBitmapIndex.findDays(student.getId(), course.getId(), AttendanceStatus.ABSENT, MONDAY, MONDAY.plusDays(6)))
+                .containsExactly(MONDAY.plusDays(1), MONDAY.plusDays(2));
+        assertThat(attendanceBitmapIndex.streak(student.getId(), course.getId(), AttendanceStatus.ABSENT, MONDAY.plusDays(4)))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void recordSetsTheDayOutrightSoEchoesAreNoOps() {
+        attendanceBitmapIndex.rebuild();
+
+        attendanceBitmapIndex.record(student.getId(), course.getId(), MONDAY.plusDays(2), AttendanceStatus.LATE);
+        attendanceBitmapIndex.record(student.getId(), course.getId(), MONDAY.plusDays(2), AttendanceStatus.LATE);
+
+        assertThat(attendanceBitmapIndex.countByStatus(student.getId(), course.getId(), MONDAY, MONDAY.plusDays(4)))
+                .containsEntry(AttendanceStatus.PRESENT, 1L)
+                .containsEntry(AttendanceStatus.ABSENT, 1L)
+                .containsEntry(AttendanceStatus.LATE, 1L);
+        assertThat(attendanceBitmapIndex.streak(student.getId(), course.getId(), AttendanceStatus.ABSENT, MONDAY.plusDays(4)))
+                .isZero();
+    }
+
+    @Test
+    void changesFromOtherInstancesArriveOnAttendanceEvents() {
+        attendanceBitmapIndex.rebuild();
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        attendanceBitmapIndex.consume(event(MONDAY.plusDays(3), "ABSENT"), acknowledgment);
+        attendanceBitmapIndex.consume(event(MONDAY, null), acknowledgment);
+
+        assertThat(attendanceBitmapIndex.findDays(student.getId(), course.getId(), AttendanceStatus.ABSENT, MONDAY, MONDAY.plusDays(4)))
+                .containsExactly(MONDAY.plusDays(1), MONDAY.plusDays(2), MONDAY.plusDays(3));
+        assertThat(attendanceBitmapIndex.findDays(student.getId(), course.getId(), AttendanceStatus.PRESENT, MONDAY, MONDAY.plusDays(4)))
+                .isEmpty();
+        assertThat(attendanceBitmapIndex.streak(student.getId(), course.getId(), AttendanceStatus.ABSENT, MONDAY.plusDays(4)))
+                .isEqualTo(3);
+        verify(acknowledgment, times(2)).acknowledge();
+    }
+
+    // status null is a deleted row
+    private ConsumerRecord<String, Object> event(LocalDate date, String status) {
+        EventPublisher.AttendanceChangeData change = new EventPublisher.AttendanceChangeData(null, student.getId(),
+                course.getId(), date.toString(), null, status, "teacher");
+        return new ConsumerRecord<>(EventPublisher.ATTENDANCE_EVENTS_TOPIC, 0, 0L, String.valueOf(student.getId()),
+                new EventPublisher.SchoolEvent<>(EventPublisher.ATTENDANCE_CHANGED_EVENT, change, System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,140 @@
+package com.school.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.management.config.KafkaConfig;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The attendance-ingest container against an embedded broker: a batch whose insert fails must be
+ * delivered again until it is stored, and a batch the database rejects must end up on the DLT.
+ */
+@SpringJUnitConfig
+@EmbeddedKafka(bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@TestPropertySource(properties = {
+        "app.attendance.async-ingest=true",
+        "app.attendance.ingest-retry.initial-interval-ms=20",
+        "app.attendance.ingest-retry.max-interval-ms=50"})
+class AttendanceIngestConsumerTest {
+
+    private static final String DEAD_LETTER_TOPIC = EventPublisher.ATTENDANCE_INGEST_TOPIC + ".DLT";
+
+    @Configuration
+    @EnableKafka
+    @Import({KafkaConfig.class, AttendanceIngestConsumer.class})
+    static class KafkaTestConfig {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @MockitoBean
+    private AttendanceService attendanceService;
+
+    @Test
+    void failedBatchIsRedeliveredUntilStored() throws Exception {
+        when(attendanceService.ingestBatch(argThat(batchOf("S-201"))))
+                .thenThrow(new CannotGetJdbcConnectionException("database unavailable"))
+                .thenReturn(1);
+
+        send("S-201");
+
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() ->
+                verify(attendanceService, times(2)).ingestBatch(argThat(batchOf("S-201"))));
+    }
+
+    @Test
+    void outageLongerThanTheDefaultRetriesLosesNothing() throws Exception {
+        CannotGetJdbcConnectionException outage = new CannotGetJdbcConnectionException("database unavailable");
+        when(attendanceService.ingestBatch(argThat(batchOf("S-202"))))
+                .thenThrow(outage, outage, outage, outage, outage, outage, outage, outage, outage, outage,
+                        outage, outage, outage, outage, outage)
+                .thenReturn(1);
+
+        send("S-202");
+
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() ->
+                verify(attendanceService, times(16)).ingestBatch(argThat(batchOf("S-202"))));
+        try (Consumer<String, String> deadLetters = deadLetterConsumer("outage")) {
+            assertThat(KafkaTestUtils.getRecords(deadLetters, Duration.ofSeconds(2)))
+                    .noneMatch(record -> record.value().contains("S-202"));
+        }
+    }
+
+    @Test
+    void rejectedBatchIsParkedOnTheDeadLetterTopic() throws Exception {
+        when(attendanceService.ingestBatch(argThat(batchOf("S-203"))))
+                .thenThrow(new DataIntegrityViolationException("value too long for column remarks"));
+
+        send("S-203");
+
+        try (Consumer<String, String> deadLetters = deadLetterConsumer("rejected")) {
+            await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> {
+                List<ConsumerRecord<String, String>> parked = new ArrayList<>();
+                KafkaTestUtils.getRecords(deadLetters, Duration.ofMillis(500)).forEach(parked::add);
+                assertThat(parked).anyMatch(record -> record.value().contains("S-203"));
+            });
+        }
+        verify(attendanceService, atLeast(1)).ingestBatch(argThat(batchOf("S-203")));
+    }
+
+    private void send(String studentId) throws Exception {
+        EventPublisher.AttendanceData data = new EventPublisher.AttendanceData(studentId, 7L, "2025-03-10",
+                "PRESENT", null, "teacher", System.currentTimeMillis());
+        kafkaTemplate.send(EventPublisher.ATTENDANCE_INGEST_TOPIC, "7",
+                new EventPublisher.SchoolEvent<>(EventPublisher.MARK_ATTENDANCE_EVENT, data, System.currentTimeMillis())).get();
+    }
+
+    private Consumer<String, String> deadLetterConsumer(String group) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("dead-letters-" + group, "true", embeddedKafka);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new StringDeserializer()).createConsumer();
+        embeddedKafka.consumeFromAnEmbeddedTopic(consumer, DEAD_LETTER_TOPIC);
+        return consumer;
+    }
+
+    private static ArgumentMatcher<List<EventPublisher.AttendanceData>> batchOf(String studentId) {
+        return events -> events != null && events.stream().anyMatch(event -> studentId.equals(event.getStudentId()));
+    }
+}
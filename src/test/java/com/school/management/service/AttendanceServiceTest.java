@@ -0,0 +1,146 @@
+package com.school.management.service;
+
+import com.school.management.constant.Constant.AttendanceStatus;
+import com.school.management.dto.AttendenceDto;
+import com.school.management.entity.AttendanceCounter;
+import com.school.management.entity.Course;
+import com.school.management.entity.Student;
+import com.school.management.repository.AttendanceCounterRepository;
+import com.school.management.repository.AttendanceRepository;
+import exception.CustomException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Duplicate and invalid attendance marks against the real unique key and foreign keys.
+ */
+@Import({AttendanceService.class, AttendanceCounterService.class})
+class AttendanceServiceTest extends JpaServiceTestSupport {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 3, 10);
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private AttendanceCounterRepository attendanceCounterRepository;
+
+    @MockitoBean
+    private AttendanceBitmapIndex attendanceBitmapIndex;
+
+    @MockitoBean
+    private AttendanceCacheService attendanceCacheService;
+
+    @MockitoBean
+    private TodayAttendanceView todayAttendanceView;
+
+    @MockitoBean
+    private EventPublisher eventPublisher;
+
+    private Student student;
+
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        student = student("S-100", "asha@school.test");
+        course = course("MATH-101", "Algebra");
+    }
+
+    @Test
+    void secondMarkOfSameDayIsRejectedAndCountedOnce() {
+        attendanceService.markAttendance(mark(), "teacher");
+
+        assertThatThrownBy(() -> attendanceService.markAttendance(mark(), "teacher"))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("attendance already marked");
+
+        assertThat(attendanceRepository.count()).isEqualTo(1);
+        assertThat(presentCount()).isEqualTo(1);
+        verify(eventPublisher, times(1)).publishAttendanceChange(any());
+        verify(attendanceBitmapIndex, times(1)).record(any(), any(), any(), any());
+    }
+
+    @Test
+    void markForUnknownCourseIsRejectedAsClientError() {
+        AttendenceDto dto = mark();
+        dto.setCourseId(course.getId() + 1000);
+
+        assertThatThrownBy(() -> attendanceService.markAttendance(dto, "teacher"))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("Unable to identify course of this Id");
+        assertThat(attendanceRepository.count()).isZero();
+    }
+
+    @Test
+    void otherIntegrityViolationsAreNotReportedAsUnknownCourse() {
+        AttendenceDto dto = mark();
+        dto.setRemarks("x".repeat(300));
+
+        assertThatThrownBy(() -> attendanceService.markAttendance(dto, "teacher"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(attendanceRepository.count()).isZero();
+    }
+
+    @Test
+    void redeliveredIngestBatchInsertsNothing() {
+        List<EventPublisher.AttendanceData> events = List.of(queued());
+
+        assertThat(attendanceService.ingestBatch(events)).isEqualTo(1);
+        assertThat(attendanceService.ingestBatch(events)).isZero();
+
+        assertThat(attendanceRepository.count()).isEqualTo(1);
+        assertThat(presentCount()).isEqualTo(1);
+        verify(eventPublisher, times(1)).publishAttendanceChange(any());
+    }
+
+    @Test
+    void redeliveredRowByRowIngestSkipsExistingRows() {
+        List<EventPublisher.AttendanceData> events = List.of(queued());
+
+        assertThat(attendanceService.ingestEach(events)).isEqualTo(1);
+        // the slow path is what runs when a retried batch collides, so it must skip the duplicate itself
+        assertThat(attendanceService.ingestEach(events)).isZero();
+
+        assertThat(attendanceRepository.count()).isEqualTo(1);
+        assertThat(presentCount()).isEqualTo(1);
+        verify(eventPublisher, times(1)).publishAttendanceChange(any());
+    }
+
+    private AttendenceDto mark() {
+        AttendenceDto dto = new AttendenceDto();
+        dto.setStudentId(student.getStudentId());
+        dto.setCourseId(course.getId());
+        dto.setDate(DATE);
+        dto.setStatus(AttendanceStatus.PRESENT);
+        return dto;
+    }
+
+    private EventPublisher.AttendanceData queued() {
+        return new EventPublisher.AttendanceData(student.getStudentId(), course.getId(), DATE.toString(),
+                AttendanceStatus.PRESENT.name(), null, "teacher", System.currentTimeMillis());
+    }
+
+    private long presentCount() {
+        return attendanceCounterRepository.findByStudentIdAndCourseId(student.getId(), course.getId()).stream()
+                .filter(counter -> counter.getStatus() == AttendanceStatus.PRESENT)
+                .mapToLong(AttendanceCounter::getDayCount)
+                .sum();
+    }
+}
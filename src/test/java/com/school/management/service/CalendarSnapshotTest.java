@@ -0,0 +1,161 @@
+package com.school.management.service;
+
+import com.school.management.entity.AcademicTerm;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalendarSnapshotTest {
+
+    private static final LocalDate HORIZON = LocalDate.of(2027, 1, 1);
+
+    // Spring 2025 runs Feb 3 to May 30, Fall 2025 Aug 25 to Dec 19; the summer in between is a break
+    private static final AcademicTerm SPRING = new AcademicTerm("Spring", "2024-2025", LocalDate.of(2025, 2, 3), LocalDate.of(2025, 5, 30));
+    private static final AcademicTerm FALL = new AcademicTerm("Fall", "2025-2026", LocalDate.of(2025, 8, 25), LocalDate.of(2025, 12, 19));
+
+    private static final LocalDate HOLIDAY = LocalDate.of(2025, 3, 12); // a Wednesday
+
+    private final CalendarSnapshot calendar = new CalendarSnapshot(List.of(FALL, SPRING), List.of(HOLIDAY), HORIZON);
+
+    @Test
+    void epochMondayIsTheFirstOrdinal() {
+        CalendarSnapshot plain = new CalendarSnapshot(List.of(), List.of(), HORIZON);
+
+        assertThat(plain.ordinalOf(CalendarSnapshot.EPOCH)).isZero();
+        assertThat(plain.ordinalOf(CalendarSnapshot.EPOCH.plusDays(4))).isEqualTo(4);
+        assertThat(plain.ordinalOf(CalendarSnapshot.EPOCH.plusDays(5))).isEqualTo(-1);
+        assertThat(plain.ordinalOf(CalendarSnapshot.EPOCH.plusDays(7))).isEqualTo(5);
+        assertThat(plain.ordinalOf(CalendarSnapshot.EPOCH.minusDays(1))).isEqualTo(-1);
+        assertThat(plain.dateOf(5)).isEqualTo(CalendarSnapshot.EPOCH.plusDays(7));
+    }
+
+    @Test
+    void weekendsHolidaysAndBreaksAreNotSchoolDays() {
+        assertThat(calendar.isSchoolDay(LocalDate.of(2025, 3, 11))).isTrue();
+        assertThat(calendar.isSchoolDay(HOLIDAY)).isFalse();
+        assertThat(calendar.isSchoolDay(LocalDate.of(2025, 3, 15))).isFalse(); // Saturday
+        assertThat(calendar.isSchoolDay(LocalDate.of(2025, 7, 7))).isFalse(); // summer break, a Monday
+        assertThat(calendar.isSchoolDay(LocalDate.of(2025, 5, 30))).isTrue(); // last day of term
+        assertThat(calendar.isSchoolDay(LocalDate.of(2025, 6, 2))).isFalse(); // first Monday of the break
+    }
+
+    @Test
+    void weekdaysOutsideTheConfiguredTermsStaySchoolDays() {
+        assertThat(calendar.isSchoolDay(LocalDate.of(2025, 1, 6))).isTrue(); // before the first term
+        assertThat(calendar.isSchoolDay(LocalDate.of(2026, 1, 5))).isTrue(); // after the last term
+    }
+
+    @Test
+    void ordinalsSkipClosedDays() {
+        int tuesday = calendar.ordinalOf(LocalDate.of(2025, 3, 11));
+
+        assertThat(calendar.ordinalOf(HOLIDAY)).isEqualTo(-1);
+        assertThat(calendar.ordinalOf(LocalDate.of(2025, 3, 13))).isEqualTo(tuesday + 1);
+        assertThat(calendar.ordinalOf(LocalDate.of(2025, 3, 17))).isEqualTo(tuesday + 3);
+        assertThat(calendar.ordinalOf(LocalDate.of(2025, 8, 25))).isEqualTo(calendar.ordinalOf(LocalDate.of(2025, 5, 30)) + 1);
+    }
+
+    @Test
+    void ceilingAndFloorSnapToTheNearestSchoolDay() {
+        LocalDate saturday = LocalDate.of(2025, 3, 15);
+
+        assertThat(calendar.ceilingOrdinal(saturday)).isEqualTo(calendar.ordinalOf(LocalDate.of(2025, 3, 17)));
+        assertThat(calendar.floorOrdinal(saturday)).isEqualTo(calendar.ordinalOf(LocalDate.of(2025, 3, 14)));
+        assertThat(calendar.ceilingOrdinal(HOLIDAY)).isEqualTo(calendar.ordinalOf(LocalDate.of(2025, 3, 13)));
+        assertThat(calendar.floorOrdinal(HOLIDAY)).isEqualTo(calendar.ordinalOf(LocalDate.of(2025, 3, 11)));
+        assertThat(calendar.floorOrdinal(CalendarSnapshot.EPOCH.minusDays(3))).isEqualTo(-1);
+        assertThat(calendar.ceilingOrdinal(CalendarSnapshot.EPOCH.minusDays(3))).isZero();
+        assertThat(calendar.ceilingOrdinal(HORIZON.plusYears(1))).isEqualTo(calendar.floorOrdinal(HORIZON) + 1);
+    }
+
+    @Test
+    void schoolDaysBetweenCountsBothEnds() {
+        assertThat(calendar.schoolDaysBetween(LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 16))).isEqualTo(4);
+        assertThat(calendar.schoolDaysBetween(LocalDate.of(2025, 3, 11), LocalDate.of(2025, 3, 11))).isEqualTo(1);
+        assertThat(calendar.schoolDaysBetween(HOLIDAY, HOLIDAY)).isZero();
+        assertThat(calendar.schoolDaysBetween(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 8, 24))).isZero();
+        assertThat(calendar.schoolDaysBetween(LocalDate.of(2025, 3, 16), LocalDate.of(2025, 3, 10))).isZero();
+    }
+
+    @Test
+    void schoolDaysBetweenMatchesCountingDayByDay() {
+        LocalDate start = LocalDate.of(2024, 12, 1);
+        for (int from = 0; from < 420; from += 13) {
+            for (int length = 0; length < 120; length += 7) {
+                LocalDate first = start.plusDays(from);
+                LocalDate last = first.plusDays(length);
+                int expected = 0;
+                for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+                    expected += isSchoolDay(day) ? 1 : 0;
+                }
+                assertThat(calendar.schoolDaysBetween(first, last)).as("%s..%s", first, last).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void ordinalsRoundTripThroughDates() {
+        for (LocalDate day = LocalDate.of(2024, 12, 1); day.isBefore(LocalDate.of(2026, 2, 1)); day = day.plusDays(1)) {
+            int ordinal = calendar.ordinalOf(day);
+            assertThat(ordinal >= 0).as("%s", day).isEqualTo(isSchoolDay(day));
+            if (ordinal >= 0) {
+                assertThat(calendar.dateOf(ordinal)).isEqualTo(day);
+            }
+        }
+    }
+
+    @Test
+    void plusSchoolDaysSkipsClosedDaysInBothDirections() {
+        LocalDate friday = LocalDate.of(2025, 3, 14);
+        LocalDate saturday = LocalDate.of(2025, 3, 15);
+
+        assertThat(calendar.plusSchoolDays(friday, 1)).contains(LocalDate.of(2025, 3, 17));
+        assertThat(calendar.plusSchoolDays(saturday, 1)).contains(LocalDate.of(2025, 3, 17));
+        assertThat(calendar.plusSchoolDays(saturday, -1)).contains(friday);
+        assertThat(calendar.plusSchoolDays(saturday, 0)).contains(friday);
+        assertThat(calendar.plusSchoolDays(LocalDate.of(2025, 3, 11), 1)).contains(LocalDate.of(2025, 3, 13));
+        assertThat(calendar.plusSchoolDays(LocalDate.of(2025, 5, 30), 1)).contains(LocalDate.of(2025, 8, 25));
+        assertThat(calendar.plusSchoolDays(CalendarSnapshot.EPOCH, -1)).isEmpty();
+        assertThat(calendar.plusSchoolDays(HORIZON, 5)).isEmpty();
+    }
+
+    @Test
+    void termsAreFoundByKeyAndDate() {
+        assertThat(calendar.terms()).extracting(CalendarSnapshot.Term::semester).containsExactly("Spring", "Fall");
+        assertThat(calendar.term("Fall", "2025-2026")).map(CalendarSnapshot.Term::startDate).contains(FALL.getStartDate());
+        assertThat(calendar.term("Fall", "2030-2031")).isEmpty();
+        assertThat(calendar.termOf(LocalDate.of(2025, 3, 11))).map(CalendarSnapshot.Term::semester).contains("Spring");
+        assertThat(calendar.termOf(LocalDate.of(2025, 7, 7))).isEmpty();
+    }
+
+    @Test
+    void horizonCoversTheLastTerm() {
+        AcademicTerm late = new AcademicTerm("Spring", "2030-2031", LocalDate.of(2031, 2, 3), LocalDate.of(2031, 5, 30));
+
+        CalendarSnapshot extended = new CalendarSnapshot(List.of(late), List.of(), HORIZON);
+
+        assertThat(extended.horizon()).isEqualTo(LocalDate.of(2031, 5, 31));
+        assertThat(extended.isSchoolDay(LocalDate.of(2031, 5, 30))).isTrue();
+        assertThat(calendar.horizon()).isEqualTo(HORIZON);
+    }
+
+    // the rule spelled out: weekdays that are not holidays and, between the first and last term, inside a term
+    private static boolean isSchoolDay(LocalDate day) {
+        if (Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY).contains(day.getDayOfWeek()) || day.equals(HOLIDAY)) {
+            return false;
+        }
+        if (day.isBefore(SPRING.getStartDate()) || day.isAfter(FALL.getEndDate())) {
+            return true;
+        }
+        return inside(day, SPRING) || inside(day, FALL);
+    }
+
+    private static boolean inside(LocalDate day, AcademicTerm term) {
+        return !day.isBefore(term.getStartDate()) && !day.isAfter(term.getEndDate());
+    }
+}
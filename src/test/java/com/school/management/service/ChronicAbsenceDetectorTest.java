@@ -0,0 +1,153 @@
+package com.school.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two detector instances in one consumer group sharing a Redis checkpoint: whoever takes over a
+ * partition must continue from the previous owner's state, not from what it loaded at startup.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringJUnitConfig
+class ChronicAbsenceDetectorTest {
+
+    private static final String CHECKPOINT_KEY = "attendance-absence-state:v2";
+
+    private static final TopicPartition PARTITION_0 = new TopicPartition(EventPublisher.ATTENDANCE_EVENTS_TOPIC, 0);
+
+    private static final TopicPartition PARTITION_1 = new TopicPartition(EventPublisher.ATTENDANCE_EVENTS_TOPIC, 1);
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 3, 10);
+
+    @Container
+    static final GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Configuration
+    @Import(ChronicAbsenceDetector.class)
+    static class RedisTestConfig {
+
+        @Bean
+        LettuceConnectionFactory redisConnectionFactory() {
+            return new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        }
+
+        @Bean
+        StringRedisTemplate stringRedisTemplate(LettuceConnectionFactory connectionFactory) {
+            return new StringRedisTemplate(connectionFactory);
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @Autowired
+    private ChronicAbsenceDetector first;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @MockitoBean
+    private AcademicCalendar academicCalendar;
+
+    private ChronicAbsenceDetector second;
+
+    @BeforeEach
+    void setUp() {
+        // the context's detector is shared by all tests, so every test starts it without partitions
+        first.onPartitionsRevoked(List.of(PARTITION_0, PARTITION_1));
+        stringRedisTemplate.delete(CHECKPOINT_KEY);
+        when(academicCalendar.snapshot()).thenReturn(new CalendarSnapshot(List.of(), List.of(), LocalDate.of(2030, 1, 1)));
+        second = applicationContext.getAutowireCapableBeanFactory().createBean(ChronicAbsenceDetector.class);
+    }
+
+    @Test
+    void takeoverContinuesFromThePreviousOwnersState() {
+        // the second instance owned the partition at startup, before any absences
+        second.onPartitionsAssigned(Map.of(PARTITION_0, 0L), null);
+        second.onPartitionsRevoked(List.of(PARTITION_0));
+        first.onPartitionsAssigned(Map.of(PARTITION_0, 0L), null);
+
+        first.consume(absent(1L, MONDAY, 0), mock(Acknowledgment.class));
+        first.consume(absent(1L, MONDAY.plusDays(1), 0), mock(Acknowledgment.class));
+        first.onPartitionsRevoked(List.of(PARTITION_0));
+        second.onPartitionsAssigned(Map.of(PARTITION_0, 0L), null);
+        second.consume(absent(1L, MONDAY.plusDays(2), 0), mock(Acknowledgment.class));
+
+        verify(notificationService).sendAbsenceAlert(1L, 2L, "absent for 3 consecutive school days");
+    }
+
+    @Test
+    void assignmentLoadsOnlyItsOwnPartitions() {
+        first.onPartitionsAssigned(Map.of(PARTITION_0, 0L, PARTITION_1, 0L), null);
+        first.consume(absent(1L, MONDAY, 0), mock(Acknowledgment.class));
+        first.consume(absent(1L, MONDAY.plusDays(1), 0), mock(Acknowledgment.class));
+        first.consume(absent(5L, MONDAY, 1), mock(Acknowledgment.class));
+        first.consume(absent(5L, MONDAY.plusDays(1), 1), mock(Acknowledgment.class));
+        first.onPartitionsRevoked(List.of(PARTITION_1));
+
+        second.onPartitionsAssigned(Map.of(PARTITION_1, 0L), null);
+        second.consume(absent(5L, MONDAY.plusDays(2), 1), mock(Acknowledgment.class));
+        // partition 0 stayed with the first instance, which still holds its state
+        first.consume(absent(1L, MONDAY.plusDays(2), 0), mock(Acknowledgment.class));
+
+        verify(notificationService).sendAbsenceAlert(5L, 2L, "absent for 3 consecutive school days");
+        verify(notificationService).sendAbsenceAlert(1L, 2L, "absent for 3 consecutive school days");
+    }
+
+    @Test
+    void revokedPartitionsAreDropped() {
+        first.onPartitionsAssigned(Map.of(PARTITION_0, 0L), null);
+        first.consume(absent(1L, MONDAY, 0), mock(Acknowledgment.class));
+        first.consume(absent(1L, MONDAY.plusDays(1), 0), mock(Acknowledgment.class));
+        first.onPartitionsRevoked(List.of(PARTITION_0));
+
+        // a late record from before the handoff starts a fresh state instead of reusing the dropped one
+        first.consume(absent(1L, MONDAY.plusDays(2), 0), mock(Acknowledgment.class));
+
+        verify(notificationService, never()).sendAbsenceAlert(anyLong(), anyLong(), any());
+    }
+
+    private static ConsumerRecord<String, Object> absent(Long studentId, LocalDate date, int partition) {
+        EventPublisher.AttendanceChangeData change = new EventPublisher.AttendanceChangeData(null, studentId, 2L,
+                date.toString(), null, "ABSENT", "teacher");
+        return new ConsumerRecord<>(EventPublisher.ATTENDANCE_EVENTS_TOPIC, partition, 0L, String.valueOf(studentId),
+                new EventPublisher.SchoolEvent<>(EventPublisher.ATTENDANCE_CHANGED_EVENT, change, System.currentTimeMillis()));
+    }
+}
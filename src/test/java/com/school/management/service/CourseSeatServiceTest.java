@@ -0,0 +1,189 @@
+package com.school.management.service;
+
+import com.school.management.dto.CourseView;
+import com.school.management.repository.EnrollmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the seat counter scripts against a real Redis, so the Lua itself is exercised.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringJUnitConfig
+class CourseSeatServiceTest {
+
+    private static final Long COURSE_ID = 7L;
+
+    private static final String KEY = "course-seats:" + COURSE_ID;
+
+    @Container
+    static final GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Configuration
+    @Import(CourseSeatService.class)
+    static class RedisTestConfig {
+
+        @Bean
+        LettuceConnectionFactory redisConnectionFactory() {
+            return new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        }
+
+        @Bean
+        StringRedisTemplate stringRedisTemplate(LettuceConnectionFactory connectionFactory) {
+            return new StringRedisTemplate(connectionFactory);
+        }
+    }
+
+    @Autowired
+    private CourseSeatService courseSeatService;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @MockitoBean
+    private EnrollmentRepository enrollmentRepository;
+
+    @MockitoBean
+    private CourseCatalog courseCatalog;
+
+    @BeforeEach
+    void setUp() {
+        stringRedisTemplate.delete(KEY);
+    }
+
+    @Test
+    void reserveSeedsFromEnrolledCountAndStopsAtCapacity() {
+        withCapacity(3);
+        when(enrollmentRepository.countActiveEnrollmentsByCourse(COURSE_ID)).thenReturn(1L);
+
+        assertThat(courseSeatService.reserve(COURSE_ID)).isTrue();
+        assertThat(courseSeatService.reserve(COURSE_ID)).isTrue();
+        assertThat(courseSeatService.reserve(COURSE_ID)).isFalse();
+        assertThat(stringRedisTemplate.opsForValue().get(KEY)).isEqualTo("0");
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        withCapacity(10);
+        when(enrollmentRepository.countActiveEnrollmentsByCourse(COURSE_ID)).thenReturn(0L);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> attempts = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                attempts.add(() -> courseSeatService.reserve(COURSE_ID));
+            }
+            int granted = 0;
+            for (Future<Boolean> attempt : pool.invokeAll(attempts)) {
+                granted += attempt.get() ? 1 : 0;
+            }
+            assertThat(granted).isEqualTo(10);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(stringRedisTemplate.opsForValue().get(KEY)).isEqualTo("0");
+    }
+
+    @Test
+    void releaseNeverCreatesACounter() {
+        withCapacity(3);
+
+        courseSeatService.release(COURSE_ID);
+
+        assertThat(stringRedisTemplate.hasKey(KEY)).isFalse();
+    }
+
+    @Test
+    void releaseGivesBackASeatButNeverExceedsCapacity() {
+        withCapacity(3);
+        stringRedisTemplate.opsForValue().set(KEY, "2");
+
+        courseSeatService.release(COURSE_ID);
+        courseSeatService.release(COURSE_ID);
+
+        assertThat(stringRedisTemplate.opsForValue().get(KEY)).isEqualTo("3");
+    }
+
+    @Test
+    void courseWithoutCapacityHasNoCounter() {
+        withCapacity(null);
+
+        assertThat(courseSeatService.reserve(COURSE_ID)).isTrue();
+        courseSeatService.release(COURSE_ID);
+
+        assertThat(stringRedisTemplate.hasKey(KEY)).isFalse();
+    }
+
+    @Test
+    void reconcileLowersAHighCounterAtOnce() {
+        CourseView course = withCapacity(3);
+        when(courseCatalog.findActive()).thenReturn(List.of(course));
+        when(enrollmentRepository.countActiveEnrollmentsGroupedByCourse())
+                .thenReturn(List.<Object[]>of(new Object[]{COURSE_ID, 2L}));
+        stringRedisTemplate.opsForValue().set(KEY, "3");
+
+        assertThat(courseSeatService.reconcile()).isEqualTo(1);
+        assertThat(stringRedisTemplate.opsForValue().get(KEY)).isEqualTo("1");
+    }
+
+    @Test
+    void reconcileRaisesALowCounterOnlyWhenTheGapPersists() {
+        CourseView course = withCapacity(3);
+        when(courseCatalog.findActive()).thenReturn(List.of(course));
+        when(enrollmentRepository.countActiveEnrollmentsGroupedByCourse())
+                .thenReturn(List.<Object[]>of(new Object[]{COURSE_ID, 2L}));
+        stringRedisTemplate.opsForValue().set(KEY, "0");
+
+        // an in-flight enrollment may hold that seat, so the first sighting is left alone
+        assertThat(courseSeatService.reconcile()).isZero();
+        assertThat(stringRedisTemplate.opsForValue().get(KEY)).isEqualTo("0");
+
+        assertThat(courseSeatService.reconcile()).isEqualTo(1);
+        assertThat(stringRedisTemplate.opsForValue().get(KEY)).isEqualTo("1");
+    }
+
+    @Test
+    void resetDropsTheCounterForReseeding() {
+        withCapacity(5);
+        stringRedisTemplate.opsForValue().set(KEY, "0");
+        when(enrollmentRepository.countActiveEnrollmentsByCourse(COURSE_ID)).thenReturn(3L);
+
+        courseSeatService.reset(COURSE_ID);
+
+        assertThat(courseSeatService.reserve(COURSE_ID)).isTrue();
+        assertThat(stringRedisTemplate.opsForValue().get(KEY)).isEqualTo("1");
+    }
+
+    private CourseView withCapacity(Integer maxStudents) {
+        CourseView course = new CourseView();
+        course.setId(COURSE_ID);
+        course.setMaxStudents(maxStudents);
+        course.setIsActive(true);
+        when(courseCatalog.findById(COURSE_ID)).thenReturn(Optional.of(course));
+        return course;
+    }
+}
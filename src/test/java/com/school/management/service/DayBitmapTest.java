@@ -0,0 +1,157 @@
+package com.school.management.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DayBitmapTest {
+
+    @Test
+    void setBitsAreFoundAcrossWordBoundaries() {
+        DayBitmap bitmap = bitmap(0, 63, 64, 127, 128, 1000);
+
+        for (int bit : new int[] {0, 63, 64, 127, 128, 1000}) {
+            assertThat(bitmap.get(bit)).as("bit %d", bit).isTrue();
+        }
+        assertThat(bitmap.get(1)).isFalse();
+        assertThat(bitmap.get(999)).isFalse();
+        assertThat(bitmap.get(5000)).isFalse();
+    }
+
+    @Test
+    void growsTowardsLowerWords() {
+        DayBitmap bitmap = bitmap(700);
+        bitmap.set(3);
+
+        assertThat(bitmap.get(3)).isTrue();
+        assertThat(bitmap.get(700)).isTrue();
+        assertThat(bitmap.cardinality(0, 1000)).isEqualTo(2);
+    }
+
+    @Test
+    void storesOnlyTheSpanOfSetWords() {
+        DayBitmap bitmap = bitmap(640, 800);
+
+        assertThat(bitmap.sizeInBytes()).isEqualTo(16 + 8 * 3);
+
+        bitmap.clear(640);
+        assertThat(bitmap.sizeInBytes()).isEqualTo(16 + 8);
+
+        bitmap.clear(800);
+        assertThat(bitmap.isEmpty()).isTrue();
+        assertThat(bitmap.sizeInBytes()).isEqualTo(16);
+    }
+
+    @Test
+    void clearingOutsideTheSpanIsIgnored() {
+        DayBitmap bitmap = bitmap(100);
+
+        bitmap.clear(5);
+        bitmap.clear(5000);
+
+        assertThat(bitmap.get(100)).isTrue();
+        assertThat(bitmap.cardinality(0, Integer.MAX_VALUE)).isEqualTo(1);
+    }
+
+    @Test
+    void cardinalityCountsBothEndsInclusive() {
+        DayBitmap bitmap = bitmap(10, 11, 63, 64, 65, 200);
+
+        assertThat(bitmap.cardinality(10, 10)).isEqualTo(1);
+        assertThat(bitmap.cardinality(11, 64)).isEqualTo(3);
+        assertThat(bitmap.cardinality(12, 62)).isZero();
+        assertThat(bitmap.cardinality(0, 199)).isEqualTo(5);
+        assertThat(bitmap.cardinality(0, 200)).isEqualTo(6);
+        assertThat(bitmap.cardinality(64, 10)).isZero();
+        assertThat(new DayBitmap().cardinality(0, 100)).isZero();
+    }
+
+    @Test
+    void forEachVisitsRangeInOrder() {
+        DayBitmap bitmap = bitmap(130, 5, 64, 63, 300);
+        List<Integer> visited = new ArrayList<>();
+
+        bitmap.forEach(6, 299, visited::add);
+
+        assertThat(visited).containsExactly(63, 64, 130);
+    }
+
+    @Test
+    void runEndingAtCountsBackToTheFirstGap() {
+        DayBitmap bitmap = new DayBitmap();
+        for (int bit = 58; bit <= 140; bit++) {
+            bitmap.set(bit);
+        }
+        bitmap.set(50);
+
+        assertThat(bitmap.runEndingAt(140)).isEqualTo(83);
+        assertThat(bitmap.runEndingAt(63)).isEqualTo(6);
+        assertThat(bitmap.runEndingAt(58)).isEqualTo(1);
+        assertThat(bitmap.runEndingAt(50)).isEqualTo(1);
+        assertThat(bitmap.runEndingAt(57)).isZero();
+        assertThat(bitmap.runEndingAt(141)).isZero();
+        assertThat(bitmap.runEndingAt(2000)).isZero();
+    }
+
+    @Test
+    void runStopsAtTheLowestStoredWord() {
+        DayBitmap bitmap = new DayBitmap();
+        for (int bit = 64; bit <= 70; bit++) {
+            bitmap.set(bit);
+        }
+
+        assertThat(bitmap.runEndingAt(70)).isEqualTo(7);
+    }
+
+    @Test
+    void previousSetBitLooksAtOrBelowTheBit() {
+        DayBitmap bitmap = bitmap(70, 130);
+
+        assertThat(bitmap.previousSetBit(130)).isEqualTo(130);
+        assertThat(bitmap.previousSetBit(129)).isEqualTo(70);
+        assertThat(bitmap.previousSetBit(5000)).isEqualTo(130);
+        assertThat(bitmap.previousSetBit(69)).isEqualTo(-1);
+        assertThat(bitmap.previousSetBit(10)).isEqualTo(-1);
+        assertThat(new DayBitmap().previousSetBit(100)).isEqualTo(-1);
+    }
+
+    @Test
+    void matchesBitSetUnderRandomEdits() {
+        Random random = new Random(42);
+        DayBitmap bitmap = new DayBitmap();
+        BitSet expected = new BitSet();
+        for (int i = 0; i < 5000; i++) {
+            int bit = 200 + random.nextInt(600);
+            if (random.nextInt(3) == 0) {
+                bitmap.clear(bit);
+                expected.clear(bit);
+            } else {
+                bitmap.set(bit);
+                expected.set(bit);
+            }
+            int from = random.nextInt(1000);
+            int to = from + random.nextInt(300);
+            int probe = random.nextInt(1000);
+
+            assertThat(bitmap.get(probe)).isEqualTo(expected.get(probe));
+            assertThat(bitmap.cardinality(from, to)).isEqualTo(expected.get(from, to + 1).cardinality());
+            assertThat(bitmap.previousSetBit(probe)).isEqualTo(expected.previousSetBit(probe));
+            assertThat(bitmap.runEndingAt(probe))
+                    .isEqualTo(expected.get(probe) ? probe - expected.previousClearBit(probe) : 0);
+            assertThat(bitmap.isEmpty()).isEqualTo(expected.isEmpty());
+        }
+    }
+
+    private static DayBitmap bitmap(int... bits) {
+        DayBitmap bitmap = new DayBitmap();
+        for (int bit : bits) {
+            bitmap.set(bit);
+        }
+        return bitmap;
+    }
+}
@@ -0,0 +1,203 @@
+package com.school.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.management.dto.EnrollementDto;
+import com.school.management.dto.EnrollmentTicket;
+import com.school.management.entity.Enrollment;
+import exception.CustomException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Micro-batching of the admission queue with a single worker: requests queued while the worker
+ * is busy are admitted per course with one screening call and one insert per status.
+ */
+@SpringJUnitConfig
+@TestPropertySource(properties = {
+        "app.enrollment.admission.enabled=true",
+        "app.enrollment.admission.workers=1",
+        "app.enrollment.admission.batch-size=10"})
+class EnrollmentAdmissionServiceTest {
+
+    private static final Long COURSE_ID = 7L;
+
+    private static final Long OTHER_COURSE_ID = 8L;
+
+    // screening of this course blocks the worker until the test lets it go
+    private static final Long GATE_COURSE_ID = 9L;
+
+    @Configuration
+    @Import(EnrollmentAdmissionService.class)
+    static class AdmissionTestConfig {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @Autowired
+    private EnrollmentAdmissionService enrollmentAdmissionService;
+
+    @MockitoBean
+    private EnrollmentService enrollmentService;
+
+    @MockitoBean
+    private CourseSeatService courseSeatService;
+
+    @MockitoBean
+    private AttendanceCacheService attendanceCacheService;
+
+    @MockitoBean
+    private TeacherDashboardService teacherDashboardService;
+
+    @MockitoBean
+    private StringRedisTemplate stringRedisTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        Map<Object, String> tickets = new ConcurrentHashMap<>();
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(stringRedisTemplate.opsForValue()).thenReturn(values);
+        doAnswer(invocation -> tickets.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(values).set(anyString(), anyString(), any(Duration.class));
+        when(values.get(any())).thenAnswer(invocation -> tickets.get(invocation.getArgument(0)));
+        when(enrollmentService.screen(any(), any())).thenAnswer(invocation -> admissible(invocation.getArgument(1)));
+        when(enrollmentService.insertBatch(any(), any(), any())).thenAnswer(invocation -> enrollmentIds(invocation.getArgument(1)));
+        enrollmentAdmissionService.start();
+    }
+
+    @Test
+    void requestsQueuedBehindABusyWorkerAreAdmittedInOneBatchPerCourse() throws Exception {
+        CountDownLatch screening = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            screening.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return List.of();
+        }).when(enrollmentService).screen(eq(GATE_COURSE_ID), any());
+        when(courseSeatService.reserve(COURSE_ID)).thenReturn(true, true, false);
+
+        submit("S-10", GATE_COURSE_ID);
+        assertThat(screening.await(10, TimeUnit.SECONDS)).isTrue();
+        List<EnrollmentTicket> queued = IntStream.rangeClosed(1, 5).mapToObj(i -> submit("S-" + i, COURSE_ID)).toList();
+        EnrollmentTicket other = submit("S-6", OTHER_COURSE_ID);
+        release.countDown();
+
+        assertThat(queued.stream().map(this::settled).map(EnrollmentTicket::getStatus)).containsExactly(
+                EnrollmentTicket.Status.ENROLLED, EnrollmentTicket.Status.ENROLLED, EnrollmentTicket.Status.WAITLISTED,
+                EnrollmentTicket.Status.WAITLISTED, EnrollmentTicket.Status.WAITLISTED);
+        assertThat(settled(other).getStatus()).isEqualTo(EnrollmentTicket.Status.WAITLISTED);
+        verify(enrollmentService).screen(eq(COURSE_ID), argThat(tickets -> tickets.size() == 5));
+        verify(enrollmentService).screen(eq(OTHER_COURSE_ID), argThat(tickets -> tickets.size() == 1));
+        verify(enrollmentService).insertBatch(eq(COURSE_ID), argThat(rows -> rows.size() == 2), eq(Enrollment.EnrollmentStatus.ENROLLED));
+        verify(enrollmentService).insertBatch(eq(COURSE_ID), argThat(rows -> rows.size() == 3), eq(Enrollment.EnrollmentStatus.WAITLISTED));
+    }
+
+    @Test
+    void batchRacingAConcurrentEnrollmentFallsBackToRowByRow() {
+        when(courseSeatService.reserve(COURSE_ID)).thenReturn(true);
+        doThrow(new DuplicateKeyException("uk_enrollments_student_course"))
+                .when(enrollmentService).insertBatch(eq(COURSE_ID), any(), eq(Enrollment.EnrollmentStatus.ENROLLED));
+        // S-2 was enrolled by another instance between screening and insert
+        doAnswer(invocation -> {
+            Map<Long, Long> ids = enrollmentIds(invocation.getArgument(1));
+            ids.remove(2L);
+            return ids;
+        }).when(enrollmentService).insertEach(eq(COURSE_ID), any(), eq(Enrollment.EnrollmentStatus.ENROLLED));
+
+        EnrollmentTicket first = submit("S-1", COURSE_ID);
+        EnrollmentTicket second = submit("S-2", COURSE_ID);
+
+        EnrollmentTicket enrolled = settled(first);
+        assertThat(enrolled.getStatus()).isEqualTo(EnrollmentTicket.Status.ENROLLED);
+        assertThat(enrolled.getEnrollmentId()).isEqualTo(1001L);
+        EnrollmentTicket rejected = settled(second);
+        assertThat(rejected.getStatus()).isEqualTo(EnrollmentTicket.Status.REJECTED);
+        assertThat(rejected.getMessage()).isEqualTo("already enrolled");
+        // the seat reserved for the lost row goes back
+        verify(courseSeatService).release(COURSE_ID);
+    }
+
+    @Test
+    void failedAdmissionRejectsTheTicketsAndGivesTheirSeatsBack() {
+        when(courseSeatService.reserve(COURSE_ID)).thenReturn(true);
+        doThrow(new IllegalStateException("database unavailable"))
+                .when(enrollmentService).insertBatch(eq(COURSE_ID), any(), any());
+
+        EnrollmentTicket ticket = settled(submit("S-1", COURSE_ID));
+
+        assertThat(ticket.getStatus()).isEqualTo(EnrollmentTicket.Status.REJECTED);
+        assertThat(ticket.getMessage()).isEqualTo("enrollment failed, please retry");
+        verify(courseSeatService).release(COURSE_ID);
+    }
+
+    @Test
+    void requestWithoutCourseIsRefusedUpFront() {
+        EnrollementDto request = new EnrollementDto();
+        request.setStudentId("S-1");
+
+        assertThatThrownBy(() -> enrollmentAdmissionService.submit(request))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("studentId and courseId are required");
+    }
+
+    private EnrollmentTicket submit(String rollNumber, Long courseId) {
+        EnrollementDto request = new EnrollementDto();
+        request.setStudentId(rollNumber);
+        request.setCourseId(courseId);
+        return enrollmentAdmissionService.submit(request);
+    }
+
+    private EnrollmentTicket settled(EnrollmentTicket ticket) {
+        return await().atMost(Duration.ofSeconds(10)).until(
+                () -> enrollmentAdmissionService.poll(ticket.getTicketId(), Duration.ofSeconds(1)).get(),
+                polled -> polled != null && polled.getStatus() != EnrollmentTicket.Status.PENDING);
+    }
+
+    // roll number S-n belongs to the student with primary key n
+    private static List<EnrollmentService.Admissible> admissible(List<EnrollmentTicket> tickets) {
+        return tickets.stream()
+                .map(ticket -> new EnrollmentService.Admissible(ticket, Long.valueOf(ticket.getStudentId().substring(2))))
+                .toList();
+    }
+
+    private static Map<Long, Long> enrollmentIds(List<EnrollmentService.Admissible> rows) {
+        Map<Long, Long> ids = new HashMap<>();
+        rows.forEach(row -> ids.put(row.studentId(), 1000 + row.studentId()));
+        return ids;
+    }
+}
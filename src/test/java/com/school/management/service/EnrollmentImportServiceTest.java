@@ -0,0 +1,154 @@
+package com.school.management.service;
+
+import com.school.management.dto.CourseView;
+import com.school.management.dto.EnrollmentImportJob;
+import com.school.management.repository.EnrollmentRepository;
+import com.school.management.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Error line numbers of the CSV import: the header, blank lines and chunk boundaries must not
+ * shift the 1-based line reported for a row.
+ */
+@SpringJUnitConfig
+@Import(EnrollmentImportService.class)
+class EnrollmentImportServiceTest {
+
+    private static final Long COURSE_ID = 10L;
+
+    @Autowired
+    private EnrollmentImportService enrollmentImportService;
+
+    @MockitoBean
+    private StudentRepository studentRepository;
+
+    @MockitoBean
+    private EnrollmentRepository enrollmentRepository;
+
+    @MockitoBean
+    private EnrollmentService enrollmentService;
+
+    @MockitoBean
+    private CourseCatalog courseCatalog;
+
+    @MockitoBean
+    private CourseSeatService courseSeatService;
+
+    @MockitoBean
+    private AttendanceCacheService attendanceCacheService;
+
+    @MockitoBean
+    private TeacherDashboardService teacherDashboardService;
+
+    @BeforeEach
+    void setUp() {
+        CourseView course = new CourseView();
+        course.setId(COURSE_ID);
+        course.setCourseCode("MATH-101");
+        when(courseCatalog.findByCode("MATH-101")).thenReturn(Optional.of(course));
+        when(studentRepository.findIdsByStudentIdIn(anyCollection())).thenAnswer(invocation -> {
+            List<Object[]> ids = new ArrayList<>();
+            for (Object code : invocation.<Collection<?>>getArgument(0)) {
+                if (code.equals("S-1")) {
+                    ids.add(new Object[]{"S-1", 1L});
+                } else if (code.equals("S-2")) {
+                    ids.add(new Object[]{"S-2", 2L});
+                }
+            }
+            return ids;
+        });
+    }
+
+    @Test
+    void errorsReportTheirLineInTheFile() throws IOException {
+        when(enrollmentRepository.findPairsByStudentIdInAndCourseIdIn(anyCollection(), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{2L, COURSE_ID}));
+        String csv = """
+                "studentId","courseCode"
+                "S-1", "MATH-101"
+
+                S-404,MATH-101
+                S-1,NOPE-1
+                S-1,MATH-101
+                ,MATH-101
+                S-2,MATH-101
+                """;
+
+        EnrollmentImportJob job = run(csv);
+
+        assertThat(job.getStatus()).isEqualTo(EnrollmentImportJob.Status.COMPLETED);
+        assertThat(job.getTotalRows()).isEqualTo(6);
+        assertThat(job.getProcessedRows()).isEqualTo(6);
+        assertThat(job.getInserted()).isEqualTo(1);
+        assertThat(job.getErrors())
+                .extracting(EnrollmentImportJob.RowError::getLine, EnrollmentImportJob.RowError::getMessage)
+                .containsExactly(
+                        tuple(4L, "Student not found"),
+                        tuple(5L, "Course not found"),
+                        tuple(6L, "duplicate row in file"),
+                        tuple(7L, "studentId and courseCode are required"),
+                        tuple(8L, "already enrolled"));
+        verify(enrollmentService).importBatch(List.of(new EnrollmentService.ImportRow(2, 1L, COURSE_ID)));
+    }
+
+    @Test
+    void leadingBlankLinesAndCrlfKeepLineNumbers() throws IOException {
+        EnrollmentImportJob job = run("\r\n\r\nS-404,MATH-101\r\n");
+
+        assertThat(job.getErrors())
+                .extracting(EnrollmentImportJob.RowError::getLine)
+                .containsExactly(3L);
+    }
+
+    @Test
+    void lineNumbersCarryAcrossChunks() throws IOException {
+        // 1001 data rows and one blank line after the header: the second chunk starts at line 1002
+        StringBuilder csv = new StringBuilder("studentId,courseCode\n");
+        for (int line = 2; line <= 1003; line++) {
+            csv.append(line == 500 ? "" : "S-1,MATH-101").append('\n');
+        }
+
+        EnrollmentImportJob job = run(csv.toString());
+
+        List<Long> expected = new ArrayList<>();
+        for (long line = 3; line <= 1003; line++) {
+            if (line != 500) {
+                expected.add(line);
+            }
+        }
+        assertThat(job.getInserted()).isEqualTo(1);
+        assertThat(job.getErrorCount()).isEqualTo(1000);
+        assertThat(job.getErrors())
+                .extracting(EnrollmentImportJob.RowError::getLine)
+                .containsExactlyElementsOf(expected);
+    }
+
+    private EnrollmentImportJob run(String csv) throws IOException {
+        String jobId = enrollmentImportService.start(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))).getJobId();
+        await().atMost(Duration.ofSeconds(10)).until(() ->
+                enrollmentImportService.getJob(jobId).orElseThrow().getStatus() != EnrollmentImportJob.Status.RUNNING);
+        return enrollmentImportService.getJob(jobId).orElseThrow();
+    }
+}
@@ -0,0 +1,122 @@
+package com.school.management.service;
+
+import com.school.management.entity.Course;
+import com.school.management.entity.Enrollment;
+import com.school.management.entity.Student;
+import com.school.management.repository.EnrollmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Waitlist promotion against the real enrollments table, including the seat release and
+ * notifications that follow the commit.
+ */
+@Import(EnrollmentService.class)
+class EnrollmentServiceTest extends JpaServiceTestSupport {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @MockitoBean
+    private CourseCatalog courseCatalog;
+
+    @MockitoBean
+    private EnrollmentCacheVersions enrollmentCacheVersions;
+
+    @MockitoBean
+    private CourseSeatService courseSeatService;
+
+    @MockitoBean
+    private WaitlistIndex waitlistIndex;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    private Course course;
+
+    private Enrollment seated;
+
+    private Enrollment waitingLonger;
+
+    private Enrollment waitingFirst;
+
+    @BeforeEach
+    void setUp() {
+        course = course("PHYS-201", "Mechanics");
+        course.setMaxStudents(1);
+        course = courseRepository.save(course);
+
+        seated = enroll(student("S-201", "ravi@school.test"), Enrollment.EnrollmentStatus.ENROLLED, null);
+        // inserted first but queued behind: promotion follows the position, not the id
+        waitingLonger = enroll(student("S-202", "meera@school.test"), Enrollment.EnrollmentStatus.WAITLISTED, 5L);
+        waitingFirst = enroll(student("S-203", "kiran@school.test"), Enrollment.EnrollmentStatus.WAITLISTED, 3L);
+    }
+
+    @Test
+    void droppingASeatPromotesTheLowestWaitlistPosition() {
+        assertThat(enrollmentService.dropEnrollment(seated.getId())).isTrue();
+
+        assertThat(statusOf(seated)).isEqualTo(Enrollment.EnrollmentStatus.DROPPED);
+        Enrollment promoted = enrollmentRepository.findById(waitingFirst.getId()).orElseThrow();
+        assertThat(promoted.getStatus()).isEqualTo(Enrollment.EnrollmentStatus.ENROLLED);
+        assertThat(promoted.getWaitlistPosition()).isNull();
+        assertThat(statusOf(waitingLonger)).isEqualTo(Enrollment.EnrollmentStatus.WAITLISTED);
+
+        verify(notificationService).sendWaitlistPromotion(waitingFirst.getStudent().getId(), course.getId());
+        verify(waitlistIndex).remove(course.getId(), waitingFirst.getId());
+        verify(courseSeatService, never()).release(any());
+    }
+
+    @Test
+    void leavingASeatThroughAnUpdatePromotesToo() {
+        enrollmentService.updateEnrollment(seated.getId(), "A", Enrollment.EnrollmentStatus.COMPLETED);
+
+        assertThat(statusOf(waitingFirst)).isEqualTo(Enrollment.EnrollmentStatus.ENROLLED);
+        assertThat(statusOf(waitingLonger)).isEqualTo(Enrollment.EnrollmentStatus.WAITLISTED);
+        verify(courseSeatService, never()).release(any());
+    }
+
+    @Test
+    void droppingASeatWithNobodyWaitingReleasesIt() {
+        enrollmentService.dropEnrollment(waitingFirst.getId());
+        enrollmentService.dropEnrollment(waitingLonger.getId());
+
+        enrollmentService.dropEnrollment(seated.getId());
+
+        verify(courseSeatService).release(course.getId());
+        verify(notificationService, never()).sendWaitlistPromotion(any(), any());
+    }
+
+    @Test
+    void droppingAWaitlistedStudentPromotesNobody() {
+        enrollmentService.dropEnrollment(waitingFirst.getId());
+
+        assertThat(statusOf(seated)).isEqualTo(Enrollment.EnrollmentStatus.ENROLLED);
+        assertThat(statusOf(waitingLonger)).isEqualTo(Enrollment.EnrollmentStatus.WAITLISTED);
+        verify(waitlistIndex).remove(course.getId(), waitingFirst.getId());
+        verify(courseSeatService, never()).release(any());
+        verify(notificationService, never()).sendWaitlistPromotion(any(), any());
+    }
+
+    private Enrollment enroll(Student student, Enrollment.EnrollmentStatus status, Long waitlistPosition) {
+        Enrollment enrollment = new Enrollment(student, course);
+        enrollment.setStatus(status);
+        enrollment.setWaitlistPosition(waitlistPosition);
+        return enrollmentRepository.save(enrollment);
+    }
+
+    private Enrollment.EnrollmentStatus statusOf(Enrollment enrollment) {
+        return enrollmentRepository.findById(enrollment.getId()).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,59 @@
+package com.school.management.service;
+
+import com.school.management.entity.Course;
+import com.school.management.entity.Student;
+import com.school.management.repository.CourseRepository;
+import com.school.management.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Base of the service tests that run against H2. There is no test transaction: the service
+ * under test commits, so after-commit work (index updates, events, seat releases) really runs,
+ * and the rows are deleted after each test instead of rolled back.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+abstract class JpaServiceTestSupport {
+
+    // children before parents; courses and students go through JPA so the users rows follow
+    private static final List<String> TABLES = List.of("attendance_counters", "attendance",
+            "submission_contents", "submissions", "assignments", "enrollments");
+
+    @Autowired
+    protected StudentRepository studentRepository;
+
+    @Autowired
+    protected CourseRepository courseRepository;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteRows() {
+        TABLES.forEach(table -> jdbcTemplate.update("DELETE FROM " + table));
+        courseRepository.deleteAll();
+        studentRepository.deleteAll();
+    }
+
+    protected Student student(String rollNumber, String email) {
+        return studentRepository.save(new Student("Test", "Student", email, "secret1", rollNumber, 2, "Math"));
+    }
+
+    protected Course course(String courseCode, String courseName) {
+        Course course = new Course();
+        course.setCourseCode(courseCode);
+        course.setCourseName(courseName);
+        return courseRepository.save(course);
+    }
+}
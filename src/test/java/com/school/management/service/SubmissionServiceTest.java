@@ -0,0 +1,126 @@
+package com.school.management.service;
+
+import com.school.management.dto.GradeEntry;
+import com.school.management.entity.Assignment;
+import com.school.management.entity.Course;
+import com.school.management.entity.Student;
+import com.school.management.entity.Submission;
+import com.school.management.repository.AssignmentRepository;
+import com.school.management.repository.SubmissionRepository;
+import exception.CustomException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Bulk grading: a request is validated as a whole, and a single bad entry grades nothing.
+ */
+@Import(SubmissionService.class)
+class SubmissionServiceTest extends JpaServiceTestSupport {
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    private Assignment essay;
+
+    private Student asha;
+
+    private Student ravi;
+
+    private Submission ashaEssay;
+
+    private Submission raviEssay;
+
+    private Submission ashaQuiz;
+
+    @BeforeEach
+    void setUp() {
+        Course course = course("ENG-101", "Composition");
+        essay = assignmentRepository.save(new Assignment("Essay", null, null, 10, Assignment.AssignmentType.HOMEWORK, course));
+        Assignment quiz = assignmentRepository.save(new Assignment("Quiz", null, null, 5, Assignment.AssignmentType.QUIZ, course));
+        asha = student("S-301", "asha@school.test");
+        ravi = student("S-302", "ravi@school.test");
+        ashaEssay = submissionService.create(new Submission(asha, essay, "first draft"));
+        raviEssay = submissionService.create(new Submission(ravi, essay, "final draft"));
+        ashaQuiz = submissionService.create(new Submission(asha, quiz, "b, c, a"));
+    }
+
+    @Test
+    void gradesEveryEntryWithItsFeedback() {
+        SubmissionService.GradedBatch batch = submissionService.gradeAll(essay.getId(),
+                List.of(entry(ashaEssay, "A", "well argued"), entry(raviEssay, "B", null)), "teacher");
+
+        assertThat(batch.graded()).isEqualTo(2);
+        assertThat(batch.studentIds()).containsExactlyInAnyOrder(asha.getId(), ravi.getId());
+        Submission graded = submissionService.getSubmission(ashaEssay.getId()).orElseThrow();
+        assertThat(graded.getGrade()).isEqualTo("A");
+        assertThat(graded.getGradedBy()).isEqualTo("teacher");
+        assertThat(graded.getGradedAt()).isNotNull();
+        assertThat(graded.getFeedback()).isEqualTo("well argued");
+        // feedback lives next to the body and must not replace it
+        assertThat(graded.getContent()).isEqualTo("first draft");
+        assertThat(gradeOf(raviEssay)).isEqualTo("B");
+    }
+
+    @Test
+    void submissionOfAnotherAssignmentRejectsTheWholeRequest() {
+        assertThatThrownBy(() -> submissionService.gradeAll(essay.getId(),
+                List.of(entry(ashaEssay, "A", null), entry(ashaQuiz, "C", null)), "teacher"))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("submissions not found for this assignment: [" + ashaQuiz.getId() + "]");
+
+        assertThat(gradeOf(ashaEssay)).isNull();
+        assertThat(gradeOf(ashaQuiz)).isNull();
+    }
+
+    @Test
+    void submissionGradedTwiceIsRejected() {
+        assertThatThrownBy(() -> submissionService.gradeAll(essay.getId(),
+                List.of(entry(ashaEssay, "A", null), entry(ashaEssay, "B", null)), "teacher"))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("submission " + ashaEssay.getId() + " is graded twice");
+
+        assertThat(gradeOf(ashaEssay)).isNull();
+    }
+
+    @Test
+    void blankGradeIsRejected() {
+        assertThatThrownBy(() -> submissionService.gradeAll(essay.getId(),
+                List.of(entry(ashaEssay, "A", null), entry(raviEssay, " ", null)), "teacher"))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("submissionId and grade are required");
+
+        assertThat(gradeOf(ashaEssay)).isNull();
+    }
+
+    @Test
+    void emptyRequestIsRejected() {
+        assertThatThrownBy(() -> submissionService.gradeAll(essay.getId(), List.of(), "teacher"))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("no grades given");
+    }
+
+    private static GradeEntry entry(Submission submission, String grade, String feedback) {
+        GradeEntry entry = new GradeEntry();
+        entry.setSubmissionId(submission.getId());
+        entry.setGrade(grade);
+        entry.setFeedback(feedback);
+        return entry;
+    }
+
+    private String gradeOf(Submission submission) {
+        return submissionRepository.findById(submission.getId()).orElseThrow().getGrade();
+    }
+}